@@ -1,6 +1,13 @@
 package io.github.jhipster.application.config;
 
+import org.ehcache.config.EvictionAdvisor;
 import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 
 /**
  * Properties specific to Jhipster Sample Application.
@@ -11,4 +18,637 @@ import org.springframework.boot.context.properties.ConfigurationProperties;
 @ConfigurationProperties(prefix = "application", ignoreUnknownFields = false)
 public class ApplicationProperties {
 
+    private final Security security = new Security();
+
+    private final Cache cache = new Cache();
+
+    private final UserImport userImport = new UserImport();
+
+    private final UserPurge userPurge = new UserPurge();
+
+    public Security getSecurity() {
+        return security;
+    }
+
+    public Cache getCache() {
+        return cache;
+    }
+
+    public UserImport getUserImport() {
+        return userImport;
+    }
+
+    public UserPurge getUserPurge() {
+        return userPurge;
+    }
+
+    public static class Security {
+
+        private final TokenCache tokenCache = new TokenCache();
+
+        private final Jwt jwt = new Jwt();
+
+        private final Revocation revocation = new Revocation();
+
+        private final RefreshToken refreshToken = new RefreshToken();
+
+        private final PasswordHash passwordHash = new PasswordHash();
+
+        private final LoginThrottle loginThrottle = new LoginThrottle();
+
+        public TokenCache getTokenCache() {
+            return tokenCache;
+        }
+
+        public Jwt getJwt() {
+            return jwt;
+        }
+
+        public Revocation getRevocation() {
+            return revocation;
+        }
+
+        public RefreshToken getRefreshToken() {
+            return refreshToken;
+        }
+
+        public PasswordHash getPasswordHash() {
+            return passwordHash;
+        }
+
+        public LoginThrottle getLoginThrottle() {
+            return loginThrottle;
+        }
+
+        public static class TokenCache {
+
+            private boolean enabled = true;
+
+            private int maxEntries = 10000;
+
+            public boolean isEnabled() {
+                return enabled;
+            }
+
+            public void setEnabled(boolean enabled) {
+                this.enabled = enabled;
+            }
+
+            public int getMaxEntries() {
+                return maxEntries;
+            }
+
+            public void setMaxEntries(int maxEntries) {
+                this.maxEntries = maxEntries;
+            }
+        }
+
+        public static class Jwt {
+
+            /**
+             * Signature algorithm of the JWTs: HS512 uses the JHipster secret, RS256 and ES256 use the key ring.
+             */
+            private String algorithm = "HS512";
+
+            private long keyRotationPeriodInSeconds = 604800;
+
+            private long keyPublicationAheadInSeconds = 3600;
+
+            /**
+             * Base64-encoded AES key encrypting the private keys of the key ring in the database. Defaults to a key
+             * derived from the JHipster secret.
+             */
+            private String keyEncryptionKey;
+
+            public String getAlgorithm() {
+                return algorithm;
+            }
+
+            public void setAlgorithm(String algorithm) {
+                this.algorithm = algorithm;
+            }
+
+            public long getKeyRotationPeriodInSeconds() {
+                return keyRotationPeriodInSeconds;
+            }
+
+            public void setKeyRotationPeriodInSeconds(long keyRotationPeriodInSeconds) {
+                this.keyRotationPeriodInSeconds = keyRotationPeriodInSeconds;
+            }
+
+            public long getKeyPublicationAheadInSeconds() {
+                return keyPublicationAheadInSeconds;
+            }
+
+            public void setKeyPublicationAheadInSeconds(long keyPublicationAheadInSeconds) {
+                this.keyPublicationAheadInSeconds = keyPublicationAheadInSeconds;
+            }
+
+            public String getKeyEncryptionKey() {
+                return keyEncryptionKey;
+            }
+
+            public void setKeyEncryptionKey(String keyEncryptionKey) {
+                this.keyEncryptionKey = keyEncryptionKey;
+            }
+        }
+
+        public static class Revocation {
+
+            /**
+             * Number of live revocations the Bloom filter is sized for, before it gets rebuilt.
+             */
+            private int expectedInsertions = 100000;
+
+            private double falsePositiveProbability = 0.01;
+
+            public int getExpectedInsertions() {
+                return expectedInsertions;
+            }
+
+            public void setExpectedInsertions(int expectedInsertions) {
+                this.expectedInsertions = expectedInsertions;
+            }
+
+            public double getFalsePositiveProbability() {
+                return falsePositiveProbability;
+            }
+
+            public void setFalsePositiveProbability(double falsePositiveProbability) {
+                this.falsePositiveProbability = falsePositiveProbability;
+            }
+        }
+
+        public static class RefreshToken {
+
+            /**
+             * Validity of the JWTs issued along with a refresh token.
+             */
+            private long accessTokenValidityInSeconds = 900;
+
+            public long getAccessTokenValidityInSeconds() {
+                return accessTokenValidityInSeconds;
+            }
+
+            public void setAccessTokenValidityInSeconds(long accessTokenValidityInSeconds) {
+                this.accessTokenValidityInSeconds = accessTokenValidityInSeconds;
+            }
+        }
+
+        public static class PasswordHash {
+
+            /**
+             * BCrypt cost of new hashes: when not set, it is calibrated at startup against the latency budget.
+             */
+            private Integer cost;
+
+            private int minCost = 10;
+
+            private int maxCost = 14;
+
+            private long latencyBudgetInMs = 100;
+
+            /**
+             * Threads hashing passwords: 0 means one per CPU.
+             */
+            private int poolSize = 0;
+
+            /**
+             * Password hashings waiting for a thread, beyond which they are rejected.
+             */
+            private int queueCapacity = 64;
+
+            public Integer getCost() {
+                return cost;
+            }
+
+            public void setCost(Integer cost) {
+                this.cost = cost;
+            }
+
+            public int getMinCost() {
+                return minCost;
+            }
+
+            public void setMinCost(int minCost) {
+                this.minCost = minCost;
+            }
+
+            public int getMaxCost() {
+                return maxCost;
+            }
+
+            public void setMaxCost(int maxCost) {
+                this.maxCost = maxCost;
+            }
+
+            public long getLatencyBudgetInMs() {
+                return latencyBudgetInMs;
+            }
+
+            public void setLatencyBudgetInMs(long latencyBudgetInMs) {
+                this.latencyBudgetInMs = latencyBudgetInMs;
+            }
+
+            public int getPoolSize() {
+                return poolSize;
+            }
+
+            public void setPoolSize(int poolSize) {
+                this.poolSize = poolSize;
+            }
+
+            public int getQueueCapacity() {
+                return queueCapacity;
+            }
+
+            public void setQueueCapacity(int queueCapacity) {
+                this.queueCapacity = queueCapacity;
+            }
+        }
+
+        public static class LoginThrottle {
+
+            private boolean enabled = true;
+
+            private long windowInSeconds = 300;
+
+            private int maxAttemptsPerLogin = 10;
+
+            private int maxAttemptsPerIp = 100;
+
+            /**
+             * Counters per throttled key type: keys sharing a counter can only be throttled earlier.
+             */
+            private int slots = 65536;
+
+            /**
+             * Addresses, or CIDR ranges, of the reverse proxies whose {@code X-Forwarded-For} header gives the client
+             * address. The header is ignored on requests coming from any other address.
+             */
+            private List<String> trustedProxies = new ArrayList<>();
+
+            public boolean isEnabled() {
+                return enabled;
+            }
+
+            public void setEnabled(boolean enabled) {
+                this.enabled = enabled;
+            }
+
+            public long getWindowInSeconds() {
+                return windowInSeconds;
+            }
+
+            public void setWindowInSeconds(long windowInSeconds) {
+                this.windowInSeconds = windowInSeconds;
+            }
+
+            public int getMaxAttemptsPerLogin() {
+                return maxAttemptsPerLogin;
+            }
+
+            public void setMaxAttemptsPerLogin(int maxAttemptsPerLogin) {
+                this.maxAttemptsPerLogin = maxAttemptsPerLogin;
+            }
+
+            public int getMaxAttemptsPerIp() {
+                return maxAttemptsPerIp;
+            }
+
+            public void setMaxAttemptsPerIp(int maxAttemptsPerIp) {
+                this.maxAttemptsPerIp = maxAttemptsPerIp;
+            }
+
+            public int getSlots() {
+                return slots;
+            }
+
+            public void setSlots(int slots) {
+                this.slots = slots;
+            }
+
+            public List<String> getTrustedProxies() {
+                return trustedProxies;
+            }
+
+            public void setTrustedProxies(List<String> trustedProxies) {
+                this.trustedProxies = trustedProxies;
+            }
+        }
+    }
+
+    public static class Cache {
+
+        /**
+         * Directory of the disk tiers, required when a cache has one.
+         */
+        private String persistenceDirectory;
+
+        /**
+         * Settings of the caches, by cache name: caches which are not listed, and settings which are not set, default
+         * to {@code jhipster.cache.ehcache}.
+         */
+        private final Map<String, Region> regions = new LinkedHashMap<>();
+
+        private final Invalidation invalidation = new Invalidation();
+
+        private final WarmUp warmUp = new WarmUp();
+
+        public String getPersistenceDirectory() {
+            return persistenceDirectory;
+        }
+
+        public void setPersistenceDirectory(String persistenceDirectory) {
+            this.persistenceDirectory = persistenceDirectory;
+        }
+
+        public Map<String, Region> getRegions() {
+            return regions;
+        }
+
+        public Invalidation getInvalidation() {
+            return invalidation;
+        }
+
+        public WarmUp getWarmUp() {
+            return warmUp;
+        }
+
+        public static class Region {
+
+            /**
+             * Entries kept on heap: when not set, {@code jhipster.cache.ehcache.max-entries}.
+             */
+            private Long heapEntries;
+
+            /**
+             * Size of the off-heap tier, outside of the garbage-collected heap, if any.
+             */
+            private DataSize offheap;
+
+            /**
+             * Size of the disk tier, if any.
+             */
+            private DataSize disk;
+
+            /**
+             * Time to live of the entries: when neither it nor the time to idle is set,
+             * {@code jhipster.cache.ehcache.time-to-live-seconds}.
+             */
+            private Long timeToLiveSeconds;
+
+            /**
+             * Time to idle of the entries, exclusive with the time to live.
+             */
+            private Long timeToIdleSeconds;
+
+            /**
+             * Class of the advisor telling which entries should be kept when the heap tier is full.
+             */
+            private Class<? extends EvictionAdvisor<?, ?>> evictionAdvisor;
+
+            /**
+             * Time before expiry from which entries are reloaded in the background when accessed, for caches which
+             * have a reloader. Requires a time to live.
+             */
+            private Long refreshAheadSeconds;
+
+            /**
+             * Time after expiry during which entries are still served, while they are reloaded in the background.
+             */
+            private Long staleWhileRevalidateSeconds;
+
+            public Long getHeapEntries() {
+                return heapEntries;
+            }
+
+            public void setHeapEntries(Long heapEntries) {
+                this.heapEntries = heapEntries;
+            }
+
+            public DataSize getOffheap() {
+                return offheap;
+            }
+
+            public void setOffheap(DataSize offheap) {
+                this.offheap = offheap;
+            }
+
+            public DataSize getDisk() {
+                return disk;
+            }
+
+            public void setDisk(DataSize disk) {
+                this.disk = disk;
+            }
+
+            public Long getTimeToLiveSeconds() {
+                return timeToLiveSeconds;
+            }
+
+            public void setTimeToLiveSeconds(Long timeToLiveSeconds) {
+                this.timeToLiveSeconds = timeToLiveSeconds;
+            }
+
+            public Long getTimeToIdleSeconds() {
+                return timeToIdleSeconds;
+            }
+
+            public void setTimeToIdleSeconds(Long timeToIdleSeconds) {
+                this.timeToIdleSeconds = timeToIdleSeconds;
+            }
+
+            public Class<? extends EvictionAdvisor<?, ?>> getEvictionAdvisor() {
+                return evictionAdvisor;
+            }
+
+            public void setEvictionAdvisor(Class<? extends EvictionAdvisor<?, ?>> evictionAdvisor) {
+                this.evictionAdvisor = evictionAdvisor;
+            }
+
+            public Long getRefreshAheadSeconds() {
+                return refreshAheadSeconds;
+            }
+
+            public void setRefreshAheadSeconds(Long refreshAheadSeconds) {
+                this.refreshAheadSeconds = refreshAheadSeconds;
+            }
+
+            public Long getStaleWhileRevalidateSeconds() {
+                return staleWhileRevalidateSeconds;
+            }
+
+            public void setStaleWhileRevalidateSeconds(Long staleWhileRevalidateSeconds) {
+                this.staleWhileRevalidateSeconds = staleWhileRevalidateSeconds;
+            }
+        }
+
+        public static class Invalidation {
+
+            /**
+             * Bus sending cache evictions to the other nodes: {@code local} when there is a single node,
+             * {@code database} when there are several nodes sharing a database.
+             */
+            private Bus bus = Bus.LOCAL;
+
+            /**
+             * Evicted entries per cache in a batch sent to the other nodes, beyond which the whole cache is cleared.
+             */
+            private int maxKeysPerCache = 100;
+
+            public Bus getBus() {
+                return bus;
+            }
+
+            public void setBus(Bus bus) {
+                this.bus = bus;
+            }
+
+            public int getMaxKeysPerCache() {
+                return maxKeysPerCache;
+            }
+
+            public void setMaxKeysPerCache(int maxKeysPerCache) {
+                this.maxKeysPerCache = maxKeysPerCache;
+            }
+
+            public enum Bus {
+                LOCAL, DATABASE
+            }
+        }
+
+        public static class WarmUp {
+
+            private boolean enabled = true;
+
+            /**
+             * Most recently authenticated users to preload.
+             */
+            private int maxUsers = 1000;
+
+            /**
+             * Age of the oldest authentications considered.
+             */
+            private int lookbackInDays = 30;
+
+            private int batchSize = 100;
+
+            /**
+             * Batches loaded concurrently.
+             */
+            private int parallelism = 4;
+
+            public boolean isEnabled() {
+                return enabled;
+            }
+
+            public void setEnabled(boolean enabled) {
+                this.enabled = enabled;
+            }
+
+            public int getMaxUsers() {
+                return maxUsers;
+            }
+
+            public void setMaxUsers(int maxUsers) {
+                this.maxUsers = maxUsers;
+            }
+
+            public int getLookbackInDays() {
+                return lookbackInDays;
+            }
+
+            public void setLookbackInDays(int lookbackInDays) {
+                this.lookbackInDays = lookbackInDays;
+            }
+
+            public int getBatchSize() {
+                return batchSize;
+            }
+
+            public void setBatchSize(int batchSize) {
+                this.batchSize = batchSize;
+            }
+
+            public int getParallelism() {
+                return parallelism;
+            }
+
+            public void setParallelism(int parallelism) {
+                this.parallelism = parallelism;
+            }
+        }
+    }
+
+    public static class UserImport {
+
+        /**
+         * Users inserted per JDBC batch and per transaction.
+         */
+        private int batchSize = 500;
+
+        /**
+         * Threads hashing the passwords of an import, apart from the password hashing pool of logins.
+         */
+        private int hashingParallelism = 2;
+
+        /**
+         * Rejected rows reported with their error.
+         */
+        private int maxErrors = 1000;
+
+        public int getBatchSize() {
+            return batchSize;
+        }
+
+        public void setBatchSize(int batchSize) {
+            this.batchSize = batchSize;
+        }
+
+        public int getHashingParallelism() {
+            return hashingParallelism;
+        }
+
+        public void setHashingParallelism(int hashingParallelism) {
+            this.hashingParallelism = hashingParallelism;
+        }
+
+        public int getMaxErrors() {
+            return maxErrors;
+        }
+
+        public void setMaxErrors(int maxErrors) {
+            this.maxErrors = maxErrors;
+        }
+    }
+
+    public static class UserPurge {
+
+        /**
+         * Not activated users deleted per transaction.
+         */
+        private int chunkSize = 500;
+
+        /**
+         * Time after which a purge stops, leaving the remaining users to the next one; 0 for no limit.
+         */
+        private long maxDurationInSeconds = 600;
+
+        public int getChunkSize() {
+            return chunkSize;
+        }
+
+        public void setChunkSize(int chunkSize) {
+            this.chunkSize = chunkSize;
+        }
+
+        public long getMaxDurationInSeconds() {
+            return maxDurationInSeconds;
+        }
+
+        public void setMaxDurationInSeconds(long maxDurationInSeconds) {
+            this.maxDurationInSeconds = maxDurationInSeconds;
+        }
+    }
 }
@@ -1,33 +1,87 @@
 package io.github.jhipster.application.config;
 
+import java.io.File;
 import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Consumer;
 
+import javax.cache.Caching;
+
+import org.ehcache.config.EvictionAdvisor;
 import org.ehcache.config.builders.*;
+import org.ehcache.config.units.MemoryUnit;
+import org.ehcache.core.config.DefaultConfiguration;
+import org.ehcache.impl.config.persistence.DefaultPersistenceConfiguration;
 import org.ehcache.jsr107.Eh107Configuration;
+import org.ehcache.jsr107.EhcacheCachingProvider;
 
 import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cache.spi.RegionFactory;
+import io.github.jhipster.application.repository.CacheInvalidationRepository;
+import io.github.jhipster.application.repository.UserRepository;
+import io.github.jhipster.application.service.cache.CacheInvalidationBus;
+import io.github.jhipster.application.service.cache.DatabaseCacheInvalidationBus;
+import io.github.jhipster.application.service.cache.EhcacheMetrics;
+import io.github.jhipster.application.service.cache.EhcacheStatisticsRegistry;
+import io.github.jhipster.application.service.cache.LocalCacheInvalidationBus;
+import io.github.jhipster.application.service.cache.RefreshAheadCache;
+import io.github.jhipster.application.service.cache.RefreshAheadCacheManager;
 import io.github.jhipster.config.JHipsterProperties;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.factory.BeanInitializationException;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.actuate.metrics.cache.CacheMeterBinderProvider;
 import org.springframework.boot.autoconfigure.cache.JCacheManagerCustomizer;
 import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.context.annotation.*;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
 
+/**
+ * Ehcache configuration.
+ * <p>
+ * The size, expiry and eviction advisor of each cache are configured by cache name in
+ * {@code application.cache.regions}, and default to {@code jhipster.cache.ehcache}; the effective settings of each
+ * cache are logged at startup.
+ * <p>
+ * Each cache has a heap tier, and optionally off-heap and disk tiers. Off-heap and disk tiers store serialized
+ * entries outside of the garbage-collected heap, so large caches do not lengthen GC pauses; the off-heap size counts
+ * against {@code -XX:MaxDirectMemorySize}.
+ * <p>
+ * With several nodes, evictions are sent to the other nodes through the {@link CacheInvalidationBus} selected by
+ * {@code application.cache.invalidation.bus}.
+ * <p>
+ * All the caches, including the Hibernate regions, are bound to Micrometer by Spring Boot at startup, through
+ * {@link EhcacheMetrics}.
+ * <p>
+ * Caches can also be refreshed ahead of their expiry, and serve stale entries while they are reloaded: see
+ * {@link RefreshAheadCache}.
+ * <p>
+ * The results of the repository queries marked with
+ * {@link io.github.jhipster.application.repository.CacheableQuery} are kept in their own query cache region, and
+ * invalidated through the update timestamps region when their tables change.
+ */
 @Configuration
 @EnableCaching
 public class CacheConfiguration {
 
-    private final javax.cache.configuration.Configuration<Object, Object> jcacheConfiguration;
+    private final Logger log = LoggerFactory.getLogger(CacheConfiguration.class);
+
+    private final JHipsterProperties.Cache.Ehcache ehcache;
 
-    public CacheConfiguration(JHipsterProperties jHipsterProperties) {
-        JHipsterProperties.Cache.Ehcache ehcache =
-            jHipsterProperties.getCache().getEhcache();
+    private final ApplicationProperties.Cache cacheProperties;
 
-        jcacheConfiguration = Eh107Configuration.fromEhcacheCacheConfiguration(
-            CacheConfigurationBuilder.newCacheConfigurationBuilder(Object.class, Object.class,
-                ResourcePoolsBuilder.heap(ehcache.getMaxEntries()))
-                .withExpiry(ExpiryPolicyBuilder.timeToLiveExpiration(Duration.ofSeconds(ehcache.getTimeToLiveSeconds())))
-                .build());
+    public CacheConfiguration(JHipsterProperties jHipsterProperties, ApplicationProperties applicationProperties) {
+        this.ehcache = jHipsterProperties.getCache().getEhcache();
+        this.cacheProperties = applicationProperties.getCache();
     }
 
     @Bean
@@ -38,20 +92,155 @@ public class CacheConfiguration {
     @Bean
     public JCacheManagerCustomizer cacheManagerCustomizer() {
         return cm -> {
-            createCache(cm, io.github.jhipster.application.repository.UserRepository.USERS_BY_LOGIN_CACHE);
-            createCache(cm, io.github.jhipster.application.repository.UserRepository.USERS_BY_EMAIL_CACHE);
-            createCache(cm, io.github.jhipster.application.domain.User.class.getName());
-            createCache(cm, io.github.jhipster.application.domain.Authority.class.getName());
-            createCache(cm, io.github.jhipster.application.domain.User.class.getName() + ".authorities");
-            // jhipster-needle-ehcache-add-entry
+            createCaches(cm);
+            for (String cacheName : cacheProperties.getRegions().keySet()) {
+                if (cm.getCache(cacheName) == null) {
+                    log.warn("Cache {} is configured in application.cache.regions, but does not exist", cacheName);
+                }
+            }
+        };
+    }
+
+    /**
+     * The cache manager is created here rather than by Spring Boot, so that disk tiers can get their persistence
+     * directory, which can only be set when creating it.
+     */
+    @Bean
+    public javax.cache.CacheManager jCacheCacheManager() {
+        EhcacheCachingProvider provider = (EhcacheCachingProvider) Caching.getCachingProvider(EhcacheCachingProvider.class.getName());
+        DefaultConfiguration configuration = cacheProperties.getPersistenceDirectory() != null ?
+            new DefaultConfiguration(provider.getDefaultClassLoader(),
+                new DefaultPersistenceConfiguration(new File(cacheProperties.getPersistenceDirectory()))) :
+            new DefaultConfiguration(provider.getDefaultClassLoader());
+        javax.cache.CacheManager cacheManager = provider.getCacheManager(provider.getDefaultURI(), configuration);
+        cacheManagerCustomizer().customize(cacheManager);
+        return cacheManager;
+    }
+
+    /**
+     * Caches with a refresh-ahead policy reload their entries by calling the {@code @Cacheable} method they cache.
+     */
+    @Bean
+    public CacheManager cacheManager(javax.cache.CacheManager jCacheCacheManager, ObjectProvider<UserRepository> userRepository) {
+        Map<String, Consumer<Object>> reloaders = new HashMap<>();
+        reloaders.put(UserRepository.USERS_BY_LOGIN_CACHE, login -> userRepository.getObject().findSnapshotByLogin((String) login));
+        return new RefreshAheadCacheManager(jCacheCacheManager, refreshAheadPolicies(reloaders));
+    }
+
+    Map<String, RefreshAheadCache.Policy> refreshAheadPolicies(Map<String, Consumer<Object>> reloaders) {
+        Map<String, RefreshAheadCache.Policy> policies = new HashMap<>();
+        cacheProperties.getRegions().forEach((cacheName, region) -> {
+            if (region.getRefreshAheadSeconds() == null && region.getStaleWhileRevalidateSeconds() == null) {
+                return;
+            }
+            if (!reloaders.containsKey(cacheName) || region.getTimeToIdleSeconds() != null) {
+                throw new BeanInitializationException("Cache " + cacheName + " cannot be refreshed ahead: it needs a reloader and a time to live");
+            }
+            policies.put(cacheName, new RefreshAheadCache.Policy(Duration.ofSeconds(timeToLiveSeconds(region)),
+                Duration.ofSeconds(Optional.ofNullable(region.getRefreshAheadSeconds()).orElse(0L)),
+                Duration.ofSeconds(Optional.ofNullable(region.getStaleWhileRevalidateSeconds()).orElse(0L)),
+                reloaders.get(cacheName)));
+        });
+        return policies;
+    }
+
+    /**
+     * Replaces the JCache binder provided by Spring Boot, which does not find the statistics of Ehcache.
+     */
+    @Bean
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public CacheMeterBinderProvider<Cache> ehcacheMeterBinderProvider(EhcacheStatisticsRegistry ehcacheStatisticsRegistry) {
+        return (cache, tags) -> {
+            if (!(cache.getNativeCache() instanceof javax.cache.Cache)) {
+                return null;
+            }
+            javax.cache.Cache<?, ?> nativeCache = (javax.cache.Cache<?, ?>) cache.getNativeCache();
+            return new EhcacheMetrics(nativeCache, ehcacheStatisticsRegistry.get(nativeCache), tags);
         };
     }
 
+    @Bean
+    public CacheInvalidationBus cacheInvalidationBus(CacheInvalidationRepository cacheInvalidationRepository) {
+        switch (cacheProperties.getInvalidation().getBus()) {
+            case DATABASE:
+                return new DatabaseCacheInvalidationBus(cacheInvalidationRepository);
+            default:
+                return new LocalCacheInvalidationBus();
+        }
+    }
+
+    private void createCaches(javax.cache.CacheManager cm) {
+        createCache(cm, io.github.jhipster.application.repository.UserRepository.USERS_BY_LOGIN_CACHE);
+        createCache(cm, io.github.jhipster.application.repository.UserRepository.USERS_BY_EMAIL_CACHE);
+        createCache(cm, io.github.jhipster.application.repository.UserRepository.UNKNOWN_USERS_CACHE);
+        createCache(cm, io.github.jhipster.application.security.DomainUserDetailsService.USER_DETAILS_CACHE);
+        createCache(cm, io.github.jhipster.application.domain.User.class.getName());
+        createCache(cm, io.github.jhipster.application.domain.Authority.class.getName());
+        createCache(cm, io.github.jhipster.application.domain.User.class.getName() + ".authorities");
+        createCache(cm, RegionFactory.DEFAULT_UPDATE_TIMESTAMPS_REGION_UNQUALIFIED_NAME);
+        createCache(cm, RegionFactory.DEFAULT_QUERY_RESULTS_REGION_UNQUALIFIED_NAME);
+        createCache(cm, io.github.jhipster.application.repository.AuthorityRepository.ALL_AUTHORITIES_QUERY_CACHE);
+        createCache(cm, io.github.jhipster.application.repository.UserRepository.MANAGED_USERS_QUERY_CACHE);
+        // jhipster-needle-ehcache-add-entry
+    }
+
     private void createCache(javax.cache.CacheManager cm, String cacheName) {
         javax.cache.Cache<Object, Object> cache = cm.getCache(cacheName);
         if (cache != null) {
             cm.destroyCache(cacheName);
         }
-        cm.createCache(cacheName, jcacheConfiguration);
+        cm.createCache(cacheName, jcacheConfiguration(cacheName));
+    }
+
+    private javax.cache.configuration.Configuration<Object, Object> jcacheConfiguration(String cacheName) {
+        ApplicationProperties.Cache.Region region = cacheProperties.getRegions().getOrDefault(cacheName,
+            new ApplicationProperties.Cache.Region());
+        long heapEntries = region.getHeapEntries() != null ? region.getHeapEntries() : ehcache.getMaxEntries();
+        ResourcePoolsBuilder resourcePools = ResourcePoolsBuilder.heap(heapEntries);
+        StringBuilder report = new StringBuilder().append(heapEntries).append(" entries on heap");
+        if (region.getOffheap() != null) {
+            resourcePools = resourcePools.offheap(region.getOffheap().toBytes(), MemoryUnit.B);
+            report.append(", ").append(region.getOffheap().toMegabytes()).append(" MB off-heap");
+        }
+        if (region.getDisk() != null) {
+            resourcePools = resourcePools.disk(region.getDisk().toBytes(), MemoryUnit.B);
+            report.append(", ").append(region.getDisk().toMegabytes()).append(" MB on disk");
+        }
+        CacheConfigurationBuilder<Object, Object> configuration =
+            CacheConfigurationBuilder.newCacheConfigurationBuilder(Object.class, Object.class, resourcePools);
+        if (region.getTimeToIdleSeconds() != null) {
+            if (region.getTimeToLiveSeconds() != null) {
+                throw new BeanInitializationException("Cache " + cacheName + " cannot have both a time to live and a time to idle");
+            }
+            configuration = configuration.withExpiry(
+                ExpiryPolicyBuilder.timeToIdleExpiration(Duration.ofSeconds(region.getTimeToIdleSeconds())));
+            report.append(", expires ").append(region.getTimeToIdleSeconds()).append(" s after last access");
+        } else {
+            long timeToLiveSeconds = timeToLiveSeconds(region);
+            report.append(", expires ").append(timeToLiveSeconds).append(" s after creation");
+            if (region.getRefreshAheadSeconds() != null) {
+                report.append(", refreshed ahead ").append(region.getRefreshAheadSeconds()).append(" s before");
+            }
+            if (region.getStaleWhileRevalidateSeconds() != null) {
+                // Stale entries must be kept until the end of the stale-while-revalidate window
+                timeToLiveSeconds += region.getStaleWhileRevalidateSeconds();
+                report.append(", served stale for ").append(region.getStaleWhileRevalidateSeconds()).append(" s after");
+            }
+            configuration = configuration.withExpiry(
+                ExpiryPolicyBuilder.timeToLiveExpiration(Duration.ofSeconds(timeToLiveSeconds)));
+        }
+        if (region.getEvictionAdvisor() != null) {
+            @SuppressWarnings("unchecked")
+            EvictionAdvisor<Object, Object> evictionAdvisor =
+                (EvictionAdvisor<Object, Object>) BeanUtils.instantiateClass(region.getEvictionAdvisor());
+            configuration = configuration.withEvictionAdvisor(evictionAdvisor);
+            report.append(", eviction advised by ").append(region.getEvictionAdvisor().getSimpleName());
+        }
+        log.info("Cache {}: {}", cacheName, report);
+        return Eh107Configuration.fromEhcacheCacheConfiguration(configuration.build());
+    }
+
+    private long timeToLiveSeconds(ApplicationProperties.Cache.Region region) {
+        return region.getTimeToLiveSeconds() != null ? region.getTimeToLiveSeconds() : ehcache.getTimeToLiveSeconds();
     }
 }
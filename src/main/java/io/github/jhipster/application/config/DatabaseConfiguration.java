@@ -1,5 +1,6 @@
 package io.github.jhipster.application.config;
 
+import io.github.jhipster.application.repository.CacheableQueryRepositoryFactoryBean;
 import io.github.jhipster.config.JHipsterConstants;
 import io.github.jhipster.config.h2.H2ConfigurationHelper;
 import org.slf4j.Logger;
@@ -16,7 +17,8 @@ import org.springframework.transaction.annotation.EnableTransactionManagement;
 import java.sql.SQLException;
 
 @Configuration
-@EnableJpaRepositories("io.github.jhipster.application.repository")
+@EnableJpaRepositories(value = "io.github.jhipster.application.repository",
+    repositoryFactoryBeanClass = CacheableQueryRepositoryFactoryBean.class)
 @EnableJpaAuditing(auditorAwareRef = "springSecurityAuditorAware")
 @EnableTransactionManagement
 public class DatabaseConfiguration {
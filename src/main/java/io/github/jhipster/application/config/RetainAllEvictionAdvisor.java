@@ -0,0 +1,17 @@
+package io.github.jhipster.application.config;
+
+import org.ehcache.config.EvictionAdvisor;
+
+/**
+ * Eviction advisor keeping all the entries of a small cache which rarely changes, such as the {@code Authority}
+ * entity cache, so that its entries only go away when they expire.
+ * <p>
+ * This is only an advice: should the cache overflow its size, Ehcache evicts entries anyway.
+ */
+public class RetainAllEvictionAdvisor implements EvictionAdvisor<Object, Object> {
+
+    @Override
+    public boolean adviseAgainstEviction(Object key, Object value) {
+        return true;
+    }
+}
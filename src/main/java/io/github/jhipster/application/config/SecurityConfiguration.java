@@ -3,6 +3,8 @@ package io.github.jhipster.application.config;
 import io.github.jhipster.application.security.*;
 import io.github.jhipster.application.security.jwt.*;
 
+import io.micrometer.core.instrument.MeterRegistry;
+
 import org.springframework.beans.factory.BeanInitializationException;
 import org.springframework.beans.factory.InitializingBean;
 import org.springframework.context.annotation.Bean;
@@ -14,7 +16,6 @@ import org.springframework.security.config.annotation.web.builders.WebSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.web.configuration.WebSecurityConfigurerAdapter;
 import org.springframework.security.config.http.SessionCreationPolicy;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 import org.springframework.security.web.header.writers.ReferrerPolicyHeaderWriter;
@@ -31,15 +32,29 @@ public class SecurityConfiguration extends WebSecurityConfigurerAdapter {
     private final CorsFilter corsFilter;
     private final SecurityProblemSupport problemSupport;
 
-    public SecurityConfiguration(TokenProvider tokenProvider, CorsFilter corsFilter, SecurityProblemSupport problemSupport) {
+    private final ApplicationProperties applicationProperties;
+
+    private final MeterRegistry meterRegistry;
+
+    public SecurityConfiguration(TokenProvider tokenProvider, CorsFilter corsFilter, SecurityProblemSupport problemSupport,
+                                 ApplicationProperties applicationProperties, MeterRegistry meterRegistry) {
         this.tokenProvider = tokenProvider;
         this.corsFilter = corsFilter;
         this.problemSupport = problemSupport;
+        this.applicationProperties = applicationProperties;
+        this.meterRegistry = meterRegistry;
     }
 
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public BoundedPasswordEncoder passwordEncoder() {
+        ApplicationProperties.Security.PasswordHash passwordHash = applicationProperties.getSecurity().getPasswordHash();
+        Integer cost = passwordHash.getCost();
+        if (cost == null) {
+            cost = AdaptiveBCryptPasswordEncoder.calibrate(passwordHash.getMinCost(), passwordHash.getMaxCost(),
+                passwordHash.getLatencyBudgetInMs());
+        }
+        return new BoundedPasswordEncoder(new AdaptiveBCryptPasswordEncoder(cost), passwordHash.getPoolSize(),
+            passwordHash.getQueueCapacity(), meterRegistry);
     }
 
     @Override
@@ -80,6 +95,7 @@ public class SecurityConfiguration extends WebSecurityConfigurerAdapter {
         .and()
             .authorizeRequests()
             .antMatchers("/api/authenticate").permitAll()
+            .antMatchers("/api/authenticate/refresh").permitAll()
             .antMatchers("/api/register").permitAll()
             .antMatchers("/api/activate").permitAll()
             .antMatchers("/api/account/reset-password/init").permitAll()
@@ -88,6 +104,7 @@ public class SecurityConfiguration extends WebSecurityConfigurerAdapter {
             .antMatchers("/management/health").permitAll()
             .antMatchers("/management/info").permitAll()
             .antMatchers("/management/prometheus").permitAll()
+            .antMatchers("/management/jwks").permitAll()
             .antMatchers("/management/**").hasAuthority(AuthoritiesConstants.ADMIN)
         .and()
             .httpBasic()
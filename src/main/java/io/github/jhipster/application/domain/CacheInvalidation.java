@@ -0,0 +1,108 @@
+package io.github.jhipster.application.domain;
+
+import javax.persistence.*;
+import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Size;
+import java.io.Serializable;
+import java.time.Instant;
+
+/**
+ * A cache eviction made by a node, to be applied by the other nodes.
+ * <p>
+ * A null {@code cacheKey} clears the whole cache.
+ */
+@Entity
+@Table(name = "jhi_cache_invalidation")
+public class CacheInvalidation implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @NotNull
+    @Size(max = 255)
+    @Column(name = "cache_name", length = 255, nullable = false)
+    private String cacheName;
+
+    @Size(max = 255)
+    @Column(name = "cache_key", length = 255)
+    private String cacheKey;
+
+    @NotNull
+    @Size(max = 36)
+    @Column(length = 36, nullable = false)
+    private String node;
+
+    @NotNull
+    @Column(name = "created_date", nullable = false)
+    private Instant createdDate;
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getCacheName() {
+        return cacheName;
+    }
+
+    public void setCacheName(String cacheName) {
+        this.cacheName = cacheName;
+    }
+
+    public String getCacheKey() {
+        return cacheKey;
+    }
+
+    public void setCacheKey(String cacheKey) {
+        this.cacheKey = cacheKey;
+    }
+
+    public String getNode() {
+        return node;
+    }
+
+    public void setNode(String node) {
+        this.node = node;
+    }
+
+    public Instant getCreatedDate() {
+        return createdDate;
+    }
+
+    public void setCreatedDate(Instant createdDate) {
+        this.createdDate = createdDate;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof CacheInvalidation)) {
+            return false;
+        }
+        return id != null && id.equals(((CacheInvalidation) o).id);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31;
+    }
+
+    @Override
+    public String toString() {
+        return "CacheInvalidation{" +
+            "id=" + id +
+            ", cacheName='" + cacheName + '\'' +
+            ", cacheKey='" + cacheKey + '\'' +
+            ", node='" + node + '\'' +
+            ", createdDate=" + createdDate +
+            "}";
+    }
+}
@@ -0,0 +1,131 @@
+package io.github.jhipster.application.domain;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Table;
+import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Size;
+import java.io.Serializable;
+import java.time.Instant;
+import java.util.Objects;
+
+/**
+ * An asymmetric key pair of the JWT signing key ring, identified by its {@code kid}.
+ * <p>
+ * Keys are stored encoded (X.509 for the public key, PKCS#8 for the private key) and Base64-encoded,
+ * so that all nodes of a cluster sign and verify with the same key ring. The private key is stored encrypted by
+ * the key ring.
+ */
+@Entity
+@Table(name = "jhi_jwt_signing_key")
+public class JwtSigningKey implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    @NotNull
+    @Size(max = 64)
+    @Column(length = 64)
+    private String kid;
+
+    @NotNull
+    @Size(max = 10)
+    @Column(length = 10, nullable = false)
+    private String algorithm;
+
+    @NotNull
+    @Size(max = 1024)
+    @Column(name = "public_key", length = 1024, nullable = false)
+    private String publicKey;
+
+    @JsonIgnore
+    @NotNull
+    @Size(max = 4096)
+    @Column(name = "private_key", length = 4096, nullable = false)
+    private String privateKey;
+
+    @NotNull
+    @Column(name = "activation_date", nullable = false)
+    private Instant activationDate;
+
+    @NotNull
+    @Column(name = "expiration_date", nullable = false)
+    private Instant expirationDate;
+
+    public String getKid() {
+        return kid;
+    }
+
+    public void setKid(String kid) {
+        this.kid = kid;
+    }
+
+    public String getAlgorithm() {
+        return algorithm;
+    }
+
+    public void setAlgorithm(String algorithm) {
+        this.algorithm = algorithm;
+    }
+
+    public String getPublicKey() {
+        return publicKey;
+    }
+
+    public void setPublicKey(String publicKey) {
+        this.publicKey = publicKey;
+    }
+
+    public String getPrivateKey() {
+        return privateKey;
+    }
+
+    public void setPrivateKey(String privateKey) {
+        this.privateKey = privateKey;
+    }
+
+    public Instant getActivationDate() {
+        return activationDate;
+    }
+
+    public void setActivationDate(Instant activationDate) {
+        this.activationDate = activationDate;
+    }
+
+    public Instant getExpirationDate() {
+        return expirationDate;
+    }
+
+    public void setExpirationDate(Instant expirationDate) {
+        this.expirationDate = expirationDate;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof JwtSigningKey)) {
+            return false;
+        }
+        return Objects.equals(kid, ((JwtSigningKey) o).kid);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hashCode(kid);
+    }
+
+    @Override
+    public String toString() {
+        return "JwtSigningKey{" +
+            "kid='" + kid + '\'' +
+            ", algorithm='" + algorithm + '\'' +
+            ", activationDate=" + activationDate +
+            ", expirationDate=" + expirationDate +
+            "}";
+    }
+}
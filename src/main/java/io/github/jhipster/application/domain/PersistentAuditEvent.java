@@ -1,5 +1,9 @@
 package io.github.jhipster.application.domain;
 
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
+
 import javax.persistence.*;
 import javax.validation.constraints.NotNull;
 import java.io.Serializable;
@@ -18,8 +22,14 @@ public class PersistentAuditEvent implements Serializable {
 
     private static final long serialVersionUID = 1L;
 
+    // Allocated by blocks of 50: see 20261018120000_added_id_sequences.xml
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "persistentAuditEventSequenceGenerator")
+    @GenericGenerator(name = "persistentAuditEventSequenceGenerator", strategy = "org.hibernate.id.enhanced.SequenceStyleGenerator", parameters = {
+        @Parameter(name = SequenceStyleGenerator.SEQUENCE_PARAM, value = "jhi_persistent_audit_event_sequence"),
+        @Parameter(name = SequenceStyleGenerator.INCREMENT_PARAM, value = "50"),
+        @Parameter(name = SequenceStyleGenerator.OPT_PARAM, value = "pooled-lo")
+    })
     @Column(name = "event_id")
     private Long id;
 
@@ -0,0 +1,134 @@
+package io.github.jhipster.application.domain;
+
+import javax.persistence.*;
+import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Size;
+import java.io.Serializable;
+import java.time.Instant;
+
+/**
+ * A refresh token, used to renew short-lived JWTs without sending the user's password again.
+ * <p>
+ * Only the SHA-256 hash of the token is stored. Each refresh replaces the token by a new one of the same
+ * {@code family}: presenting a token which was already replaced means it was stolen, and revokes the whole family.
+ */
+@Entity
+@Table(name = "jhi_refresh_token")
+public class RefreshToken implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @NotNull
+    @Size(min = 64, max = 64)
+    @Column(name = "token_hash", length = 64, unique = true, nullable = false)
+    private String tokenHash;
+
+    @NotNull
+    @Size(max = 36)
+    @Column(length = 36, nullable = false)
+    private String family;
+
+    @NotNull
+    @Size(max = 50)
+    @Column(length = 50, nullable = false)
+    private String login;
+
+    @NotNull
+    @Column(name = "remember_me", nullable = false)
+    private boolean rememberMe;
+
+    @NotNull
+    @Column(name = "expiration_date", nullable = false)
+    private Instant expirationDate;
+
+    @Column(name = "replaced_date")
+    private Instant replacedDate;
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getTokenHash() {
+        return tokenHash;
+    }
+
+    public void setTokenHash(String tokenHash) {
+        this.tokenHash = tokenHash;
+    }
+
+    public String getFamily() {
+        return family;
+    }
+
+    public void setFamily(String family) {
+        this.family = family;
+    }
+
+    public String getLogin() {
+        return login;
+    }
+
+    public void setLogin(String login) {
+        this.login = login;
+    }
+
+    public boolean isRememberMe() {
+        return rememberMe;
+    }
+
+    public void setRememberMe(boolean rememberMe) {
+        this.rememberMe = rememberMe;
+    }
+
+    public Instant getExpirationDate() {
+        return expirationDate;
+    }
+
+    public void setExpirationDate(Instant expirationDate) {
+        this.expirationDate = expirationDate;
+    }
+
+    public Instant getReplacedDate() {
+        return replacedDate;
+    }
+
+    public void setReplacedDate(Instant replacedDate) {
+        this.replacedDate = replacedDate;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof RefreshToken)) {
+            return false;
+        }
+        return id != null && id.equals(((RefreshToken) o).id);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31;
+    }
+
+    @Override
+    public String toString() {
+        return "RefreshToken{" +
+            "id=" + id +
+            ", family='" + family + '\'' +
+            ", login='" + login + '\'' +
+            ", rememberMe=" + rememberMe +
+            ", expirationDate=" + expirationDate +
+            ", replacedDate=" + replacedDate +
+            "}";
+    }
+}
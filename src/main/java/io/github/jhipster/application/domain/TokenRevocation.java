@@ -0,0 +1,120 @@
+package io.github.jhipster.application.domain;
+
+import javax.persistence.*;
+import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Size;
+import java.io.Serializable;
+import java.time.Instant;
+import java.util.Objects;
+
+/**
+ * A revocation of JWTs, before their expiration.
+ * <p>
+ * Either a single token is revoked, by its {@code jti}, or all the tokens of a user issued before a date,
+ * by its {@code login}. A revocation expires once all the tokens it applies to have expired.
+ */
+@Entity
+@Table(name = "jhi_token_revocation")
+public class TokenRevocation implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Size(max = 36)
+    @Column(length = 36)
+    private String jti;
+
+    @Size(max = 50)
+    @Column(length = 50)
+    private String login;
+
+    @Column(name = "issued_before")
+    private Instant issuedBefore;
+
+    @NotNull
+    @Column(name = "revocation_date", nullable = false)
+    private Instant revocationDate;
+
+    @NotNull
+    @Column(name = "expiration_date", nullable = false)
+    private Instant expirationDate;
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getJti() {
+        return jti;
+    }
+
+    public void setJti(String jti) {
+        this.jti = jti;
+    }
+
+    public String getLogin() {
+        return login;
+    }
+
+    public void setLogin(String login) {
+        this.login = login;
+    }
+
+    public Instant getIssuedBefore() {
+        return issuedBefore;
+    }
+
+    public void setIssuedBefore(Instant issuedBefore) {
+        this.issuedBefore = issuedBefore;
+    }
+
+    public Instant getRevocationDate() {
+        return revocationDate;
+    }
+
+    public void setRevocationDate(Instant revocationDate) {
+        this.revocationDate = revocationDate;
+    }
+
+    public Instant getExpirationDate() {
+        return expirationDate;
+    }
+
+    public void setExpirationDate(Instant expirationDate) {
+        this.expirationDate = expirationDate;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof TokenRevocation)) {
+            return false;
+        }
+        return id != null && id.equals(((TokenRevocation) o).id);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31;
+    }
+
+    @Override
+    public String toString() {
+        return "TokenRevocation{" +
+            "id=" + id +
+            ", jti='" + jti + '\'' +
+            ", login='" + login + '\'' +
+            ", issuedBefore=" + issuedBefore +
+            ", revocationDate=" + revocationDate +
+            ", expirationDate=" + expirationDate +
+            "}";
+    }
+}
@@ -0,0 +1,322 @@
+package io.github.jhipster.application.domain;
+
+import io.github.jhipster.application.security.AuthorityRegistry;
+
+import java.io.*;
+import java.time.Instant;
+import java.util.*;
+
+/**
+ * An immutable snapshot of a {@link User} and of its authorities, as kept in the user caches.
+ * <p>
+ * It only holds what is read from these caches: neither the activation and reset keys, nor a Hibernate collection
+ * of {@link Authority} entities. Authorities are held as a bitset of their {@link AuthorityRegistry#index(String)},
+ * and by name past the last index. Being immutable, a snapshot can be shared by all the readers of a cache.
+ * <p>
+ * When it moves to an off-heap or disk tier, it is serialized by a compact serialization proxy rather than by
+ * field. As authority indexes are assigned by each JVM, a snapshot must not be deserialized by another JVM: the disk
+ * tiers of the caches are not persistent.
+ */
+public final class UserSnapshot implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private static final String[] NO_AUTHORITIES = new String[0];
+
+    private final Long id;
+
+    private final String login;
+
+    private final String password;
+
+    private final String firstName;
+
+    private final String lastName;
+
+    private final String email;
+
+    private final boolean activated;
+
+    private final String langKey;
+
+    private final String imageUrl;
+
+    private final String createdBy;
+
+    private final Instant createdDate;
+
+    private final String lastModifiedBy;
+
+    private final Instant lastModifiedDate;
+
+    private final long authorityBits;
+
+    private final String[] otherAuthorities;
+
+    public UserSnapshot(User user) {
+        this.id = user.getId();
+        this.login = user.getLogin();
+        this.password = user.getPassword();
+        this.firstName = user.getFirstName();
+        this.lastName = user.getLastName();
+        this.email = user.getEmail();
+        this.activated = user.getActivated();
+        this.langKey = user.getLangKey();
+        this.imageUrl = user.getImageUrl();
+        this.createdBy = user.getCreatedBy();
+        this.createdDate = user.getCreatedDate();
+        this.lastModifiedBy = user.getLastModifiedBy();
+        this.lastModifiedDate = user.getLastModifiedDate();
+        long bits = 0;
+        List<String> others = new ArrayList<>(0);
+        for (Authority authority : user.getAuthorities()) {
+            int index = AuthorityRegistry.index(authority.getName());
+            if (index >= 0) {
+                bits |= 1L << index;
+            } else {
+                others.add(authority.getName());
+            }
+        }
+        this.authorityBits = bits;
+        this.otherAuthorities = others.isEmpty() ? NO_AUTHORITIES : others.toArray(new String[0]);
+    }
+
+    private UserSnapshot(SerializationProxy proxy) {
+        this.id = proxy.id;
+        this.login = proxy.login;
+        this.password = proxy.password;
+        this.firstName = proxy.firstName;
+        this.lastName = proxy.lastName;
+        this.email = proxy.email;
+        this.activated = proxy.activated;
+        this.langKey = proxy.langKey;
+        this.imageUrl = proxy.imageUrl;
+        this.createdBy = proxy.createdBy;
+        this.createdDate = proxy.createdDate;
+        this.lastModifiedBy = proxy.lastModifiedBy;
+        this.lastModifiedDate = proxy.lastModifiedDate;
+        this.authorityBits = proxy.authorityBits;
+        this.otherAuthorities = proxy.otherAuthorities.length == 0 ? NO_AUTHORITIES : proxy.otherAuthorities;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getLogin() {
+        return login;
+    }
+
+    public String getPassword() {
+        return password;
+    }
+
+    public String getFirstName() {
+        return firstName;
+    }
+
+    public String getLastName() {
+        return lastName;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public boolean isActivated() {
+        return activated;
+    }
+
+    public String getLangKey() {
+        return langKey;
+    }
+
+    public String getImageUrl() {
+        return imageUrl;
+    }
+
+    public String getCreatedBy() {
+        return createdBy;
+    }
+
+    public Instant getCreatedDate() {
+        return createdDate;
+    }
+
+    public String getLastModifiedBy() {
+        return lastModifiedBy;
+    }
+
+    public Instant getLastModifiedDate() {
+        return lastModifiedDate;
+    }
+
+    /**
+     * @return a new set of the authority names of the user.
+     */
+    public Set<String> getAuthorities() {
+        Set<String> authorities = new LinkedHashSet<>();
+        for (long bits = authorityBits; bits != 0; bits &= bits - 1) {
+            authorities.add(AuthorityRegistry.name(Long.numberOfTrailingZeros(bits)));
+        }
+        Collections.addAll(authorities, otherAuthorities);
+        return authorities;
+    }
+
+    public boolean hasAuthority(String authority) {
+        // A name without an index cannot be in the bitset, and checking it must not take one of the indexes
+        int index = AuthorityRegistry.lookupIndex(authority);
+        return index >= 0 ? (authorityBits & 1L << index) != 0 : Arrays.asList(otherAuthorities).contains(authority);
+    }
+
+    private Object writeReplace() {
+        return new SerializationProxy(this);
+    }
+
+    private void readObject(ObjectInputStream in) throws InvalidObjectException {
+        throw new InvalidObjectException("A UserSnapshot is deserialized through its serialization proxy");
+    }
+
+    @Override
+    public String toString() {
+        return "UserSnapshot{" +
+            "id=" + id +
+            ", login='" + login + '\'' +
+            ", activated=" + activated +
+            ", authorities=" + getAuthorities() +
+            "}";
+    }
+
+    /**
+     * Serialized form of a {@link UserSnapshot}: its fields, without their names and types, and strings without
+     * their class descriptor.
+     */
+    private static final class SerializationProxy implements Externalizable {
+
+        private static final long serialVersionUID = 1L;
+
+        private Long id;
+
+        private String login;
+
+        private String password;
+
+        private String firstName;
+
+        private String lastName;
+
+        private String email;
+
+        private boolean activated;
+
+        private String langKey;
+
+        private String imageUrl;
+
+        private String createdBy;
+
+        private Instant createdDate;
+
+        private String lastModifiedBy;
+
+        private Instant lastModifiedDate;
+
+        private long authorityBits;
+
+        private String[] otherAuthorities;
+
+        public SerializationProxy() {
+            // Empty constructor needed for deserialization.
+        }
+
+        private SerializationProxy(UserSnapshot snapshot) {
+            this.id = snapshot.id;
+            this.login = snapshot.login;
+            this.password = snapshot.password;
+            this.firstName = snapshot.firstName;
+            this.lastName = snapshot.lastName;
+            this.email = snapshot.email;
+            this.activated = snapshot.activated;
+            this.langKey = snapshot.langKey;
+            this.imageUrl = snapshot.imageUrl;
+            this.createdBy = snapshot.createdBy;
+            this.createdDate = snapshot.createdDate;
+            this.lastModifiedBy = snapshot.lastModifiedBy;
+            this.lastModifiedDate = snapshot.lastModifiedDate;
+            this.authorityBits = snapshot.authorityBits;
+            this.otherAuthorities = snapshot.otherAuthorities;
+        }
+
+        @Override
+        public void writeExternal(ObjectOutput out) throws IOException {
+            out.writeLong(id != null ? id : -1);
+            writeString(out, login);
+            writeString(out, password);
+            writeString(out, firstName);
+            writeString(out, lastName);
+            writeString(out, email);
+            out.writeBoolean(activated);
+            writeString(out, langKey);
+            writeString(out, imageUrl);
+            writeString(out, createdBy);
+            writeInstant(out, createdDate);
+            writeString(out, lastModifiedBy);
+            writeInstant(out, lastModifiedDate);
+            out.writeLong(authorityBits);
+            out.writeInt(otherAuthorities.length);
+            for (String authority : otherAuthorities) {
+                out.writeUTF(authority);
+            }
+        }
+
+        @Override
+        public void readExternal(ObjectInput in) throws IOException {
+            long storedId = in.readLong();
+            id = storedId >= 0 ? storedId : null;
+            login = readString(in);
+            password = readString(in);
+            firstName = readString(in);
+            lastName = readString(in);
+            email = readString(in);
+            activated = in.readBoolean();
+            langKey = readString(in);
+            imageUrl = readString(in);
+            createdBy = readString(in);
+            createdDate = readInstant(in);
+            lastModifiedBy = readString(in);
+            lastModifiedDate = readInstant(in);
+            authorityBits = in.readLong();
+            otherAuthorities = new String[in.readInt()];
+            for (int i = 0; i < otherAuthorities.length; i++) {
+                otherAuthorities[i] = in.readUTF();
+            }
+        }
+
+        private Object readResolve() {
+            return new UserSnapshot(this);
+        }
+
+        private static void writeString(ObjectOutput out, String value) throws IOException {
+            out.writeBoolean(value != null);
+            if (value != null) {
+                out.writeUTF(value);
+            }
+        }
+
+        private static String readString(ObjectInput in) throws IOException {
+            return in.readBoolean() ? in.readUTF() : null;
+        }
+
+        private static void writeInstant(ObjectOutput out, Instant value) throws IOException {
+            out.writeBoolean(value != null);
+            if (value != null) {
+                out.writeLong(value.getEpochSecond());
+                out.writeInt(value.getNano());
+            }
+        }
+
+        private static Instant readInstant(ObjectInput in) throws IOException {
+            return in.readBoolean() ? Instant.ofEpochSecond(in.readLong(), in.readInt()) : null;
+        }
+    }
+}
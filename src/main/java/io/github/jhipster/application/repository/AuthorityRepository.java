@@ -4,8 +4,16 @@ import io.github.jhipster.application.domain.Authority;
 
 import org.springframework.data.jpa.repository.JpaRepository;
 
+import java.util.List;
+
 /**
  * Spring Data JPA repository for the {@link Authority} entity.
  */
 public interface AuthorityRepository extends JpaRepository<Authority, String> {
+
+    String ALL_AUTHORITIES_QUERY_CACHE = "allAuthorities";
+
+    @Override
+    @CacheableQuery(ALL_AUTHORITIES_QUERY_CACHE)
+    List<Authority> findAll();
 }
@@ -0,0 +1,25 @@
+package io.github.jhipster.application.repository;
+
+import io.github.jhipster.application.domain.CacheInvalidation;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Spring Data JPA repository for the {@link CacheInvalidation} entity.
+ */
+public interface CacheInvalidationRepository extends JpaRepository<CacheInvalidation, Long> {
+
+    List<CacheInvalidation> findAllByCreatedDateAfterAndNodeNot(Instant date, String node);
+
+    @Transactional
+    @Modifying
+    @Query("delete from CacheInvalidation cacheInvalidation where cacheInvalidation.createdDate < :date")
+    int deleteAllByCreatedDateBefore(@Param("date") Instant date);
+}
@@ -0,0 +1,25 @@
+package io.github.jhipster.application.repository;
+
+import java.lang.annotation.*;
+
+/**
+ * Marks a repository method whose query results are kept in the Hibernate query cache, in a dedicated region.
+ * <p>
+ * Hibernate invalidates the cached results whenever one of the tables of the query changes, by comparing the time
+ * of their last update, kept in the {@code default-update-timestamps-region}, with the time the results were
+ * cached. The results of a paged query, and of its count query, are cached alike.
+ * <p>
+ * Only applies to the queries created by the repositories of {@link CacheableQueryRepositoryFactoryBean}, when
+ * {@code hibernate.cache.use_query_cache} is enabled; the region must be created in
+ * {@link io.github.jhipster.application.config.CacheConfiguration}.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface CacheableQuery {
+
+    /**
+     * @return the name of the query cache region.
+     */
+    String value();
+}
@@ -0,0 +1,101 @@
+package io.github.jhipster.application.repository;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.hibernate.jpa.QueryHints;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.data.jpa.repository.support.JpaRepositoryFactoryBean;
+import org.springframework.data.repository.Repository;
+import org.springframework.data.repository.core.support.RepositoryFactorySupport;
+import org.springframework.util.ClassUtils;
+
+import javax.persistence.EntityManager;
+import javax.persistence.Query;
+import java.io.Serializable;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Repository factory bean applying {@link CacheableQuery} to the queries of the repository methods it annotates.
+ * <p>
+ * Spring Data JPA only reads query hints from {@code @QueryHints} annotations, whose values are fixed: instead, the
+ * region of the method being called is kept in a thread local while it runs, and set as a hint on each query it
+ * creates through the entity manager.
+ */
+public class CacheableQueryRepositoryFactoryBean<T extends Repository<S, ID>, S, ID extends Serializable>
+    extends JpaRepositoryFactoryBean<T, S, ID> {
+
+    private static final ThreadLocal<String> REGION = new ThreadLocal<>();
+
+    public CacheableQueryRepositoryFactoryBean(Class<? extends T> repositoryInterface) {
+        super(repositoryInterface);
+    }
+
+    @Override
+    protected RepositoryFactorySupport createRepositoryFactory(EntityManager entityManager) {
+        RepositoryFactorySupport factory = super.createRepositoryFactory(cacheableQueryEntityManager(entityManager));
+        factory.addRepositoryProxyPostProcessor((proxyFactory, repositoryInformation) ->
+            proxyFactory.addAdvice(new CacheableQueryInterceptor(repositoryInformation.getRepositoryInterface())));
+        return factory;
+    }
+
+    /**
+     * @return an entity manager setting the hints of the current {@link CacheableQuery} on the queries it creates.
+     */
+    static EntityManager cacheableQueryEntityManager(EntityManager entityManager) {
+        return (EntityManager) Proxy.newProxyInstance(EntityManager.class.getClassLoader(), new Class<?>[]{EntityManager.class},
+            (proxy, method, args) -> {
+                Object result;
+                try {
+                    result = method.invoke(entityManager, args);
+                } catch (InvocationTargetException e) {
+                    throw e.getTargetException();
+                }
+                String region = REGION.get();
+                if (region != null && result instanceof Query && "createQuery".equals(method.getName())) {
+                    ((Query) result).setHint(QueryHints.HINT_CACHEABLE, true).setHint(QueryHints.HINT_CACHE_REGION, region);
+                }
+                return result;
+            });
+    }
+
+    /**
+     * Keeps the region of the {@link CacheableQuery} method being called in the thread local.
+     */
+    static final class CacheableQueryInterceptor implements MethodInterceptor {
+
+        private final Class<?> repositoryInterface;
+
+        private final Map<Method, Optional<String>> regions = new ConcurrentHashMap<>();
+
+        CacheableQueryInterceptor(Class<?> repositoryInterface) {
+            this.repositoryInterface = repositoryInterface;
+        }
+
+        @Override
+        public Object invoke(MethodInvocation invocation) throws Throwable {
+            Optional<String> region = regions.computeIfAbsent(invocation.getMethod(), method ->
+                Optional.ofNullable(AnnotatedElementUtils.findMergedAnnotation(
+                    ClassUtils.getMostSpecificMethod(method, repositoryInterface), CacheableQuery.class))
+                    .map(CacheableQuery::value));
+            if (!region.isPresent()) {
+                return invocation.proceed();
+            }
+            String previous = REGION.get();
+            REGION.set(region.get());
+            try {
+                return invocation.proceed();
+            } finally {
+                if (previous != null) {
+                    REGION.set(previous);
+                } else {
+                    REGION.remove();
+                }
+            }
+        }
+    }
+}
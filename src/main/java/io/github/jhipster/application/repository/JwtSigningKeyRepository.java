@@ -0,0 +1,18 @@
+package io.github.jhipster.application.repository;
+
+import io.github.jhipster.application.domain.JwtSigningKey;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Spring Data JPA repository for the {@link JwtSigningKey} entity.
+ */
+public interface JwtSigningKeyRepository extends JpaRepository<JwtSigningKey, String> {
+
+    List<JwtSigningKey> findAllByExpirationDateAfter(Instant date);
+
+    List<JwtSigningKey> findAllByExpirationDateBefore(Instant date);
+}
@@ -0,0 +1,41 @@
+package io.github.jhipster.application.repository;
+
+import io.github.jhipster.application.domain.RefreshToken;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+import java.util.Optional;
+
+/**
+ * Spring Data JPA repository for the {@link RefreshToken} entity.
+ */
+public interface RefreshTokenRepository extends JpaRepository<RefreshToken, Long> {
+
+    Optional<RefreshToken> findOneByTokenHash(String tokenHash);
+
+    /**
+     * Mark a token as replaced, unless it already was.
+     *
+     * @return 1 if the token was replaced by this call, 0 if it had already been used.
+     */
+    @Modifying
+    @Query("update RefreshToken refreshToken set refreshToken.replacedDate = :date " +
+        "where refreshToken.id = :id and refreshToken.replacedDate is null")
+    int markReplaced(@Param("id") Long id, @Param("date") Instant date);
+
+    @Modifying
+    @Query("delete from RefreshToken refreshToken where refreshToken.family = :family")
+    int deleteAllByFamily(@Param("family") String family);
+
+    @Modifying
+    @Query("delete from RefreshToken refreshToken where refreshToken.login = :login")
+    int deleteAllByLogin(@Param("login") String login);
+
+    @Modifying
+    @Query("delete from RefreshToken refreshToken where refreshToken.expirationDate < :date")
+    int deleteAllByExpirationDateBefore(@Param("date") Instant date);
+}
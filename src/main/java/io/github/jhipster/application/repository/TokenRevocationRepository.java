@@ -0,0 +1,27 @@
+package io.github.jhipster.application.repository;
+
+import io.github.jhipster.application.domain.TokenRevocation;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Spring Data JPA repository for the {@link TokenRevocation} entity.
+ */
+public interface TokenRevocationRepository extends JpaRepository<TokenRevocation, Long> {
+
+    List<TokenRevocation> findAllByExpirationDateAfter(Instant date);
+
+    List<TokenRevocation> findAllByRevocationDateAfterAndExpirationDateAfter(Instant revocationDate, Instant expirationDate);
+
+    @Transactional
+    @Modifying
+    @Query("delete from TokenRevocation tokenRevocation where tokenRevocation.expirationDate < :date")
+    int deleteAllByExpirationDateBefore(@Param("date") Instant date);
+}
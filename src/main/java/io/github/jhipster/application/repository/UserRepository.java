@@ -1,21 +1,43 @@
 package io.github.jhipster.application.repository;
 
 import io.github.jhipster.application.domain.User;
+import io.github.jhipster.application.domain.UserSnapshot;
 
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.domain.Page;
 
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import javax.persistence.QueryHint;
+import java.util.Collection;
 import java.util.List;
+import java.util.Locale;
 import java.util.Optional;
+import java.util.Set;
 import java.time.Instant;
+import java.util.stream.Stream;
 
 /**
  * Spring Data JPA repository for the {@link User} entity.
+ * <p>
+ * Users are cached by login and by email as immutable {@link UserSnapshot}s, rather than as entities.
+ * <p>
+ * Logins and emails which match no user are kept for a short time in the {@link #UNKNOWN_USERS_CACHE} cache, so that
+ * repeated lookups of mistyped or guessed logins do not reach the database; its entries are evicted when a user gets
+ * these login or email.
+ * <p>
+ * The pages of managed users, and their count, are kept in the {@link #MANAGED_USERS_QUERY_CACHE} query cache.
+ * <p>
+ * The {@code findSliceBy} methods read managed users by keyset: sorted by id or by login, after the last one read,
+ * so that deep pages do not scan the users of the previous pages, and without counting them.
  */
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
@@ -24,28 +46,113 @@ public interface UserRepository extends JpaRepository<User, Long> {
 
     String USERS_BY_EMAIL_CACHE = "usersByEmail";
 
-    Optional<User> findOneByActivationKey(String activationKey);
+    String UNKNOWN_USERS_CACHE = "unknownUsers";
+
+    String MANAGED_USERS_QUERY_CACHE = "managedUsers";
 
+    int STREAM_FETCH_SIZE = 500;
 
-    List<User> findAllByActivatedIsFalseAndActivationKeyIsNotNullAndCreatedDateBefore(Instant dateTime);
+    Optional<User> findOneByActivationKey(String activationKey);
 
+    /**
+     * Read the id, login and email of the next not activated users, by id.
+     */
+    @Query("select user.id, user.login, user.email from User user where user.activated = false " +
+        "and user.activationKey is not null and user.createdDate < :date and user.id > :id order by user.id")
+    List<Object[]> findNotActivatedByCreatedDateBeforeAndIdGreaterThan(@Param("date") Instant date, @Param("id") Long id, Pageable pageable);
+
+    /**
+     * Delete the not activated users of a range of ids, with their authorities: Hibernate deletes the rows of
+     * {@code jhi_user_authority} first, with the same condition. Users activated since they were read are kept.
+     */
+    @Modifying
+    @Query("delete from User user where user.id between :firstId and :lastId and user.activated = false " +
+        "and user.activationKey is not null and user.createdDate < :date")
+    int deleteNotActivatedByCreatedDateBeforeAndIdBetween(@Param("date") Instant date, @Param("firstId") Long firstId,
+                                                          @Param("lastId") Long lastId);
 
     Optional<User> findOneByResetKey(String resetKey);
 
+    @Cacheable(cacheNames = UNKNOWN_USERS_CACHE, unless = "#result != null",
+        key = "T(io.github.jhipster.application.repository.UserRepository).unknownEmailKey(#p0)")
     Optional<User> findOneByEmailIgnoreCase(String email);
 
+    @Cacheable(cacheNames = UNKNOWN_USERS_CACHE, unless = "#result != null",
+        key = "T(io.github.jhipster.application.repository.UserRepository).unknownLoginKey(#p0)")
     Optional<User> findOneByLogin(String login);
 
     @EntityGraph(attributePaths = "authorities")
     Optional<User> findOneWithAuthoritiesById(Long id);
 
     @EntityGraph(attributePaths = "authorities")
-    @Cacheable(cacheNames = USERS_BY_LOGIN_CACHE)
     Optional<User> findOneWithAuthoritiesByLogin(String login);
 
+    @Cacheable(cacheNames = USERS_BY_LOGIN_CACHE, sync = true)
+    default Optional<UserSnapshot> findSnapshotByLogin(String login) {
+        return findOneWithAuthoritiesByLogin(login).map(UserSnapshot::new);
+    }
+
+    @EntityGraph(attributePaths = "authorities")
+    List<User> findAllWithAuthoritiesByLoginIn(Collection<String> logins);
+
     @EntityGraph(attributePaths = "authorities")
-    @Cacheable(cacheNames = USERS_BY_EMAIL_CACHE)
     Optional<User> findOneWithAuthoritiesByEmail(String email);
 
+    @Cacheable(cacheNames = USERS_BY_EMAIL_CACHE)
+    default Optional<UserSnapshot> findSnapshotByEmail(String email) {
+        return findOneWithAuthoritiesByEmail(email).map(UserSnapshot::new);
+    }
+
+    @CacheableQuery(MANAGED_USERS_QUERY_CACHE)
     Page<User> findAllByLoginNot(Pageable pageable, String login);
+
+    long countByLoginNot(String login);
+
+    /**
+     * Stream the users by id, with a forward-only cursor fetching {@link #STREAM_FETCH_SIZE} rows at a time. The
+     * users are read-only, and neither read from nor put in the second-level cache.
+     * <p>
+     * Must be called in a transaction, and the stream closed.
+     */
+    @QueryHints({
+        @QueryHint(name = org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE, value = "" + STREAM_FETCH_SIZE),
+        @QueryHint(name = org.hibernate.jpa.QueryHints.HINT_READONLY, value = "true"),
+        @QueryHint(name = org.hibernate.jpa.QueryHints.HINT_CACHE_MODE, value = "IGNORE")
+    })
+    Stream<User> streamAllByLoginNotAndIdGreaterThanOrderByIdAsc(String login, Long id);
+
+    @Query("select user.id, authority.name from User user join user.authorities authority where user.id in :ids")
+    List<Object[]> findAuthorityNamesByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("select user.login from User user where user.login in :logins")
+    Set<String> findLoginsByLoginIn(@Param("logins") Collection<String> logins);
+
+    @Query("select lower(user.email) from User user where lower(user.email) in :emails")
+    Set<String> findEmailsByEmailIgnoreCaseIn(@Param("emails") Collection<String> emails);
+
+    Slice<User> findSliceByLoginNot(String login, Pageable pageable);
+
+    Slice<User> findSliceByLoginNotAndIdGreaterThan(String login, Long id, Pageable pageable);
+
+    Slice<User> findSliceByLoginNotAndIdLessThan(String login, Long id, Pageable pageable);
+
+    Slice<User> findSliceByLoginNotAndLoginGreaterThan(String login, String after, Pageable pageable);
+
+    Slice<User> findSliceByLoginNotAndLoginLessThan(String login, String after, Pageable pageable);
+
+    /**
+     * @param login a lowercase login.
+     * @return the key of the login in the {@link #UNKNOWN_USERS_CACHE} cache.
+     */
+    static String unknownLoginKey(String login) {
+        return "login:" + login;
+    }
+
+    /**
+     * @param email an email, in any case.
+     * @return the key of the email in the {@link #UNKNOWN_USERS_CACHE} cache.
+     */
+    static String unknownEmailKey(String email) {
+        return "email:" + (email != null ? email.toLowerCase(Locale.ENGLISH) : null);
+    }
 }
@@ -0,0 +1,108 @@
+package io.github.jhipster.application.security;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+/**
+ * BCrypt {@link PasswordEncoder} with a configurable target cost.
+ * <p>
+ * New passwords are hashed with the target cost, while hashes of any other cost still match, as BCrypt hashes
+ * carry their own cost (for example {@code $2a$10$...}). Hashes with a lower cost than the target are reported by
+ * {@link #upgradeEncoding(String)}, so that they get rehashed on the next successful login.
+ * <p>
+ * The cost is not stored as a {@code {bcrypt}} prefix, as with Spring's {@code DelegatingPasswordEncoder}, so that
+ * hashes keep fitting the 60 characters {@code password_hash} column.
+ */
+public class AdaptiveBCryptPasswordEncoder implements PasswordEncoder {
+
+    public static final int MIN_COST = 4;
+
+    public static final int MAX_COST = 31;
+
+    private static final int CALIBRATION_COST = 8;
+
+    private static final Logger log = LoggerFactory.getLogger(AdaptiveBCryptPasswordEncoder.class);
+
+    private final int cost;
+
+    private final BCryptPasswordEncoder delegate;
+
+    public AdaptiveBCryptPasswordEncoder(int cost) {
+        if (cost < MIN_COST || cost > MAX_COST) {
+            throw new IllegalArgumentException("BCrypt cost must be between " + MIN_COST + " and " + MAX_COST);
+        }
+        this.cost = cost;
+        this.delegate = new BCryptPasswordEncoder(cost);
+    }
+
+    /**
+     * Find the highest cost whose hashing time fits a latency budget on this machine.
+     * <p>
+     * The hashing time is measured at a low cost, then extrapolated: each cost increment doubles it.
+     *
+     * @param minCost the lowest acceptable cost, used even if it does not fit the budget.
+     * @param maxCost the highest acceptable cost.
+     * @param latencyBudgetInMs the target hashing time of a password, in milliseconds.
+     * @return the calibrated cost.
+     */
+    public static int calibrate(int minCost, int maxCost, long latencyBudgetInMs) {
+        BCryptPasswordEncoder encoder = new BCryptPasswordEncoder(CALIBRATION_COST);
+        encoder.encode("calibration");
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < 3; i++) {
+            long start = System.nanoTime();
+            encoder.encode("calibration");
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        int calibrated = minCost;
+        double nanos = best * Math.pow(2, minCost - CALIBRATION_COST);
+        while (calibrated < maxCost && nanos * 2 <= latencyBudgetInMs * 1_000_000d) {
+            calibrated++;
+            nanos *= 2;
+        }
+        log.info("Calibrated BCrypt cost to {} ({} ms per hash, for a budget of {} ms)",
+            calibrated, Math.round(nanos / 1_000_000d), latencyBudgetInMs);
+        return calibrated;
+    }
+
+    /**
+     * Read the cost of a BCrypt hash.
+     *
+     * @param encodedPassword the hash.
+     * @return its cost, or -1 if it is not a BCrypt hash.
+     */
+    public static int costOf(String encodedPassword) {
+        if (encodedPassword == null || encodedPassword.length() < 7 || encodedPassword.charAt(0) != '$' ||
+            encodedPassword.charAt(3) != '$' || encodedPassword.charAt(6) != '$') {
+            return -1;
+        }
+        char tens = encodedPassword.charAt(4);
+        char units = encodedPassword.charAt(5);
+        if (tens < '0' || tens > '9' || units < '0' || units > '9') {
+            return -1;
+        }
+        return (tens - '0') * 10 + units - '0';
+    }
+
+    public int getCost() {
+        return cost;
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return delegate.encode(rawPassword);
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return delegate.matches(rawPassword, encodedPassword);
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        int encodedCost = costOf(encodedPassword);
+        return encodedCost >= 0 && encodedCost < cost;
+    }
+}
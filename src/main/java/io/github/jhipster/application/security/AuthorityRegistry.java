@@ -0,0 +1,152 @@
+package io.github.jhipster.application.security;
+
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Canonical, shared {@link GrantedAuthority} instances.
+ * <p>
+ * The authorities of {@link AuthoritiesConstants} are built once, and the comma-separated authority claims of
+ * our JWTs are mapped to shared immutable lists, so that authenticating a request does not allocate authorities.
+ * Unknown authority names and claims are also interned, up to a fixed bound, after which they are built on
+ * each call.
+ * <p>
+ * Authority names are also numbered, so that a set of authorities can be held as a bitset: see {@link #index(String)}.
+ */
+public final class AuthorityRegistry {
+
+    private static final int MAX_INTERNED = 256;
+
+    private static final Map<String, GrantedAuthority> AUTHORITIES = new ConcurrentHashMap<>();
+
+    /**
+     * Number of authority names which get an index, which fit a {@code long} bitset.
+     */
+    public static final int MAX_INDEXED = Long.SIZE;
+
+    private static final Map<String, List<GrantedAuthority>> CLAIMS = new ConcurrentHashMap<>();
+
+    private static final Map<String, Integer> INDEXES = new ConcurrentHashMap<>();
+
+    private static final AtomicReferenceArray<String> NAMES = new AtomicReferenceArray<>(MAX_INDEXED);
+
+    static {
+        for (String name : new String[]{AuthoritiesConstants.ADMIN, AuthoritiesConstants.USER, AuthoritiesConstants.ANONYMOUS}) {
+            AUTHORITIES.put(name, new SimpleGrantedAuthority(name));
+            index(name);
+        }
+        CLAIMS.put("", Collections.emptyList());
+    }
+
+    private AuthorityRegistry() {
+    }
+
+    /**
+     * Get the canonical authority for a name.
+     *
+     * @param name the authority name, for example {@link AuthoritiesConstants#USER}.
+     * @return the shared authority instance.
+     */
+    public static GrantedAuthority authority(String name) {
+        GrantedAuthority authority = AUTHORITIES.get(name);
+        if (authority != null) {
+            return authority;
+        }
+        authority = new SimpleGrantedAuthority(name);
+        if (AUTHORITIES.size() < MAX_INTERNED) {
+            GrantedAuthority existing = AUTHORITIES.putIfAbsent(name, authority);
+            return existing != null ? existing : authority;
+        }
+        return authority;
+    }
+
+    /**
+     * Get the authorities of a comma-separated authority claim.
+     *
+     * @param claim the claim, for example {@code "ROLE_ADMIN,ROLE_USER"}.
+     * @return a shared immutable list of the canonical authorities of the claim.
+     */
+    public static List<GrantedAuthority> fromClaim(String claim) {
+        List<GrantedAuthority> authorities = CLAIMS.get(claim);
+        if (authorities != null) {
+            return authorities;
+        }
+        authorities = parseClaim(claim);
+        if (CLAIMS.size() < MAX_INTERNED) {
+            List<GrantedAuthority> existing = CLAIMS.putIfAbsent(claim, authorities);
+            return existing != null ? existing : authorities;
+        }
+        return authorities;
+    }
+
+    /**
+     * Get the index of an authority name.
+     * <p>
+     * Indexes are assigned in the order names are first seen, so they are only meaningful within this JVM.
+     *
+     * @param name the authority name.
+     * @return its index, between 0 and {@link #MAX_INDEXED} excluded, or -1 if all the indexes are taken.
+     */
+    public static int index(String name) {
+        Integer index = INDEXES.get(name);
+        if (index != null) {
+            return index;
+        }
+        synchronized (INDEXES) {
+            index = INDEXES.get(name);
+            if (index == null) {
+                if (INDEXES.size() >= MAX_INDEXED) {
+                    return -1;
+                }
+                index = INDEXES.size();
+                NAMES.set(index, name);
+                INDEXES.put(name, index);
+            }
+            return index;
+        }
+    }
+
+    /**
+     * Get the index of an authority name, without assigning one.
+     *
+     * @param name the authority name.
+     * @return its index, or -1 if it has none.
+     */
+    public static int lookupIndex(String name) {
+        return INDEXES.getOrDefault(name, -1);
+    }
+
+    /**
+     * Get the authority name of an index.
+     *
+     * @param index an index returned by {@link #index(String)}.
+     * @return the authority name.
+     */
+    public static String name(int index) {
+        return NAMES.get(index);
+    }
+
+    private static List<GrantedAuthority> parseClaim(String claim) {
+        List<GrantedAuthority> authorities = new ArrayList<>(2);
+        int start = 0;
+        while (start <= claim.length()) {
+            int end = claim.indexOf(',', start);
+            if (end < 0) {
+                end = claim.length();
+            }
+            if (end > start) {
+                authorities.add(authority(claim.substring(start, end)));
+            }
+            start = end + 1;
+        }
+        return authorities.size() == 1 ?
+            Collections.singletonList(authorities.get(0)) : Collections.unmodifiableList(authorities);
+    }
+}
@@ -0,0 +1,117 @@
+package io.github.jhipster.application.security;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.*;
+
+/**
+ * {@link PasswordEncoder} running the password hashing of a delegate on a bounded, dedicated pool.
+ * <p>
+ * Password hashing is CPU-bound, so the pool has one thread per CPU by default, and a bounded queue. When both are
+ * full, hashing fails fast with a {@link PasswordHashingRejectedException} (a {@code 503 Service Unavailable}
+ * response), so that a login storm cannot hold every request thread while other requests wait.
+ * <p>
+ * The time spent waiting in the queue and hashing are recorded by the {@code password.hashing.queue} and
+ * {@code password.hashing.time} timers.
+ */
+public class BoundedPasswordEncoder implements PasswordEncoder, DisposableBean {
+
+    private final PasswordEncoder delegate;
+
+    private final ThreadPoolExecutor executor;
+
+    private final Timer encodeQueueTimer;
+
+    private final Timer matchesQueueTimer;
+
+    private final Timer encodeTimer;
+
+    private final Timer matchesTimer;
+
+    private final Counter rejections;
+
+    public BoundedPasswordEncoder(PasswordEncoder delegate, int poolSize, int queueCapacity, MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        int threads = poolSize > 0 ? poolSize : Runtime.getRuntime().availableProcessors();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(Math.max(queueCapacity, 1)), new CustomizableThreadFactory("password-hashing-"),
+            new ThreadPoolExecutor.AbortPolicy());
+        this.encodeQueueTimer = Timer.builder("password.hashing.queue").tag("operation", "encode")
+            .description("Time spent waiting for a password hashing thread").register(meterRegistry);
+        this.matchesQueueTimer = Timer.builder("password.hashing.queue").tag("operation", "matches")
+            .description("Time spent waiting for a password hashing thread").register(meterRegistry);
+        this.encodeTimer = Timer.builder("password.hashing.time").tag("operation", "encode")
+            .description("Time spent hashing passwords").register(meterRegistry);
+        this.matchesTimer = Timer.builder("password.hashing.time").tag("operation", "matches")
+            .description("Time spent hashing passwords").register(meterRegistry);
+        this.rejections = Counter.builder("password.hashing.rejections")
+            .description("Password hashings rejected as the pool was saturated").register(meterRegistry);
+        Gauge.builder("password.hashing.queue.size", executor, e -> e.getQueue().size())
+            .description("Password hashings waiting for a thread").register(meterRegistry);
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return submit(() -> delegate.encode(rawPassword), encodeQueueTimer, encodeTimer);
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return submit(() -> delegate.matches(rawPassword, encodedPassword), matchesQueueTimer, matchesTimer);
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+
+    /**
+     * @return the encoder hashing on the pool, for callers bounding their own hashings.
+     */
+    public PasswordEncoder getDelegate() {
+        return delegate;
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdown();
+    }
+
+    private <T> T submit(Callable<T> hashing, Timer queueTimer, Timer hashingTimer) {
+        long submitted = System.nanoTime();
+        Future<T> future;
+        try {
+            future = executor.submit(() -> {
+                long started = System.nanoTime();
+                queueTimer.record(started - submitted, TimeUnit.NANOSECONDS);
+                try {
+                    return hashing.call();
+                } finally {
+                    hashingTimer.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            rejections.increment();
+            throw new PasswordHashingRejectedException("Too many concurrent password hashings", e);
+        }
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new PasswordHashingRejectedException("Interrupted while hashing a password", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+}
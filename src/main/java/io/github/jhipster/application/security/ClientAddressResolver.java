@@ -0,0 +1,92 @@
+package io.github.jhipster.application.security;
+
+import io.github.jhipster.application.config.ApplicationProperties;
+
+import org.springframework.security.web.util.matcher.IpAddressMatcher;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import javax.servlet.http.HttpServletRequest;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Resolves the address of the client of a request, behind the reverse proxies listed in
+ * {@code application.security.login-throttle.trusted-proxies}.
+ * <p>
+ * The {@code X-Forwarded-For} header is only read on requests coming from a trusted proxy, and from its end: each
+ * proxy appends the address it received the request from, so the client address is the last one which is not a
+ * trusted proxy. The addresses a client puts in the header itself come before, and are never used.
+ */
+@Component
+public class ClientAddressResolver {
+
+    static final String X_FORWARDED_FOR = "X-Forwarded-For";
+
+    private static final Pattern IPV4 = Pattern.compile("(25[0-5]|2[0-4]\\d|1\\d\\d|[1-9]?\\d)(\\.(25[0-5]|2[0-4]\\d|1\\d\\d|[1-9]?\\d)){3}");
+
+    private static final Pattern IPV6 = Pattern.compile("[0-9a-fA-F:.]*:[0-9a-fA-F:.]*");
+
+    private final List<IpAddressMatcher> trustedProxies;
+
+    public ClientAddressResolver(ApplicationProperties applicationProperties) {
+        this.trustedProxies = applicationProperties.getSecurity().getLoginThrottle().getTrustedProxies().stream()
+            .map(String::trim)
+            .filter(StringUtils::hasText)
+            .map(IpAddressMatcher::new)
+            .collect(Collectors.toList());
+    }
+
+    /**
+     * @param request the request.
+     * @return the address of its client.
+     */
+    public String resolve(HttpServletRequest request) {
+        String address = request.getRemoteAddr();
+        if (!isTrustedProxy(address)) {
+            return address;
+        }
+        List<String> forwarded = forwardedAddresses(request);
+        for (int i = forwarded.size() - 1; i >= 0; i--) {
+            address = forwarded.get(i);
+            if (!isTrustedProxy(address)) {
+                return address;
+            }
+        }
+        return address;
+    }
+
+    private boolean isTrustedProxy(String address) {
+        if (address == null || !isIpLiteral(address)) {
+            return false;
+        }
+        for (IpAddressMatcher trustedProxy : trustedProxies) {
+            if (trustedProxy.matches(address)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Header values are checked to be IP literals before being matched, which would otherwise resolve host names.
+     */
+    private static boolean isIpLiteral(String address) {
+        return IPV4.matcher(address).matches() || IPV6.matcher(address).matches();
+    }
+
+    private static List<String> forwardedAddresses(HttpServletRequest request) {
+        List<String> addresses = new ArrayList<>();
+        for (String header : Collections.list(request.getHeaders(X_FORWARDED_FOR))) {
+            for (String address : header.split(",")) {
+                if (StringUtils.hasText(address)) {
+                    addresses.add(address.trim());
+                }
+            }
+        }
+        return addresses;
+    }
+}
@@ -1,62 +1,143 @@
 package io.github.jhipster.application.security;
 
-import io.github.jhipster.application.domain.User;
+import io.github.jhipster.application.domain.UserSnapshot;
 import io.github.jhipster.application.repository.UserRepository;
+import io.github.jhipster.application.service.UserService;
 import org.hibernate.validator.internal.constraintvalidators.hv.EmailValidator;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.security.core.GrantedAuthority;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Component;
-import org.springframework.transaction.annotation.Transactional;
 
+import java.io.Serializable;
 import java.util.*;
-import java.util.stream.Collectors;
+import java.util.function.Supplier;
 
 /**
  * Authenticate a user from the database.
+ * <p>
+ * The credentials of the users are kept in the {@link #USER_DETAILS_CACHE} cache as compact {@link UserRecord}s,
+ * keyed by login or email like the {@link UserRepository} caches, and evicted along with them by
+ * {@link UserService}.
+ * <p>
+ * Password hashes which are weaker than the current cost get upgraded on successful authentication.
  */
 @Component("userDetailsService")
-public class DomainUserDetailsService implements UserDetailsService {
+public class DomainUserDetailsService implements UserDetailsService, UserDetailsPasswordService {
+
+    public static final String USER_DETAILS_CACHE = "userDetails";
+
+    private static final EmailValidator EMAIL_VALIDATOR = new EmailValidator();
 
     private final Logger log = LoggerFactory.getLogger(DomainUserDetailsService.class);
 
     private final UserRepository userRepository;
 
-    public DomainUserDetailsService(UserRepository userRepository) {
+    private final UserService userService;
+
+    private final CacheManager cacheManager;
+
+    public DomainUserDetailsService(UserRepository userRepository, UserService userService, CacheManager cacheManager) {
         this.userRepository = userRepository;
+        this.userService = userService;
+        this.cacheManager = cacheManager;
     }
 
     @Override
-    @Transactional
     public UserDetails loadUserByUsername(final String login) {
         log.debug("Authenticating {}", login);
 
-        if (new EmailValidator().isValid(login, null)) {
-            return userRepository.findOneWithAuthoritiesByEmail(login)
-                .map(user -> createSpringSecurityUser(login, user))
+        if (EMAIL_VALIDATOR.isValid(login, null)) {
+            // Emails are stored in lowercase, and other spellings may still match them depending on the collation
+            String unknownUserKey = login.equals(login.toLowerCase(Locale.ENGLISH)) ? UserRepository.unknownEmailKey(login) : null;
+            UserRecord userRecord = loadUserRecord(login, unknownUserKey, () -> userRepository.findSnapshotByEmail(login))
                 .orElseThrow(() -> new UsernameNotFoundException("User with email " + login + " was not found in the database"));
+            return createSpringSecurityUser(login, userRecord);
         }
 
         String lowercaseLogin = login.toLowerCase(Locale.ENGLISH);
-        return userRepository.findOneWithAuthoritiesByLogin(lowercaseLogin)
-            .map(user -> createSpringSecurityUser(lowercaseLogin, user))
+        UserRecord userRecord = loadUserRecord(lowercaseLogin, UserRepository.unknownLoginKey(lowercaseLogin),
+            () -> userRepository.findSnapshotByLogin(lowercaseLogin))
             .orElseThrow(() -> new UsernameNotFoundException("User " + lowercaseLogin + " was not found in the database"));
+        return createSpringSecurityUser(lowercaseLogin, userRecord);
+    }
 
+    @Override
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        log.debug("Upgrading the password hash of {}", user.getUsername());
+        userService.updatePasswordHash(user.getUsername(), newPassword);
+        return org.springframework.security.core.userdetails.User.withUserDetails(user)
+            .password(newPassword)
+            .build();
+    }
+
+    /**
+     * Users which are not found are remembered in the {@link UserRepository#UNKNOWN_USERS_CACHE} cache, so that
+     * failed authentications with unknown logins do not query the database each time.
+     *
+     * @param unknownUserKey the key of the user in this cache, or null if it should not be cached as unknown.
+     */
+    private Optional<UserRecord> loadUserRecord(String key, String unknownUserKey, Supplier<Optional<UserSnapshot>> loader) {
+        Cache cache = Objects.requireNonNull(cacheManager.getCache(USER_DETAILS_CACHE));
+        UserRecord userRecord = cache.get(key, UserRecord.class);
+        if (userRecord != null) {
+            return Optional.of(userRecord);
+        }
+        Cache unknownUsers = Objects.requireNonNull(cacheManager.getCache(UserRepository.UNKNOWN_USERS_CACHE));
+        if (unknownUserKey != null && unknownUsers.get(unknownUserKey) != null) {
+            return Optional.empty();
+        }
+        Optional<UserRecord> loaded = loader.get().map(UserRecord::new);
+        if (loaded.isPresent()) {
+            cache.put(key, loaded.get());
+        } else if (unknownUserKey != null) {
+            unknownUsers.put(unknownUserKey, null);
+        }
+        return loaded;
     }
 
-    private org.springframework.security.core.userdetails.User createSpringSecurityUser(String lowercaseLogin, User user) {
-        if (!user.getActivated()) {
+    /**
+     * A new Spring Security user is built on each call, as its password gets erased once it is authenticated.
+     */
+    private org.springframework.security.core.userdetails.User createSpringSecurityUser(String lowercaseLogin, UserRecord userRecord) {
+        if (!userRecord.activated) {
             throw new UserNotActivatedException("User " + lowercaseLogin + " was not activated");
         }
-        List<GrantedAuthority> grantedAuthorities = user.getAuthorities().stream()
-            .map(authority -> new SimpleGrantedAuthority(authority.getName()))
-            .collect(Collectors.toList());
-        return new org.springframework.security.core.userdetails.User(user.getLogin(),
-            user.getPassword(),
+        List<GrantedAuthority> grantedAuthorities = new ArrayList<>(userRecord.authorities.length);
+        for (String authority : userRecord.authorities) {
+            grantedAuthorities.add(AuthorityRegistry.authority(authority));
+        }
+        return new org.springframework.security.core.userdetails.User(userRecord.login,
+            userRecord.password,
             grantedAuthorities);
     }
+
+    /**
+     * The credentials of a user, without the rest of its entity graph.
+     */
+    static final class UserRecord implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        private final String login;
+
+        private final String password;
+
+        private final boolean activated;
+
+        private final String[] authorities;
+
+        private UserRecord(UserSnapshot user) {
+            this.login = user.getLogin();
+            this.password = user.getPassword();
+            this.activated = user.isActivated();
+            this.authorities = user.getAuthorities().toArray(new String[0]);
+        }
+    }
 }
@@ -0,0 +1,15 @@
+package io.github.jhipster.application.security;
+
+import org.springframework.security.core.AuthenticationException;
+
+/**
+ * This exception is thrown in case of an unknown, expired or reused refresh token.
+ */
+public class InvalidRefreshTokenException extends AuthenticationException {
+
+    private static final long serialVersionUID = 1L;
+
+    public InvalidRefreshTokenException(String message) {
+        super(message);
+    }
+}
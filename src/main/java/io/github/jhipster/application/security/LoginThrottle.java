@@ -0,0 +1,97 @@
+package io.github.jhipster.application.security;
+
+import io.github.jhipster.application.config.ApplicationProperties;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.Locale;
+
+/**
+ * Throttle of the authentication attempts, per login and per IP address.
+ * <p>
+ * Attempts are counted over a sliding window by {@link SlidingWindowCounter}s of bounded size, and the attempts
+ * over budget are rejected before their password gets hashed, so that credential stuffing cannot turn into
+ * BCrypt CPU time. All the attempts from an IP address are counted, but only the failed attempts for a login, so
+ * that its user can keep logging in, and others cannot lock them out for longer than it takes to fail that many
+ * times.
+ */
+@Component
+public class LoginThrottle {
+
+    private final Logger log = LoggerFactory.getLogger(LoginThrottle.class);
+
+    private final boolean enabled;
+
+    private final int maxAttemptsPerLogin;
+
+    private final int maxAttemptsPerIp;
+
+    private final long windowInSeconds;
+
+    private final SlidingWindowCounter loginAttempts;
+
+    private final SlidingWindowCounter ipAttempts;
+
+    private final Counter attempts;
+
+    private final Counter loginRejections;
+
+    private final Counter ipRejections;
+
+    public LoginThrottle(ApplicationProperties applicationProperties, MeterRegistry meterRegistry) {
+        ApplicationProperties.Security.LoginThrottle loginThrottle = applicationProperties.getSecurity().getLoginThrottle();
+        this.enabled = loginThrottle.isEnabled();
+        this.maxAttemptsPerLogin = loginThrottle.getMaxAttemptsPerLogin();
+        this.maxAttemptsPerIp = loginThrottle.getMaxAttemptsPerIp();
+        this.windowInSeconds = loginThrottle.getWindowInSeconds();
+        this.loginAttempts = new SlidingWindowCounter(loginThrottle.getSlots(), windowInSeconds * 1000, System::currentTimeMillis);
+        this.ipAttempts = new SlidingWindowCounter(loginThrottle.getSlots(), windowInSeconds * 1000, System::currentTimeMillis);
+        this.attempts = Counter.builder("login.throttle.attempts")
+            .description("Authentication attempts checked by the login throttle").register(meterRegistry);
+        this.loginRejections = Counter.builder("login.throttle.rejections").tag("key", "login")
+            .description("Authentication attempts rejected by the login throttle").register(meterRegistry);
+        this.ipRejections = Counter.builder("login.throttle.rejections").tag("key", "ip")
+            .description("Authentication attempts rejected by the login throttle").register(meterRegistry);
+    }
+
+    /**
+     * Count an authentication attempt, and check that it is within budget.
+     *
+     * @param login the login, or email, being authenticated.
+     * @param ipAddress the IP address the attempt comes from.
+     * @throws LoginThrottledException if there were too many attempts from this IP address, or too many failed
+     * attempts for this login.
+     */
+    public void checkAttempt(String login, String ipAddress) {
+        if (!enabled) {
+            return;
+        }
+        attempts.increment();
+        if (ipAddress != null && ipAttempts.increment(ipAddress) > maxAttemptsPerIp) {
+            ipRejections.increment();
+            log.debug("Too many authentication attempts from {}", ipAddress);
+            throw new LoginThrottledException("Too many authentication attempts", windowInSeconds);
+        }
+        if (login != null && loginAttempts.estimate(login.toLowerCase(Locale.ENGLISH)) >= maxAttemptsPerLogin) {
+            loginRejections.increment();
+            log.debug("Too many authentication attempts for {}", login);
+            throw new LoginThrottledException("Too many authentication attempts", windowInSeconds);
+        }
+    }
+
+    /**
+     * Count a failed authentication attempt against the budget of its login.
+     *
+     * @param login the login, or email, which failed to authenticate.
+     */
+    public void recordFailure(String login) {
+        if (enabled && login != null) {
+            loginAttempts.increment(login.toLowerCase(Locale.ENGLISH));
+        }
+    }
+}
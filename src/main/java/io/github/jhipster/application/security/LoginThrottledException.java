@@ -0,0 +1,20 @@
+package io.github.jhipster.application.security;
+
+/**
+ * This exception is thrown when there were too many authentication attempts for a login, or from an IP address.
+ */
+public class LoginThrottledException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final long retryAfterInSeconds;
+
+    public LoginThrottledException(String message, long retryAfterInSeconds) {
+        super(message);
+        this.retryAfterInSeconds = retryAfterInSeconds;
+    }
+
+    public long getRetryAfterInSeconds() {
+        return retryAfterInSeconds;
+    }
+}
@@ -0,0 +1,18 @@
+package io.github.jhipster.application.security;
+
+/**
+ * This exception is thrown when the password hashing pool is saturated, and a password cannot be hashed or
+ * checked in time.
+ */
+public class PasswordHashingRejectedException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public PasswordHashingRejectedException(String message) {
+        super(message);
+    }
+
+    public PasswordHashingRejectedException(String message, Throwable t) {
+        super(message, t);
+    }
+}
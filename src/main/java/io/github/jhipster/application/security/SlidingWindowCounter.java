@@ -0,0 +1,142 @@
+package io.github.jhipster.application.security;
+
+import java.nio.charset.StandardCharsets;
+import java.security.SecureRandom;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.LongSupplier;
+
+/**
+ * Lock-free, fixed-size counter of events per key over a sliding time window.
+ * <p>
+ * Keys are hashed to two slots of a striped array (a count-min sketch), so the memory used does not depend on
+ * the number of keys: colliding keys can only over-count, never under-count. The two slots come from independent
+ * MurmurHash3 hashes of the key, seeded at random when the counter is created, so that colliding keys cannot be
+ * computed in advance to throttle a given key. Each slot packs, in a single
+ * {@code long} updated by compare-and-set, the counts of the current and previous fixed windows, and the number
+ * of the current window; the count over the sliding window is interpolated from both.
+ */
+final class SlidingWindowCounter {
+
+    private static final int COUNT_BITS = 24;
+
+    private static final long COUNT_MASK = (1L << COUNT_BITS) - 1;
+
+    private static final int WINDOW_SHIFT = 2 * COUNT_BITS;
+
+    private static final long WINDOW_MASK = 0xFFFF;
+
+    private final AtomicLongArray slots;
+
+    private final int mask;
+
+    private final long windowInMillis;
+
+    private final LongSupplier clock;
+
+    private final int firstSeed;
+
+    private final int secondSeed;
+
+    SlidingWindowCounter(int slots, long windowInMillis, LongSupplier clock) {
+        int size = Integer.highestOneBit(Math.max(slots, 2) - 1) << 1;
+        this.slots = new AtomicLongArray(size);
+        this.mask = size - 1;
+        this.windowInMillis = windowInMillis;
+        this.clock = clock;
+        SecureRandom random = new SecureRandom();
+        this.firstSeed = random.nextInt();
+        int secondSeed;
+        do {
+            secondSeed = random.nextInt();
+        } while (secondSeed == firstSeed);
+        this.secondSeed = secondSeed;
+    }
+
+    /**
+     * Count an event.
+     *
+     * @param key the key of the event.
+     * @return the estimated number of events of this key over the sliding window, including this one.
+     */
+    int increment(String key) {
+        return count(key, 1);
+    }
+
+    /**
+     * @param key the key of the events.
+     * @return the estimated number of events of this key over the sliding window.
+     */
+    int estimate(String key) {
+        return count(key, 0);
+    }
+
+    private int count(String key, int delta) {
+        long now = clock.getAsLong();
+        long window = now / windowInMillis;
+        double previousWeight = 1 - (double) (now % windowInMillis) / windowInMillis;
+        byte[] bytes = key.getBytes(StandardCharsets.UTF_8);
+        int first = update(murmur3(bytes, firstSeed) & mask, window, delta, previousWeight);
+        int second = update(murmur3(bytes, secondSeed) & mask, window, delta, previousWeight);
+        return Math.min(first, second);
+    }
+
+    private int update(int index, long window, int delta, double previousWeight) {
+        long current = window & WINDOW_MASK;
+        while (true) {
+            long slot = slots.get(index);
+            long slotWindow = slot >>> WINDOW_SHIFT;
+            long count;
+            long previousCount;
+            if (slotWindow == current) {
+                count = slot & COUNT_MASK;
+                previousCount = (slot >>> COUNT_BITS) & COUNT_MASK;
+            } else if (slotWindow == ((window - 1) & WINDOW_MASK)) {
+                count = 0;
+                previousCount = slot & COUNT_MASK;
+            } else {
+                count = 0;
+                previousCount = 0;
+            }
+            count = Math.min(count + delta, COUNT_MASK);
+            long updated = current << WINDOW_SHIFT | previousCount << COUNT_BITS | count;
+            if (updated == slot || slots.compareAndSet(index, slot, updated)) {
+                return (int) (count + Math.round(previousCount * previousWeight));
+            }
+        }
+    }
+
+    /**
+     * MurmurHash3, x86 32 bits variant.
+     */
+    static int murmur3(byte[] bytes, int seed) {
+        int hash = seed;
+        int blocks = bytes.length & ~3;
+        for (int i = 0; i < blocks; i += 4) {
+            int block = (bytes[i] & 0xFF) | (bytes[i + 1] & 0xFF) << 8 | (bytes[i + 2] & 0xFF) << 16 | bytes[i + 3] << 24;
+            hash ^= mixBlock(block);
+            hash = Integer.rotateLeft(hash, 13) * 5 + 0xE6546B64;
+        }
+        int tail = 0;
+        switch (bytes.length & 3) {
+            case 3:
+                tail ^= (bytes[blocks + 2] & 0xFF) << 16;
+            case 2:
+                tail ^= (bytes[blocks + 1] & 0xFF) << 8;
+            case 1:
+                tail ^= bytes[blocks] & 0xFF;
+                hash ^= mixBlock(tail);
+            default:
+        }
+        hash ^= bytes.length;
+        hash ^= hash >>> 16;
+        hash *= 0x85EBCA6B;
+        hash ^= hash >>> 13;
+        hash *= 0xC2B2AE35;
+        hash ^= hash >>> 16;
+        return hash;
+    }
+
+    private static int mixBlock(int block) {
+        return Integer.rotateLeft(block * 0xCC9E2D51, 15) * 0x1B873593;
+    }
+}
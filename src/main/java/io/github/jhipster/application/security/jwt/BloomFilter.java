@@ -0,0 +1,71 @@
+package io.github.jhipster.application.security.jwt;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A thread-safe Bloom filter of strings, which only grows.
+ * <p>
+ * Each string is hashed once into 64 bits, from which the {@code k} bit indexes are derived by double hashing.
+ * A {@code seed} lets distinct key spaces (token ids and logins) share the filter without building prefixed strings.
+ */
+final class BloomFilter {
+
+    private final AtomicLongArray bits;
+
+    private final long bitCount;
+
+    private final int hashCount;
+
+    BloomFilter(int expectedInsertions, double falsePositiveProbability) {
+        long optimalBits = (long) (-Math.max(expectedInsertions, 1) * Math.log(falsePositiveProbability) / (Math.log(2) * Math.log(2)));
+        int words = (int) Math.min(Integer.MAX_VALUE, (optimalBits + 63) >>> 6);
+        this.bits = new AtomicLongArray(Math.max(words, 1));
+        this.bitCount = (long) bits.length() << 6;
+        this.hashCount = Math.max(1, (int) Math.round((double) bitCount / Math.max(expectedInsertions, 1) * Math.log(2)));
+    }
+
+    void put(int seed, String value) {
+        long hash = hash(seed, value);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 1; i <= hashCount; i++) {
+            long index = ((h1 + i * h2) & Integer.MAX_VALUE) % bitCount;
+            int word = (int) (index >>> 6);
+            long mask = 1L << index;
+            long current;
+            while (((current = bits.get(word)) & mask) == 0 && !bits.compareAndSet(word, current, current | mask)) {
+                // retry the concurrent update
+            }
+        }
+    }
+
+    boolean mightContain(int seed, String value) {
+        long hash = hash(seed, value);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 1; i <= hashCount; i++) {
+            long index = ((h1 + i * h2) & Integer.MAX_VALUE) % bitCount;
+            if ((bits.get((int) (index >>> 6)) & (1L << index)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 64-bit FNV-1a of the characters, finished with the MurmurHash3 mixer.
+     */
+    private static long hash(int seed, String value) {
+        long hash = 0xcbf29ce484222325L ^ seed;
+        for (int i = 0; i < value.length(); i++) {
+            hash ^= value.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
@@ -0,0 +1,331 @@
+package io.github.jhipster.application.security.jwt;
+
+import io.github.jhipster.application.config.ApplicationProperties;
+import io.github.jhipster.application.domain.JwtSigningKey;
+import io.github.jhipster.application.repository.JwtSigningKeyRepository;
+import io.github.jhipster.config.JHipsterProperties;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.SigningKeyResolverAdapter;
+import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.security.SignatureException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.Key;
+import java.security.KeyFactory;
+import java.security.KeyPair;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.security.spec.X509EncodedKeySpec;
+import java.time.Instant;
+import java.util.*;
+
+/**
+ * Key ring of the asymmetric (RS256 or ES256) keys used to sign and verify JWTs.
+ * <p>
+ * Keys are persisted in the database, so that every node signs with the same key and can verify tokens issued by
+ * any other node. Private keys are stored encrypted with a key-encryption key from the configuration:
+ * {@code application.security.jwt.key-encryption-key}, or else a key derived from the JHipster secret. A new key is published {@code key-publication-ahead-in-seconds} before it starts signing tokens,
+ * so that verifiers fetching the {@code /management/jwks} endpoint know it before they receive tokens signed with it.
+ * Retired keys are kept until the longest-lived token they signed has expired.
+ * <p>
+ * Parsed keys are kept in memory and only re-read from the database when rotating, or when a token references
+ * an unknown {@code kid}, so verifying a token never decodes a key.
+ * <p>
+ * With the default HS512 algorithm the key ring is disabled, and {@link TokenProvider} uses the JHipster secret.
+ */
+@Component
+public class JwtKeyRing extends SigningKeyResolverAdapter {
+
+    private static final long MIN_RELOAD_INTERVAL_MILLIS = 10000;
+
+    private final Logger log = LoggerFactory.getLogger(JwtKeyRing.class);
+
+    private final JwtSigningKeyRepository jwtSigningKeyRepository;
+
+    private final SignatureAlgorithm algorithm;
+
+    private final long rotationPeriodInSeconds;
+
+    private final long publicationAheadInSeconds;
+
+    private final long retentionInSeconds;
+
+    private final SigningKeyCipher cipher;
+
+    private volatile Ring ring;
+
+    private volatile long lastReload;
+
+    public JwtKeyRing(JHipsterProperties jHipsterProperties, ApplicationProperties applicationProperties,
+                      JwtSigningKeyRepository jwtSigningKeyRepository) {
+        this.jwtSigningKeyRepository = jwtSigningKeyRepository;
+        ApplicationProperties.Security.Jwt jwt = applicationProperties.getSecurity().getJwt();
+        SignatureAlgorithm signatureAlgorithm = SignatureAlgorithm.forName(jwt.getAlgorithm());
+        if (signatureAlgorithm != SignatureAlgorithm.HS512 &&
+            signatureAlgorithm != SignatureAlgorithm.RS256 && signatureAlgorithm != SignatureAlgorithm.ES256) {
+            throw new IllegalArgumentException("Unsupported JWT signature algorithm: " + jwt.getAlgorithm());
+        }
+        this.algorithm = signatureAlgorithm.isHmac() ? null : signatureAlgorithm;
+        this.rotationPeriodInSeconds = jwt.getKeyRotationPeriodInSeconds();
+        this.publicationAheadInSeconds = Math.min(jwt.getKeyPublicationAheadInSeconds(), rotationPeriodInSeconds / 2);
+        JHipsterProperties.Security.Authentication.Jwt jhipsterJwt = jHipsterProperties.getSecurity().getAuthentication().getJwt();
+        this.retentionInSeconds = Math.max(jhipsterJwt.getTokenValidityInSeconds(), jhipsterJwt.getTokenValidityInSecondsForRememberMe());
+        this.cipher = this.algorithm == null ? null : cipher(jwt.getKeyEncryptionKey(), jhipsterJwt);
+    }
+
+    private static SigningKeyCipher cipher(String keyEncryptionKey, JHipsterProperties.Security.Authentication.Jwt jhipsterJwt) {
+        if (!StringUtils.isEmpty(keyEncryptionKey)) {
+            return SigningKeyCipher.of(keyEncryptionKey);
+        }
+        if (!StringUtils.isEmpty(jhipsterJwt.getBase64Secret())) {
+            return SigningKeyCipher.derivedFrom(Base64.getDecoder().decode(jhipsterJwt.getBase64Secret()));
+        }
+        if (!StringUtils.isEmpty(jhipsterJwt.getSecret())) {
+            return SigningKeyCipher.derivedFrom(jhipsterJwt.getSecret().getBytes(StandardCharsets.UTF_8));
+        }
+        throw new IllegalStateException("The JWT key ring needs application.security.jwt.key-encryption-key, " +
+            "or a JHipster JWT secret, to encrypt its private keys");
+    }
+
+    /**
+     * @return true if tokens are signed with asymmetric keys from this key ring.
+     */
+    public boolean isEnabled() {
+        return algorithm != null;
+    }
+
+    /**
+     * @return the key to sign new tokens with.
+     */
+    public SigningKey getSigningKey() {
+        Ring current = ring();
+        Instant now = Instant.now();
+        if (current.signingKey == null || current.nextActivation != null && !now.isBefore(current.nextActivation)) {
+            current = rotateKeys();
+        }
+        if (current.signingKey == null) {
+            throw new IllegalStateException("No active JWT signing key");
+        }
+        return current.signingKey;
+    }
+
+    /**
+     * @return the keys which can currently be used to verify tokens, including keys published ahead of their use.
+     */
+    public Collection<SigningKey> getVerificationKeys() {
+        return isEnabled() ? ring().keys.values() : Collections.emptyList();
+    }
+
+    @Override
+    public Key resolveSigningKey(JwsHeader header, Claims claims) {
+        String kid = header.getKeyId();
+        if (kid == null) {
+            throw new SignatureException("JWT has no key id");
+        }
+        SigningKey signingKey = ring().keys.get(kid);
+        if (signingKey == null && System.currentTimeMillis() - lastReload > MIN_RELOAD_INTERVAL_MILLIS) {
+            // The key may have been created by another node since our last reload
+            signingKey = reload().keys.get(kid);
+        }
+        if (signingKey == null) {
+            throw new SignatureException("Unknown JWT key id " + kid);
+        }
+        return signingKey.publicKey;
+    }
+
+    /**
+     * Create the next key when the current one is due for rotation, and delete the keys which can no longer
+     * have signed a valid token.
+     * <p>
+     * This is scheduled to get fired every minute, which also picks up the keys created by other nodes.
+     */
+    @Scheduled(fixedDelay = 60000, initialDelay = 60000)
+    public void rotate() {
+        rotateKeys();
+    }
+
+    private synchronized Ring rotateKeys() {
+        if (!isEnabled()) {
+            return Ring.EMPTY;
+        }
+        Instant now = Instant.now();
+        List<JwtSigningKey> expired = jwtSigningKeyRepository.findAllByExpirationDateBefore(now);
+        if (!expired.isEmpty()) {
+            log.debug("Deleting {} expired JWT signing keys", expired.size());
+            jwtSigningKeyRepository.deleteAll(expired);
+        }
+        Ring current = reload();
+        Instant latestActivation = current.keys.values().stream()
+            .filter(key -> key.algorithm == algorithm)
+            .map(SigningKey::getActivationDate)
+            .max(Comparator.naturalOrder())
+            .orElse(null);
+        if (latestActivation == null) {
+            current = createKey(now);
+        } else if (!now.isBefore(latestActivation.plusSeconds(rotationPeriodInSeconds - publicationAheadInSeconds))) {
+            current = createKey(latestActivation.plusSeconds(rotationPeriodInSeconds));
+        }
+        return current;
+    }
+
+    private Ring createKey(Instant activationDate) {
+        KeyPair keyPair = Keys.keyPairFor(algorithm);
+        JwtSigningKey jwtSigningKey = new JwtSigningKey();
+        jwtSigningKey.setKid(UUID.randomUUID().toString());
+        jwtSigningKey.setAlgorithm(algorithm.getValue());
+        jwtSigningKey.setPublicKey(Base64.getEncoder().encodeToString(keyPair.getPublic().getEncoded()));
+        jwtSigningKey.setPrivateKey(cipher.encrypt(jwtSigningKey.getKid(), keyPair.getPrivate().getEncoded()));
+        jwtSigningKey.setActivationDate(activationDate);
+        jwtSigningKey.setExpirationDate(activationDate.plusSeconds(rotationPeriodInSeconds + retentionInSeconds));
+        jwtSigningKeyRepository.save(jwtSigningKey);
+        log.info("Created JWT signing key {}, active from {}", jwtSigningKey.getKid(), activationDate);
+        return reload();
+    }
+
+    private Ring ring() {
+        Ring current = ring;
+        if (current == null) {
+            current = rotateKeys();
+        }
+        return current;
+    }
+
+    private synchronized Ring reload() {
+        Ring previous = ring == null ? Ring.EMPTY : ring;
+        Map<String, SigningKey> keys = new HashMap<>();
+        for (JwtSigningKey jwtSigningKey : jwtSigningKeyRepository.findAllByExpirationDateAfter(Instant.now())) {
+            SigningKey signingKey = previous.keys.get(jwtSigningKey.getKid());
+            if (signingKey == null) {
+                signingKey = decode(jwtSigningKey);
+            }
+            if (signingKey != null) {
+                keys.put(signingKey.kid, signingKey);
+            }
+        }
+        ring = new Ring(keys, algorithm, Instant.now());
+        lastReload = System.currentTimeMillis();
+        return ring;
+    }
+
+    /**
+     * Decode a key of the key ring, encrypting its private key first if it was stored in clear.
+     *
+     * @return the key, or null if its private key cannot be decrypted with our key-encryption key.
+     */
+    private SigningKey decode(JwtSigningKey jwtSigningKey) {
+        String storedKey = jwtSigningKey.getPrivateKey();
+        if (!SigningKeyCipher.isEncrypted(storedKey)) {
+            log.info("Encrypting JWT signing key {}", jwtSigningKey.getKid());
+            jwtSigningKey.setPrivateKey(cipher.encrypt(jwtSigningKey.getKid(), Base64.getDecoder().decode(storedKey)));
+            jwtSigningKeyRepository.save(jwtSigningKey);
+        }
+        try {
+            return SigningKey.decode(jwtSigningKey, cipher.decrypt(jwtSigningKey.getKid(), jwtSigningKey.getPrivateKey()));
+        } catch (GeneralSecurityException e) {
+            log.error("Could not decrypt JWT signing key {}: the nodes must share the same key-encryption key",
+                jwtSigningKey.getKid());
+            return null;
+        }
+    }
+
+    /**
+     * A decoded key pair of the key ring.
+     */
+    public static final class SigningKey {
+
+        private final String kid;
+
+        private final SignatureAlgorithm algorithm;
+
+        private final PublicKey publicKey;
+
+        private final PrivateKey privateKey;
+
+        private final Instant activationDate;
+
+        private SigningKey(String kid, SignatureAlgorithm algorithm, PublicKey publicKey, PrivateKey privateKey,
+                           Instant activationDate) {
+            this.kid = kid;
+            this.algorithm = algorithm;
+            this.publicKey = publicKey;
+            this.privateKey = privateKey;
+            this.activationDate = activationDate;
+        }
+
+        static SigningKey decode(JwtSigningKey jwtSigningKey, byte[] privateKeyBytes) {
+            SignatureAlgorithm algorithm = SignatureAlgorithm.forName(jwtSigningKey.getAlgorithm());
+            try {
+                KeyFactory keyFactory = KeyFactory.getInstance(algorithm.getFamilyName().startsWith("RSA") ? "RSA" : "EC");
+                PublicKey publicKey = keyFactory.generatePublic(
+                    new X509EncodedKeySpec(Base64.getDecoder().decode(jwtSigningKey.getPublicKey())));
+                PrivateKey privateKey = keyFactory.generatePrivate(new PKCS8EncodedKeySpec(privateKeyBytes));
+                return new SigningKey(jwtSigningKey.getKid(), algorithm, publicKey, privateKey, jwtSigningKey.getActivationDate());
+            } catch (GeneralSecurityException e) {
+                throw new IllegalStateException("Could not decode JWT signing key " + jwtSigningKey.getKid(), e);
+            }
+        }
+
+        public String getKid() {
+            return kid;
+        }
+
+        public SignatureAlgorithm getAlgorithm() {
+            return algorithm;
+        }
+
+        public PublicKey getPublicKey() {
+            return publicKey;
+        }
+
+        PrivateKey getPrivateKey() {
+            return privateKey;
+        }
+
+        public Instant getActivationDate() {
+            return activationDate;
+        }
+    }
+
+    /**
+     * Immutable snapshot of the key ring.
+     */
+    static final class Ring {
+
+        static final Ring EMPTY = new Ring(Collections.emptyMap(), null, Instant.EPOCH);
+
+        private final Map<String, SigningKey> keys;
+
+        private final SigningKey signingKey;
+
+        private final Instant nextActivation;
+
+        private Ring(Map<String, SigningKey> keys, SignatureAlgorithm algorithm, Instant now) {
+            this.keys = Collections.unmodifiableMap(keys);
+            SigningKey latestActive = null;
+            Instant next = null;
+            for (SigningKey key : keys.values()) {
+                if (key.algorithm != algorithm) {
+                    continue;
+                }
+                if (key.activationDate.isAfter(now)) {
+                    next = next == null || key.activationDate.isBefore(next) ? key.activationDate : next;
+                } else if (latestActive == null || key.activationDate.isAfter(latestActive.activationDate)) {
+                    latestActive = key;
+                }
+            }
+            this.signingKey = latestActive;
+            this.nextActivation = next;
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package io.github.jhipster.application.security.jwt;
+
+import javax.crypto.Cipher;
+import javax.crypto.SecretKey;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Arrays;
+import java.util.Base64;
+
+/**
+ * Encrypts the private keys of the {@link JwtKeyRing} before they are stored in the database, with AES-GCM and a
+ * key-encryption key taken from the configuration, so that reading the table or a backup of it does not allow
+ * signing tokens.
+ * <p>
+ * Encrypted keys are stored as {@code enc:} followed by the Base64-encoded IV and ciphertext. The {@code kid} of
+ * the key is authenticated along with it, so that an encrypted key cannot be moved to another row.
+ */
+final class SigningKeyCipher {
+
+    static final String PREFIX = "enc:";
+
+    private static final String TRANSFORMATION = "AES/GCM/NoPadding";
+
+    private static final int IV_LENGTH = 12;
+
+    private static final int TAG_LENGTH_IN_BITS = 128;
+
+    private final SecureRandom random = new SecureRandom();
+
+    private final SecretKey keyEncryptionKey;
+
+    private SigningKeyCipher(byte[] key) {
+        this.keyEncryptionKey = new SecretKeySpec(key, "AES");
+    }
+
+    /**
+     * @param base64Key a Base64-encoded AES key of 128, 192 or 256 bits.
+     * @return a cipher using this key.
+     */
+    static SigningKeyCipher of(String base64Key) {
+        byte[] key = Base64.getDecoder().decode(base64Key);
+        if (key.length != 16 && key.length != 24 && key.length != 32) {
+            throw new IllegalArgumentException("The JWT key encryption key must be a Base64-encoded 128, 192 or 256 bits key");
+        }
+        return new SigningKeyCipher(key);
+    }
+
+    /**
+     * @param secret a secret of at least 256 bits.
+     * @return a cipher using a 256 bits key derived from the secret, distinct from the secret itself.
+     */
+    static SigningKeyCipher derivedFrom(byte[] secret) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update("jwt-signing-key-encryption".getBytes(StandardCharsets.UTF_8));
+            return new SigningKeyCipher(digest.digest(secret));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    static boolean isEncrypted(String storedKey) {
+        return storedKey.startsWith(PREFIX);
+    }
+
+    String encrypt(String kid, byte[] privateKey) {
+        byte[] iv = new byte[IV_LENGTH];
+        random.nextBytes(iv);
+        try {
+            Cipher cipher = Cipher.getInstance(TRANSFORMATION);
+            cipher.init(Cipher.ENCRYPT_MODE, keyEncryptionKey, new GCMParameterSpec(TAG_LENGTH_IN_BITS, iv));
+            cipher.updateAAD(kid.getBytes(StandardCharsets.UTF_8));
+            byte[] ciphertext = cipher.doFinal(privateKey);
+            byte[] stored = Arrays.copyOf(iv, IV_LENGTH + ciphertext.length);
+            System.arraycopy(ciphertext, 0, stored, IV_LENGTH, ciphertext.length);
+            return PREFIX + Base64.getEncoder().encodeToString(stored);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Could not encrypt JWT signing key " + kid, e);
+        }
+    }
+
+    /**
+     * @throws GeneralSecurityException if the key was not encrypted with the same key-encryption key and kid.
+     */
+    byte[] decrypt(String kid, String storedKey) throws GeneralSecurityException {
+        if (!isEncrypted(storedKey)) {
+            throw new GeneralSecurityException("JWT signing key " + kid + " is not encrypted");
+        }
+        byte[] stored = Base64.getDecoder().decode(storedKey.substring(PREFIX.length()));
+        if (stored.length <= IV_LENGTH) {
+            throw new GeneralSecurityException("JWT signing key " + kid + " is truncated");
+        }
+        Cipher cipher = Cipher.getInstance(TRANSFORMATION);
+        cipher.init(Cipher.DECRYPT_MODE, keyEncryptionKey, new GCMParameterSpec(TAG_LENGTH_IN_BITS, stored, 0, IV_LENGTH));
+        cipher.updateAAD(kid.getBytes(StandardCharsets.UTF_8));
+        return cipher.doFinal(stored, IV_LENGTH, stored.length - IV_LENGTH);
+    }
+}
@@ -8,15 +8,18 @@ import java.util.stream.Collectors;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.InitializingBean;
+import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.GrantedAuthority;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.User;
 import org.springframework.stereotype.Component;
 import org.springframework.util.StringUtils;
 
+import io.github.jhipster.application.config.ApplicationProperties;
+import io.github.jhipster.application.security.AuthorityRegistry;
 import io.github.jhipster.config.JHipsterProperties;
+import io.micrometer.core.instrument.MeterRegistry;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
@@ -30,29 +33,57 @@ public class TokenProvider implements InitializingBean {
 
     private Key key;
 
+    private JwtParser jwtParser;
+
     private long tokenValidityInMilliseconds;
 
     private long tokenValidityInMillisecondsForRememberMe;
 
+    private final long accessTokenValidityInMilliseconds;
+
     private final JHipsterProperties jHipsterProperties;
 
-    public TokenProvider(JHipsterProperties jHipsterProperties) {
+    private final VerifiedTokenCache verifiedTokenCache;
+
+    private final JwtKeyRing jwtKeyRing;
+
+    private final TokenRevocationStore tokenRevocationStore;
+
+    private volatile long revocationVersion;
+
+    public TokenProvider(JHipsterProperties jHipsterProperties, ApplicationProperties applicationProperties,
+                         MeterRegistry meterRegistry, JwtKeyRing jwtKeyRing, TokenRevocationStore tokenRevocationStore) {
         this.jHipsterProperties = jHipsterProperties;
+        this.jwtKeyRing = jwtKeyRing;
+        this.tokenRevocationStore = tokenRevocationStore;
+        ApplicationProperties.Security.RefreshToken refreshToken = applicationProperties.getSecurity().getRefreshToken();
+        this.accessTokenValidityInMilliseconds = 1000 * refreshToken.getAccessTokenValidityInSeconds();
+        ApplicationProperties.Security.TokenCache tokenCache = applicationProperties.getSecurity().getTokenCache();
+        this.verifiedTokenCache = tokenCache.isEnabled() ?
+            new VerifiedTokenCache(tokenCache.getMaxEntries(), meterRegistry) : null;
     }
 
     @Override
     public void afterPropertiesSet() throws Exception {
-        byte[] keyBytes;
-        String secret = jHipsterProperties.getSecurity().getAuthentication().getJwt().getSecret();
-        if (!StringUtils.isEmpty(secret)) {
-            log.warn("Warning: the JWT key used is not Base64-encoded. " +
-                "We recommend using the `jhipster.security.authentication.jwt.base64-secret` key for optimum security.");
-            keyBytes = secret.getBytes(StandardCharsets.UTF_8);
+        if (jwtKeyRing.isEnabled()) {
+            log.debug("Using the JWT key ring");
+            // Keys are resolved from the "kid" header of each token
+            this.jwtParser = Jwts.parser().setSigningKeyResolver(jwtKeyRing);
         } else {
-            log.debug("Using a Base64-encoded JWT secret key");
-            keyBytes = Decoders.BASE64.decode(jHipsterProperties.getSecurity().getAuthentication().getJwt().getBase64Secret());
+            byte[] keyBytes;
+            String secret = jHipsterProperties.getSecurity().getAuthentication().getJwt().getSecret();
+            if (!StringUtils.isEmpty(secret)) {
+                log.warn("Warning: the JWT key used is not Base64-encoded. " +
+                    "We recommend using the `jhipster.security.authentication.jwt.base64-secret` key for optimum security.");
+                keyBytes = secret.getBytes(StandardCharsets.UTF_8);
+            } else {
+                log.debug("Using a Base64-encoded JWT secret key");
+                keyBytes = Decoders.BASE64.decode(jHipsterProperties.getSecurity().getAuthentication().getJwt().getBase64Secret());
+            }
+            this.key = Keys.hmacShaKeyFor(keyBytes);
+            // The parser is not modified after this point, so it can be shared by all requests
+            this.jwtParser = Jwts.parser().setSigningKey(key);
         }
-        this.key = Keys.hmacShaKeyFor(keyBytes);
         this.tokenValidityInMilliseconds =
             1000 * jHipsterProperties.getSecurity().getAuthentication().getJwt().getTokenValidityInSeconds();
         this.tokenValidityInMillisecondsForRememberMe =
@@ -61,59 +92,147 @@ public class TokenProvider implements InitializingBean {
     }
 
     public String createToken(Authentication authentication, boolean rememberMe) {
+        return createToken(authentication,
+            rememberMe ? this.tokenValidityInMillisecondsForRememberMe : this.tokenValidityInMilliseconds);
+    }
+
+    /**
+     * Create a short-lived token, issued along with a refresh token.
+     * <p>
+     * Like any other token, it is checked against the revocations on each request, which costs one Bloom filter
+     * probe when it is not revoked.
+     *
+     * @param authentication the authentication of the user.
+     * @return the compact JWT.
+     */
+    public String createAccessToken(Authentication authentication) {
+        return createToken(authentication, this.accessTokenValidityInMilliseconds);
+    }
+
+    private String createToken(Authentication authentication, long validityInMilliseconds) {
         String authorities = authentication.getAuthorities().stream()
             .map(GrantedAuthority::getAuthority)
             .collect(Collectors.joining(","));
 
         long now = (new Date()).getTime();
-        Date validity;
-        if (rememberMe) {
-            validity = new Date(now + this.tokenValidityInMillisecondsForRememberMe);
-        } else {
-            validity = new Date(now + this.tokenValidityInMilliseconds);
-        }
+        Date validity = new Date(now + validityInMilliseconds);
 
-        return Jwts.builder()
+        JwtBuilder builder = Jwts.builder()
+            .setId(UUID.randomUUID().toString())
             .setSubject(authentication.getName())
             .claim(AUTHORITIES_KEY, authorities)
-            .signWith(key, SignatureAlgorithm.HS512)
-            .setExpiration(validity)
-            .compact();
+            .setIssuedAt(new Date(now))
+            .setExpiration(validity);
+        if (jwtKeyRing.isEnabled()) {
+            JwtKeyRing.SigningKey signingKey = jwtKeyRing.getSigningKey();
+            builder.setHeaderParam(JwsHeader.KEY_ID, signingKey.getKid())
+                .signWith(signingKey.getPrivateKey(), signingKey.getAlgorithm());
+        } else {
+            builder.signWith(key, SignatureAlgorithm.HS512);
+        }
+        return builder.compact();
     }
 
+    /**
+     * Get the authentication of a token, checked as by {@link #parseToken(String)}.
+     *
+     * @param token the compact JWT.
+     * @return the authentication of the token.
+     * @throws BadCredentialsException if the token is not valid, or was revoked.
+     */
     public Authentication getAuthentication(String token) {
-        Claims claims = Jwts.parser()
-            .setSigningKey(key)
-            .parseClaimsJws(token)
-            .getBody();
-
-        Collection<? extends GrantedAuthority> authorities =
-            Arrays.stream(claims.get(AUTHORITIES_KEY).toString().split(","))
-                .map(SimpleGrantedAuthority::new)
-                .collect(Collectors.toList());
-
-        User principal = new User(claims.getSubject(), "", authorities);
-
-        return new UsernamePasswordAuthenticationToken(principal, token, authorities);
+        TokenValidationResult result = parseToken(token);
+        if (!result.isValid()) {
+            throw new BadCredentialsException("Invalid JWT token: " + result.getFailure());
+        }
+        return result.getAuthentication();
     }
 
     public boolean validateToken(String authToken) {
+        return parseToken(authToken).isValid();
+    }
+
+    /**
+     * Parse and verify a token once, and build its {@link Authentication}.
+     *
+     * @param authToken the compact JWT.
+     * @return the authentication of the token, or the reason why it is not valid.
+     */
+    public TokenValidationResult parseToken(String authToken) {
+        long version = tokenRevocationStore.getVersion();
+        Authentication authentication = getCachedAuthentication(authToken, version);
+        if (authentication != null) {
+            return TokenValidationResult.valid(authentication);
+        }
         try {
-            Jwts.parser().setSigningKey(key).parseClaimsJws(authToken);
-            return true;
-        } catch (io.jsonwebtoken.security.SecurityException | MalformedJwtException e) {
+            Claims claims = jwtParser.parseClaimsJws(authToken).getBody();
+            if (tokenRevocationStore.isRevoked(claims.getId(), claims.getSubject(), claims.getIssuedAt())) {
+                log.info("Revoked JWT token.");
+                return TokenValidationResult.invalid(TokenValidationResult.Failure.REVOKED);
+            }
+            return TokenValidationResult.valid(buildAuthentication(authToken, claims, version));
+        } catch (io.jsonwebtoken.security.SecurityException e) {
             log.info("Invalid JWT signature.");
             log.trace("Invalid JWT signature trace: {}", e);
+            return TokenValidationResult.invalid(TokenValidationResult.Failure.INVALID_SIGNATURE);
+        } catch (MalformedJwtException e) {
+            log.info("Malformed JWT token.");
+            log.trace("Malformed JWT token trace: {}", e);
+            return TokenValidationResult.invalid(TokenValidationResult.Failure.MALFORMED);
         } catch (ExpiredJwtException e) {
             log.info("Expired JWT token.");
             log.trace("Expired JWT token trace: {}", e);
+            return TokenValidationResult.invalid(TokenValidationResult.Failure.EXPIRED);
         } catch (UnsupportedJwtException e) {
             log.info("Unsupported JWT token.");
             log.trace("Unsupported JWT token trace: {}", e);
+            return TokenValidationResult.invalid(TokenValidationResult.Failure.UNSUPPORTED);
         } catch (IllegalArgumentException e) {
             log.info("JWT token compact of handler are invalid.");
             log.trace("JWT token compact of handler are invalid trace: {}", e);
+            return TokenValidationResult.invalid(TokenValidationResult.Failure.INVALID);
+        }
+    }
+
+    /**
+     * Revoke a token before its expiration.
+     *
+     * @param authToken the compact JWT, which must be valid.
+     */
+    public void revokeToken(String authToken) {
+        Claims claims = jwtParser.parseClaimsJws(authToken).getBody();
+        if (claims.getId() != null) {
+            tokenRevocationStore.revokeToken(claims.getId(), claims.getExpiration().toInstant());
+        } else {
+            // Tokens issued before the jti claim was introduced can only be revoked with all the tokens of their user
+            tokenRevocationStore.revokeAllTokens(claims.getSubject());
+        }
+    }
+
+    private Authentication getCachedAuthentication(String token, long version) {
+        if (verifiedTokenCache == null) {
+            return null;
+        }
+        if (version != revocationVersion) {
+            // A token was revoked since the cache was filled
+            verifiedTokenCache.clear();
+            revocationVersion = version;
+        }
+        return verifiedTokenCache.get(token);
+    }
+
+    private Authentication buildAuthentication(String token, Claims claims, long version) {
+        Object authoritiesClaim = claims.get(AUTHORITIES_KEY);
+        List<GrantedAuthority> authorities =
+            AuthorityRegistry.fromClaim(authoritiesClaim == null ? "" : authoritiesClaim.toString());
+
+        User principal = new User(claims.getSubject(), "", authorities);
+
+        Authentication authentication = new UsernamePasswordAuthenticationToken(principal, token, authorities);
+        // Do not cache an authentication checked against revocations which are already outdated
+        if (verifiedTokenCache != null && claims.getExpiration() != null && tokenRevocationStore.getVersion() == version) {
+            verifiedTokenCache.put(token, authentication, claims.getExpiration().getTime());
         }
-        return false;
+        return authentication;
     }
 }
@@ -0,0 +1,261 @@
+package io.github.jhipster.application.security.jwt;
+
+import io.github.jhipster.application.config.ApplicationProperties;
+import io.github.jhipster.application.domain.TokenRevocation;
+import io.github.jhipster.application.repository.TokenRevocationRepository;
+import io.github.jhipster.config.JHipsterProperties;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Store of the JWTs revoked before their expiration.
+ * <p>
+ * Revocations are persisted as {@link TokenRevocation}s, and mirrored in memory so that checking a token never
+ * queries the database: a {@link BloomFilter} answers the common "not revoked" case with one hash probe, and only
+ * its positives are checked against the exact sets of revoked token ids and logins.
+ * <p>
+ * The in-memory state is updated as soon as a revocation made on this node commits, and incrementally with the
+ * revocations made by other nodes, which are polled every 10 seconds. It is rebuilt from scratch when expired
+ * revocations are purged, as a Bloom filter cannot forget its entries, and when it outgrows the capacity of its Bloom
+ * filter: the rebuilt filter is sized for twice the revocations it is loaded with, and at least
+ * {@code application.security.revocation.expected-insertions}, so that it is not rebuilt again on the next poll.
+ */
+@Component
+public class TokenRevocationStore {
+
+    private static final int JTI_SEED = 0;
+
+    private static final int LOGIN_SEED = 1;
+
+    /**
+     * Revocations are polled by revocation date: the overlap covers late commits and clock skew between nodes.
+     */
+    private static final long POLL_OVERLAP_SECONDS = 60;
+
+    private final Logger log = LoggerFactory.getLogger(TokenRevocationStore.class);
+
+    private final TokenRevocationRepository tokenRevocationRepository;
+
+    private final int expectedInsertions;
+
+    private final double falsePositiveProbability;
+
+    private final long retentionInSeconds;
+
+    private final AtomicLong version = new AtomicLong();
+
+    private volatile Snapshot snapshot;
+
+    private volatile Instant lastPoll;
+
+    public TokenRevocationStore(JHipsterProperties jHipsterProperties, ApplicationProperties applicationProperties,
+                                TokenRevocationRepository tokenRevocationRepository) {
+        this.tokenRevocationRepository = tokenRevocationRepository;
+        ApplicationProperties.Security.Revocation revocation = applicationProperties.getSecurity().getRevocation();
+        this.expectedInsertions = revocation.getExpectedInsertions();
+        this.falsePositiveProbability = revocation.getFalsePositiveProbability();
+        JHipsterProperties.Security.Authentication.Jwt jwt = jHipsterProperties.getSecurity().getAuthentication().getJwt();
+        this.retentionInSeconds = Math.max(jwt.getTokenValidityInSeconds(), jwt.getTokenValidityInSecondsForRememberMe());
+    }
+
+    /**
+     * Check if a token is revoked.
+     *
+     * @param jti the {@code jti} claim of the token, may be null.
+     * @param login the subject of the token.
+     * @param issuedAt the {@code iat} claim of the token, may be null.
+     * @return true if the token, or all the tokens of its subject issued before its {@code iat}, have been revoked.
+     */
+    public boolean isRevoked(String jti, String login, Date issuedAt) {
+        Snapshot current = snapshot();
+        if (jti != null && current.bloomFilter.mightContain(JTI_SEED, jti) && current.jtis.contains(jti)) {
+            return true;
+        }
+        if (login != null && current.bloomFilter.mightContain(LOGIN_SEED, login)) {
+            Instant issuedBefore = current.logins.get(login);
+            return issuedBefore != null && (issuedAt == null || issuedAt.toInstant().isBefore(issuedBefore));
+        }
+        return false;
+    }
+
+    /**
+     * Revoke a single token.
+     *
+     * @param jti the {@code jti} claim of the token.
+     * @param expiration the expiration of the token, after which the revocation is useless.
+     */
+    public void revokeToken(String jti, Instant expiration) {
+        TokenRevocation tokenRevocation = new TokenRevocation();
+        tokenRevocation.setJti(jti);
+        tokenRevocation.setRevocationDate(Instant.now());
+        tokenRevocation.setExpirationDate(expiration);
+        save(tokenRevocation);
+    }
+
+    /**
+     * Revoke all the tokens issued to a user until now.
+     * <p>
+     * As the {@code iat} claim has a precision of one second, tokens issued in the same second are not revoked, so
+     * that the token issued along with the revocation, on login or on a password change, stays valid.
+     *
+     * @param login the login of the user.
+     */
+    public void revokeAllTokens(String login) {
+        Instant now = Instant.now();
+        TokenRevocation tokenRevocation = new TokenRevocation();
+        tokenRevocation.setLogin(login);
+        tokenRevocation.setIssuedBefore(now.truncatedTo(ChronoUnit.SECONDS));
+        tokenRevocation.setRevocationDate(now);
+        tokenRevocation.setExpirationDate(now.plusSeconds(retentionInSeconds));
+        save(tokenRevocation);
+    }
+
+    /**
+     * @return a counter incremented each time a token gets revoked, so that authentications cached by the
+     * {@link TokenProvider} can be discarded. Revocations are loaded first, so that loading them on first use does
+     * not change the version.
+     */
+    public long getVersion() {
+        snapshot();
+        return version.get();
+    }
+
+    /**
+     * Apply the revocations made by other nodes.
+     */
+    @Scheduled(fixedDelay = 10000, initialDelay = 10000)
+    public synchronized void poll() {
+        Snapshot current = snapshot;
+        if (current == null) {
+            // Not loaded yet: it will be on first use
+            return;
+        }
+        if (current.size.get() > current.capacity) {
+            log.warn("More than {} token revocations, rebuilding the Bloom filter", current.capacity);
+            load();
+            return;
+        }
+        Instant now = Instant.now();
+        for (TokenRevocation tokenRevocation : tokenRevocationRepository
+            .findAllByRevocationDateAfterAndExpirationDateAfter(lastPoll.minusSeconds(POLL_OVERLAP_SECONDS), now)) {
+            apply(current, tokenRevocation);
+        }
+        lastPoll = now;
+    }
+
+    /**
+     * Expired revocations should be automatically deleted, and the in-memory store rebuilt without them.
+     * <p>
+     * This is scheduled to get fired everyday, at 01:30 (am).
+     */
+    @Scheduled(cron = "0 30 1 * * ?")
+    public synchronized void removeExpiredRevocations() {
+        int deleted = tokenRevocationRepository.deleteAllByExpirationDateBefore(Instant.now());
+        log.debug("Deleted {} expired token revocations", deleted);
+        if (snapshot != null) {
+            load();
+        }
+    }
+
+    private void save(TokenRevocation tokenRevocation) {
+        // Load the snapshot first, so that it does not include the revocation before its transaction commits
+        snapshot();
+        tokenRevocationRepository.save(tokenRevocation);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            // Other nodes only see the revocation once it commits, and never if it rolls back
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+                @Override
+                public void afterCommit() {
+                    apply(snapshot(), tokenRevocation);
+                    log.debug("Revoked tokens: {}", tokenRevocation);
+                }
+            });
+        } else {
+            apply(snapshot(), tokenRevocation);
+            log.debug("Revoked tokens: {}", tokenRevocation);
+        }
+    }
+
+    private void apply(Snapshot current, TokenRevocation tokenRevocation) {
+        boolean changed = false;
+        if (tokenRevocation.getJti() != null) {
+            current.bloomFilter.put(JTI_SEED, tokenRevocation.getJti());
+            changed = current.jtis.add(tokenRevocation.getJti());
+        }
+        if (tokenRevocation.getLogin() != null && tokenRevocation.getIssuedBefore() != null) {
+            current.bloomFilter.put(LOGIN_SEED, tokenRevocation.getLogin());
+            Instant previous = current.logins.get(tokenRevocation.getLogin());
+            Instant issuedBefore = current.logins.merge(tokenRevocation.getLogin(), tokenRevocation.getIssuedBefore(),
+                (a, b) -> a.isAfter(b) ? a : b);
+            changed |= !issuedBefore.equals(previous);
+        }
+        if (changed) {
+            current.size.incrementAndGet();
+            version.incrementAndGet();
+        }
+    }
+
+    private Snapshot snapshot() {
+        Snapshot current = snapshot;
+        if (current == null) {
+            synchronized (this) {
+                current = snapshot;
+                if (current == null) {
+                    current = load();
+                }
+            }
+        }
+        return current;
+    }
+
+    private synchronized Snapshot load() {
+        Instant now = Instant.now();
+        List<TokenRevocation> tokenRevocations = tokenRevocationRepository.findAllByExpirationDateAfter(now);
+        int capacity = (int) Math.min(Math.max(expectedInsertions, 2L * tokenRevocations.size()), Integer.MAX_VALUE);
+        Snapshot loaded = new Snapshot(new BloomFilter(capacity, falsePositiveProbability), capacity);
+        for (TokenRevocation tokenRevocation : tokenRevocations) {
+            apply(loaded, tokenRevocation);
+        }
+        log.debug("Loaded {} token revocations", loaded.size.get());
+        lastPoll = now;
+        snapshot = loaded;
+        version.incrementAndGet();
+        return loaded;
+    }
+
+    private static final class Snapshot {
+
+        private final BloomFilter bloomFilter;
+
+        private final Set<String> jtis = ConcurrentHashMap.newKeySet();
+
+        private final Map<String, Instant> logins = new ConcurrentHashMap<>();
+
+        private final AtomicInteger size = new AtomicInteger();
+
+        /**
+         * Number of revocations the Bloom filter was sized for.
+         */
+        private final int capacity;
+
+        private Snapshot(BloomFilter bloomFilter, int capacity) {
+            this.bloomFilter = bloomFilter;
+            this.capacity = capacity;
+        }
+    }
+}
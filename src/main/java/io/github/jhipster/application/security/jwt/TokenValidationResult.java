@@ -0,0 +1,74 @@
+package io.github.jhipster.application.security.jwt;
+
+import org.springframework.security.core.Authentication;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Outcome of {@link TokenProvider#parseToken(String)}: either the {@link Authentication} of a valid token,
+ * or the reason why the token was rejected.
+ */
+public final class TokenValidationResult {
+
+    /**
+     * Reasons for rejecting a JWT.
+     */
+    public enum Failure {
+        INVALID_SIGNATURE,
+        MALFORMED,
+        EXPIRED,
+        UNSUPPORTED,
+        INVALID,
+        REVOKED
+    }
+
+    private static final Map<Failure, TokenValidationResult> FAILURES = new EnumMap<>(Failure.class);
+
+    static {
+        for (Failure failure : Failure.values()) {
+            FAILURES.put(failure, new TokenValidationResult(null, failure));
+        }
+    }
+
+    private final Authentication authentication;
+
+    private final Failure failure;
+
+    private TokenValidationResult(Authentication authentication, Failure failure) {
+        this.authentication = authentication;
+        this.failure = failure;
+    }
+
+    static TokenValidationResult valid(Authentication authentication) {
+        return new TokenValidationResult(Objects.requireNonNull(authentication), null);
+    }
+
+    static TokenValidationResult invalid(Failure failure) {
+        return FAILURES.get(failure);
+    }
+
+    public boolean isValid() {
+        return authentication != null;
+    }
+
+    /**
+     * @return the authentication of a valid token, {@code null} otherwise.
+     */
+    public Authentication getAuthentication() {
+        return authentication;
+    }
+
+    /**
+     * @return the reason why the token was rejected, {@code null} for a valid token.
+     */
+    public Failure getFailure() {
+        return failure;
+    }
+
+    @Override
+    public String toString() {
+        return isValid() ? "TokenValidationResult{valid}" : "TokenValidationResult{" + failure + "}";
+    }
+}
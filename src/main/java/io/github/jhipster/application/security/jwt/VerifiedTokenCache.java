@@ -0,0 +1,169 @@
+package io.github.jhipster.application.security.jwt;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import org.springframework.security.core.Authentication;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Bounded cache of already verified JWTs, mapping a SHA-256 digest of the compact token to the
+ * {@link Authentication} built from it.
+ * <p>
+ * Entries never outlive the {@code exp} claim of their token. When the cache is full, expired entries
+ * are purged first, then arbitrary entries are dropped until the cache is back under 90% of its capacity.
+ */
+class VerifiedTokenCache {
+
+    private static final String METRIC_PREFIX = "jwt.cache";
+
+    private static final ThreadLocal<MessageDigest> SHA_256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    });
+
+    private final Map<Digest, Entry> entries = new ConcurrentHashMap<>();
+
+    private final AtomicBoolean evicting = new AtomicBoolean();
+
+    private final int maxEntries;
+
+    private final Counter hits;
+
+    private final Counter misses;
+
+    private final Counter evictions;
+
+    VerifiedTokenCache(int maxEntries, MeterRegistry meterRegistry) {
+        this.maxEntries = maxEntries;
+        this.hits = Counter.builder(METRIC_PREFIX + ".gets").tag("result", "hit")
+            .description("Number of JWTs served from the verified token cache").register(meterRegistry);
+        this.misses = Counter.builder(METRIC_PREFIX + ".gets").tag("result", "miss")
+            .description("Number of JWTs that had to be parsed and verified").register(meterRegistry);
+        this.evictions = Counter.builder(METRIC_PREFIX + ".evictions")
+            .description("Number of entries removed from the verified token cache").register(meterRegistry);
+        Gauge.builder(METRIC_PREFIX + ".size", entries, Map::size)
+            .description("Number of entries in the verified token cache").register(meterRegistry);
+    }
+
+    /**
+     * Get the authentication of an already verified, non-expired token.
+     *
+     * @param token the compact JWT.
+     * @return the cached authentication, or {@code null} if the token is unknown or expired.
+     */
+    Authentication get(String token) {
+        Digest digest = Digest.of(token);
+        Entry entry = entries.get(digest);
+        if (entry == null) {
+            misses.increment();
+            return null;
+        }
+        if (entry.expiresAt <= System.currentTimeMillis()) {
+            if (entries.remove(digest, entry)) {
+                evictions.increment();
+            }
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        return entry.authentication;
+    }
+
+    /**
+     * Cache the authentication of a token which has just been verified.
+     *
+     * @param token          the compact JWT.
+     * @param authentication the authentication built from the token claims.
+     * @param expiresAt      the token expiration, in milliseconds since the epoch.
+     */
+    void put(String token, Authentication authentication, long expiresAt) {
+        if (entries.size() >= maxEntries) {
+            evict();
+        }
+        entries.put(Digest.of(token), new Entry(authentication, expiresAt));
+    }
+
+    void clear() {
+        entries.clear();
+    }
+
+    int size() {
+        return entries.size();
+    }
+
+    private void evict() {
+        if (!evicting.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            long now = System.currentTimeMillis();
+            int target = maxEntries - maxEntries / 10;
+            Iterator<Entry> expired = entries.values().iterator();
+            while (expired.hasNext()) {
+                if (expired.next().expiresAt <= now) {
+                    expired.remove();
+                    evictions.increment();
+                }
+            }
+            Iterator<Digest> any = entries.keySet().iterator();
+            while (entries.size() > target && any.hasNext()) {
+                any.next();
+                any.remove();
+                evictions.increment();
+            }
+        } finally {
+            evicting.set(false);
+        }
+    }
+
+    private static final class Entry {
+
+        private final Authentication authentication;
+
+        private final long expiresAt;
+
+        private Entry(Authentication authentication, long expiresAt) {
+            this.authentication = authentication;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    private static final class Digest {
+
+        private final byte[] bytes;
+
+        private final int hash;
+
+        private Digest(byte[] bytes) {
+            this.bytes = bytes;
+            this.hash = Arrays.hashCode(bytes);
+        }
+
+        static Digest of(String token) {
+            return new Digest(SHA_256.get().digest(token.getBytes(StandardCharsets.US_ASCII)));
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return this == o || (o instanceof Digest && Arrays.equals(bytes, ((Digest) o).bytes));
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
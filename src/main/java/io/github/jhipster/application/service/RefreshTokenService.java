@@ -0,0 +1,188 @@
+package io.github.jhipster.application.service;
+
+import io.github.jhipster.application.domain.RefreshToken;
+import io.github.jhipster.application.domain.User;
+import io.github.jhipster.application.repository.RefreshTokenRepository;
+import io.github.jhipster.application.repository.UserRepository;
+import io.github.jhipster.application.security.InvalidRefreshTokenException;
+import io.github.jhipster.application.security.jwt.TokenRevocationStore;
+import io.github.jhipster.application.service.util.RandomUtil;
+import io.github.jhipster.config.JHipsterProperties;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Service class for managing the rotating refresh tokens.
+ */
+@Service
+@Transactional
+public class RefreshTokenService {
+
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    private final Logger log = LoggerFactory.getLogger(RefreshTokenService.class);
+
+    private final RefreshTokenRepository refreshTokenRepository;
+
+    private final UserRepository userRepository;
+
+    private final TokenRevocationStore tokenRevocationStore;
+
+    private final long validityInSeconds;
+
+    private final long validityInSecondsForRememberMe;
+
+    public RefreshTokenService(RefreshTokenRepository refreshTokenRepository, UserRepository userRepository,
+                               TokenRevocationStore tokenRevocationStore, JHipsterProperties jHipsterProperties) {
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.userRepository = userRepository;
+        this.tokenRevocationStore = tokenRevocationStore;
+        JHipsterProperties.Security.Authentication.Jwt jwt = jHipsterProperties.getSecurity().getAuthentication().getJwt();
+        this.validityInSeconds = jwt.getTokenValidityInSeconds();
+        this.validityInSecondsForRememberMe = jwt.getTokenValidityInSecondsForRememberMe();
+    }
+
+    /**
+     * Create the first refresh token of a new family, when a user authenticates with a password.
+     * <p>
+     * The family expires after the validity the JWT would have had without a refresh token.
+     *
+     * @param login the login of the user.
+     * @param rememberMe whether the user asked to be remembered.
+     * @return the refresh token.
+     */
+    public String createRefreshToken(String login, boolean rememberMe) {
+        long validity = rememberMe ? validityInSecondsForRememberMe : validityInSeconds;
+        return save(UUID.randomUUID().toString(), login, rememberMe, Instant.now().plusSeconds(validity));
+    }
+
+    /**
+     * Replace a refresh token by a new one of the same family.
+     * <p>
+     * A refresh token can only be used once: presenting it again means it leaked, so its whole family is deleted,
+     * and all the JWTs of its user are revoked.
+     * <p>
+     * The token is not used up when its user was deleted or deactivated since it was issued.
+     *
+     * @param refreshToken the refresh token.
+     * @return the new refresh token, and the user it was issued to.
+     * @throws InvalidRefreshTokenException if the token is unknown, expired, or was already used, or if its user
+     * no longer exists or is not activated.
+     */
+    @Transactional(noRollbackFor = InvalidRefreshTokenException.class)
+    public Rotation rotate(String refreshToken) {
+        RefreshToken existing = refreshTokenRepository.findOneByTokenHash(hash(refreshToken))
+            .orElseThrow(() -> new InvalidRefreshTokenException("Unknown refresh token"));
+        Instant now = Instant.now();
+        if (!existing.getExpirationDate().isAfter(now)) {
+            throw new InvalidRefreshTokenException("Expired refresh token");
+        }
+        if (!userRepository.findOneByLogin(existing.getLogin()).map(User::getActivated).orElse(false)) {
+            throw new InvalidRefreshTokenException("Refresh token of a deleted or not activated user");
+        }
+        if (refreshTokenRepository.markReplaced(existing.getId(), now) == 0) {
+            log.warn("Reuse of a refresh token of user {}, revoking its sessions", existing.getLogin());
+            refreshTokenRepository.deleteAllByFamily(existing.getFamily());
+            tokenRevocationStore.revokeAllTokens(existing.getLogin());
+            throw new InvalidRefreshTokenException("Reused refresh token");
+        }
+        String token = save(existing.getFamily(), existing.getLogin(), existing.isRememberMe(), existing.getExpirationDate());
+        return new Rotation(token, existing.getLogin(), existing.isRememberMe());
+    }
+
+    /**
+     * Revoke a refresh token, and all the tokens of its family.
+     *
+     * @param refreshToken the refresh token.
+     */
+    public void revokeRefreshToken(String refreshToken) {
+        refreshTokenRepository.findOneByTokenHash(hash(refreshToken))
+            .ifPresent(existing -> refreshTokenRepository.deleteAllByFamily(existing.getFamily()));
+    }
+
+    /**
+     * Revoke all the refresh tokens of a user.
+     *
+     * @param login the login of the user.
+     */
+    public void revokeAllRefreshTokens(String login) {
+        refreshTokenRepository.deleteAllByLogin(login);
+    }
+
+    /**
+     * Expired refresh tokens should be automatically deleted.
+     * <p>
+     * This is scheduled to get fired everyday, at 01:45 (am).
+     */
+    @Scheduled(cron = "0 45 1 * * ?")
+    public void removeExpiredRefreshTokens() {
+        int deleted = refreshTokenRepository.deleteAllByExpirationDateBefore(Instant.now());
+        log.debug("Deleted {} expired refresh tokens", deleted);
+    }
+
+    private String save(String family, String login, boolean rememberMe, Instant expirationDate) {
+        String token = RandomUtil.generateRefreshToken();
+        RefreshToken refreshToken = new RefreshToken();
+        refreshToken.setTokenHash(hash(token));
+        refreshToken.setFamily(family);
+        refreshToken.setLogin(login);
+        refreshToken.setRememberMe(rememberMe);
+        refreshToken.setExpirationDate(expirationDate);
+        refreshTokenRepository.save(refreshToken);
+        return token;
+    }
+
+    private static String hash(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            char[] hex = new char[digest.length * 2];
+            for (int i = 0; i < digest.length; i++) {
+                hex[i * 2] = HEX[(digest[i] >> 4) & 0xf];
+                hex[i * 2 + 1] = HEX[digest[i] & 0xf];
+            }
+            return new String(hex);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * The outcome of a refresh token rotation.
+     */
+    public static final class Rotation {
+
+        private final String refreshToken;
+
+        private final String login;
+
+        private final boolean rememberMe;
+
+        private Rotation(String refreshToken, String login, boolean rememberMe) {
+            this.refreshToken = refreshToken;
+            this.login = login;
+            this.rememberMe = rememberMe;
+        }
+
+        public String getRefreshToken() {
+            return refreshToken;
+        }
+
+        public String getLogin() {
+            return login;
+        }
+
+        public boolean isRememberMe() {
+            return rememberMe;
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package io.github.jhipster.application.service;
+
+import io.github.jhipster.application.config.Constants;
+import io.github.jhipster.application.domain.User;
+import io.github.jhipster.application.repository.UserRepository;
+import io.github.jhipster.application.service.dto.UserDTO;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.stream.Stream;
+
+/**
+ * Service exporting all the managed users, as NDJSON or CSV.
+ * <p>
+ * Users are streamed by id from a forward-only cursor, and written by chunks of
+ * {@link UserRepository#STREAM_FETCH_SIZE}: the authorities of a chunk are fetched by a single query, then the
+ * chunk is written, flushed and detached from the persistence context, so that the memory used does not grow with
+ * the number of users. An interrupted export is resumed after the id of the last user received.
+ */
+@Service
+@Transactional(readOnly = true)
+public class UserExportService {
+
+    private static final String[] CSV_HEADER = {"id", "login", "firstName", "lastName", "email", "imageUrl", "activated",
+        "langKey", "createdBy", "createdDate", "lastModifiedBy", "lastModifiedDate", "authorities"};
+
+    private final Logger log = LoggerFactory.getLogger(UserExportService.class);
+
+    private final UserRepository userRepository;
+
+    private final EntityManager entityManager;
+
+    private final ObjectWriter jsonWriter;
+
+    public UserExportService(UserRepository userRepository, EntityManager entityManager, ObjectMapper objectMapper) {
+        this.userRepository = userRepository;
+        this.entityManager = entityManager;
+        this.jsonWriter = objectMapper.writerFor(UserDTO.class);
+    }
+
+    /**
+     * Export the managed users, sorted by id.
+     *
+     * @param format the export format.
+     * @param afterId the id of the last user already exported, to resume an export, or {@code null}.
+     * @param out the stream to write to, left open.
+     * @return the number of users exported.
+     * @throws IOException if the users could not be written.
+     */
+    public long export(UserFileFormat format, Long afterId, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        if (format == UserFileFormat.CSV && afterId == null) {
+            writeCsv(writer, CSV_HEADER);
+        }
+        long count = 0;
+        List<User> chunk = new ArrayList<>(UserRepository.STREAM_FETCH_SIZE);
+        try (Stream<User> users = userRepository.streamAllByLoginNotAndIdGreaterThanOrderByIdAsc(Constants.ANONYMOUS_USER,
+            afterId != null ? afterId : Long.MIN_VALUE)) {
+            Iterator<User> iterator = users.iterator();
+            while (iterator.hasNext()) {
+                chunk.add(iterator.next());
+                if (chunk.size() == UserRepository.STREAM_FETCH_SIZE || !iterator.hasNext()) {
+                    count += writeChunk(format, chunk, writer);
+                    chunk.clear();
+                }
+            }
+        }
+        writer.flush();
+        log.debug("Exported {} users as {}", count, format);
+        return count;
+    }
+
+    private int writeChunk(UserFileFormat format, List<User> chunk, Writer writer) throws IOException {
+        Map<Long, Set<String>> authorities = new HashMap<>();
+        List<Long> ids = new ArrayList<>(chunk.size());
+        chunk.forEach(user -> ids.add(user.getId()));
+        for (Object[] authority : userRepository.findAuthorityNamesByIdIn(ids)) {
+            authorities.computeIfAbsent((Long) authority[0], id -> new TreeSet<>()).add((String) authority[1]);
+        }
+        for (User user : chunk) {
+            UserDTO userDTO = toUserDTO(user, authorities.getOrDefault(user.getId(), Collections.emptySet()));
+            if (format == UserFileFormat.NDJSON) {
+                writer.write(jsonWriter.writeValueAsString(userDTO));
+                writer.write('\n');
+            } else {
+                writeCsv(writer, String.valueOf(userDTO.getId()), userDTO.getLogin(), userDTO.getFirstName(),
+                    userDTO.getLastName(), userDTO.getEmail(), userDTO.getImageUrl(), String.valueOf(userDTO.isActivated()),
+                    userDTO.getLangKey(), userDTO.getCreatedBy(), Objects.toString(userDTO.getCreatedDate(), null),
+                    userDTO.getLastModifiedBy(), Objects.toString(userDTO.getLastModifiedDate(), null),
+                    String.join(";", userDTO.getAuthorities()));
+            }
+        }
+        writer.flush();
+        // The users are written: keep the persistence context from growing with the export
+        entityManager.clear();
+        return chunk.size();
+    }
+
+    /**
+     * Unlike {@link UserDTO#UserDTO(User)}, does not load the authorities of the user.
+     */
+    private static UserDTO toUserDTO(User user, Set<String> authorities) {
+        UserDTO userDTO = new UserDTO();
+        userDTO.setId(user.getId());
+        userDTO.setLogin(user.getLogin());
+        userDTO.setFirstName(user.getFirstName());
+        userDTO.setLastName(user.getLastName());
+        userDTO.setEmail(user.getEmail());
+        userDTO.setImageUrl(user.getImageUrl());
+        userDTO.setActivated(user.getActivated());
+        userDTO.setLangKey(user.getLangKey());
+        userDTO.setCreatedBy(user.getCreatedBy());
+        userDTO.setCreatedDate(user.getCreatedDate());
+        userDTO.setLastModifiedBy(user.getLastModifiedBy());
+        userDTO.setLastModifiedDate(user.getLastModifiedDate());
+        userDTO.setAuthorities(authorities);
+        return userDTO;
+    }
+
+    private static void writeCsv(Writer writer, String... values) throws IOException {
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            String value = values[i];
+            if (value == null) {
+                continue;
+            }
+            if (value.indexOf(',') >= 0 || value.indexOf('"') >= 0 || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0) {
+                writer.write('"');
+                writer.write(value.replace("\"", "\"\""));
+                writer.write('"');
+            } else {
+                writer.write(value);
+            }
+        }
+        writer.write("\r\n");
+    }
+}
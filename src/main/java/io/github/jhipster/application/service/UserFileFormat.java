@@ -0,0 +1,18 @@
+package io.github.jhipster.application.service;
+
+/**
+ * Formats of the user files exported and imported: one JSON {@code UserDTO} per line, or CSV with a header line.
+ */
+public enum UserFileFormat {
+    NDJSON("application/x-ndjson"), CSV("text/csv");
+
+    private final String contentType;
+
+    UserFileFormat(String contentType) {
+        this.contentType = contentType;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+}
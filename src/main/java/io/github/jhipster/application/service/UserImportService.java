@@ -0,0 +1,418 @@
+package io.github.jhipster.application.service;
+
+import io.github.jhipster.application.config.ApplicationProperties;
+import io.github.jhipster.application.config.Constants;
+import io.github.jhipster.application.domain.Authority;
+import io.github.jhipster.application.domain.User;
+import io.github.jhipster.application.repository.AuthorityRepository;
+import io.github.jhipster.application.repository.UserRepository;
+import io.github.jhipster.application.security.BoundedPasswordEncoder;
+import io.github.jhipster.application.security.DomainUserDetailsService;
+import io.github.jhipster.application.service.cache.CacheEviction;
+import io.github.jhipster.application.service.cache.CacheInvalidationService;
+import io.github.jhipster.application.service.dto.UserDTO;
+import io.github.jhipster.application.service.dto.UserImportReportDTO;
+import io.github.jhipster.application.service.util.CsvReader;
+import io.github.jhipster.application.service.util.RandomUtil;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+import javax.validation.ConstraintViolation;
+import javax.validation.Validator;
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.stream.Collectors;
+
+/**
+ * Service importing users in bulk, from NDJSON or CSV.
+ * <p>
+ * Rows are read and validated one at a time, then imported by batches of {@code application.user-import.batch-size}
+ * users, each in its own transaction: their passwords are hashed concurrently, they are inserted with JDBC batches, as
+ * their ids come from a pooled sequence, and their cache entries evicted at once. Authorities are resolved once per import.
+ * When a batch fails, its users are imported again one at a time, so that only the failing rows are rejected.
+ * <p>
+ * Passwords are hashed with the same cost as those of logins, but by {@code application.user-import.hashing-parallelism}
+ * threads of their own, which the importing thread joins when they are busy: an import is slowed down by hashing
+ * rather than rejected by the bounded pool of logins, and does not take it over.
+ * <p>
+ * As with {@link UserService#createUser(UserDTO)}, imported users are activated with a random password, and a reset
+ * key to choose theirs. Invalid rows, and rows whose login or email is already used, are rejected and reported while
+ * the other rows are imported.
+ * <p>
+ * The number of rows imported and rejected are counted by the {@code users.import.rows} counters, and the duration
+ * of the imports recorded by the {@code users.import} timer.
+ */
+@Service
+public class UserImportService implements DisposableBean {
+
+    private static final String[] CSV_COLUMNS = {"login", "firstName", "lastName", "email", "imageUrl", "langKey", "authorities"};
+
+    private final Logger log = LoggerFactory.getLogger(UserImportService.class);
+
+    private final UserRepository userRepository;
+
+    private final EntityManager entityManager;
+
+    private final AuthorityRepository authorityRepository;
+
+    private final PasswordEncoder passwordEncoder;
+
+    private final CacheInvalidationService cacheInvalidationService;
+
+    private final Validator validator;
+
+    private final ObjectReader jsonReader;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final ApplicationProperties.UserImport properties;
+
+    private final ThreadPoolExecutor hashingExecutor;
+
+    private final Timer importTimer;
+
+    private final Counter importedRows;
+
+    private final Counter rejectedRows;
+
+    public UserImportService(UserRepository userRepository, EntityManager entityManager, AuthorityRepository authorityRepository,
+                             BoundedPasswordEncoder passwordEncoder,
+                             CacheInvalidationService cacheInvalidationService, Validator validator, ObjectMapper objectMapper,
+                             PlatformTransactionManager transactionManager, ApplicationProperties applicationProperties,
+                             MeterRegistry meterRegistry) {
+        this.userRepository = userRepository;
+        this.entityManager = entityManager;
+        this.authorityRepository = authorityRepository;
+        this.passwordEncoder = passwordEncoder.getDelegate();
+        this.cacheInvalidationService = cacheInvalidationService;
+        this.validator = validator;
+        this.jsonReader = objectMapper.readerFor(UserDTO.class);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.properties = applicationProperties.getUserImport();
+        int threads = Math.max(properties.getHashingParallelism(), 1);
+        // Beyond a batch of waiting hashings, the importing thread hashes too
+        this.hashingExecutor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(Math.max(properties.getBatchSize(), 1)), new CustomizableThreadFactory("user-import-"),
+            new ThreadPoolExecutor.CallerRunsPolicy());
+        this.importTimer = Timer.builder("users.import")
+            .description("Time spent importing users").register(meterRegistry);
+        this.importedRows = Counter.builder("users.import.rows").tag("result", "imported")
+            .description("Rows of the user imports").register(meterRegistry);
+        this.rejectedRows = Counter.builder("users.import.rows").tag("result", "rejected")
+            .description("Rows of the user imports").register(meterRegistry);
+    }
+
+    /**
+     * Import users.
+     * <p>
+     * CSV files have a header line naming their columns: {@code login} is required, and {@code firstName},
+     * {@code lastName}, {@code email}, {@code imageUrl}, {@code langKey} and {@code authorities}, separated by
+     * semicolons, are optional. Other columns are ignored, so that exported files can be imported.
+     *
+     * @param format the format of the users.
+     * @param in the stream to read the users from, left open.
+     * @return the report of the import.
+     * @throws IOException if the users could not be read.
+     */
+    public UserImportReportDTO importUsers(UserFileFormat format, InputStream in) throws IOException {
+        long start = System.nanoTime();
+        Import userImport = new Import(authorityRepository.findAll().stream()
+            .collect(Collectors.toMap(Authority::getName, authority -> authority)));
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        skipByteOrderMark(reader);
+        if (format == UserFileFormat.CSV) {
+            readCsv(reader, userImport);
+        } else {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.trim().isEmpty()) {
+                    continue;
+                }
+                long row = ++userImport.rows;
+                try {
+                    userImport.add(row, jsonReader.readValue(line));
+                } catch (JsonProcessingException e) {
+                    userImport.reject(row, null, "Invalid JSON: " + e.getOriginalMessage());
+                }
+            }
+        }
+        userImport.flush();
+        long duration = System.nanoTime() - start;
+        importTimer.record(duration, TimeUnit.NANOSECONDS);
+        UserImportReportDTO report = userImport.report;
+        // Rows are rejected when read, or when their batch is imported
+        report.getErrors().sort(Comparator.comparingLong(UserImportReportDTO.RowError::getRow));
+        report.setDurationInMs(TimeUnit.NANOSECONDS.toMillis(duration));
+        report.setUsersPerSecond(report.getImported() * 1e9 / Math.max(duration, 1));
+        log.info("Imported {} users, rejected {} rows, in {} ms", report.getImported(), report.getRejected(), report.getDurationInMs());
+        return report;
+    }
+
+    /**
+     * Skip the UTF-8 byte order mark which spreadsheet applications write, and which would be read as part of the first column.
+     */
+    private static void skipByteOrderMark(BufferedReader reader) throws IOException {
+        reader.mark(1);
+        if (reader.read() != '\uFEFF') {
+            reader.reset();
+        }
+    }
+
+    private void readCsv(BufferedReader reader, Import userImport) throws IOException {
+        CsvReader csv = new CsvReader(reader);
+        List<String> header = csv.readRecord();
+        Map<String, Integer> columns = new HashMap<>();
+        if (header != null) {
+            for (String column : CSV_COLUMNS) {
+                if (header.contains(column)) {
+                    columns.put(column, header.indexOf(column));
+                }
+            }
+        }
+        if (!columns.containsKey("login")) {
+            throw new IOException("The CSV header has no login column");
+        }
+        List<String> record;
+        while ((record = csv.readRecord()) != null) {
+            if (record.size() == 1 && record.get(0).isEmpty()) {
+                continue;
+            }
+            long row = ++userImport.rows;
+            UserDTO userDTO = new UserDTO();
+            userDTO.setLogin(field(record, columns, "login"));
+            userDTO.setFirstName(field(record, columns, "firstName"));
+            userDTO.setLastName(field(record, columns, "lastName"));
+            userDTO.setEmail(field(record, columns, "email"));
+            userDTO.setImageUrl(field(record, columns, "imageUrl"));
+            userDTO.setLangKey(field(record, columns, "langKey"));
+            String authorities = field(record, columns, "authorities");
+            if (authorities != null) {
+                userDTO.setAuthorities(new HashSet<>(Arrays.asList(authorities.split(";"))));
+            }
+            userImport.add(row, userDTO);
+        }
+    }
+
+    private static String field(List<String> record, Map<String, Integer> columns, String column) {
+        Integer index = columns.get(column);
+        if (index == null || index >= record.size() || record.get(index).isEmpty()) {
+            return null;
+        }
+        return record.get(index);
+    }
+
+    @Override
+    public void destroy() {
+        hashingExecutor.shutdown();
+    }
+
+    /**
+     * The state of an import: the rows of the current batch, and the logins and emails of the previous rows.
+     */
+    private final class Import {
+
+        private final Map<String, Authority> authorities;
+
+        private final UserImportReportDTO report = new UserImportReportDTO();
+
+        private final Map<Long, User> batch = new LinkedHashMap<>();
+
+        private final Set<String> logins = new HashSet<>();
+
+        private final Set<String> emails = new HashSet<>();
+
+        private long rows;
+
+        private Import(Map<String, Authority> authorities) {
+            this.authorities = authorities;
+        }
+
+        private void add(long row, UserDTO userDTO) {
+            String login = userDTO.getLogin() != null ? userDTO.getLogin().toLowerCase(Locale.ENGLISH) : null;
+            Set<ConstraintViolation<UserDTO>> violations = validator.validate(userDTO);
+            if (!violations.isEmpty()) {
+                reject(row, login, violations.stream()
+                    .map(violation -> violation.getPropertyPath() + " " + violation.getMessage())
+                    .sorted()
+                    .collect(Collectors.joining(", ")));
+                return;
+            }
+            String email = userDTO.getEmail() != null ? userDTO.getEmail().toLowerCase(Locale.ENGLISH) : null;
+            Set<String> authorityNames = userDTO.getAuthorities() != null ? userDTO.getAuthorities() : Collections.emptySet();
+            Optional<String> unknownAuthority = authorityNames.stream().filter(name -> !authorities.containsKey(name)).findFirst();
+            if (unknownAuthority.isPresent()) {
+                reject(row, login, "Unknown authority " + unknownAuthority.get());
+                return;
+            }
+            if (!logins.add(login)) {
+                reject(row, login, "Login already used in the file");
+                return;
+            }
+            if (email != null && !emails.add(email)) {
+                reject(row, login, "Email already used in the file");
+                return;
+            }
+            User user = new User();
+            user.setLogin(login);
+            user.setFirstName(userDTO.getFirstName());
+            user.setLastName(userDTO.getLastName());
+            user.setEmail(email);
+            user.setImageUrl(userDTO.getImageUrl());
+            user.setLangKey(userDTO.getLangKey() != null ? userDTO.getLangKey() : Constants.DEFAULT_LANGUAGE);
+            user.setAuthorities(authorityNames.stream().map(authorities::get).collect(Collectors.toSet()));
+            batch.put(row, user);
+            if (batch.size() >= properties.getBatchSize()) {
+                flush();
+            }
+        }
+
+        private void reject(long row, String login, String message) {
+            report.setRejected(report.getRejected() + 1);
+            rejectedRows.increment();
+            if (report.getErrors().size() < properties.getMaxErrors()) {
+                report.getErrors().add(new UserImportReportDTO.RowError(row, login, message));
+            } else {
+                report.setErrorsTruncated(true);
+            }
+        }
+
+        /**
+         * Import the users of the current batch.
+         */
+        private void flush() {
+            if (batch.isEmpty()) {
+                return;
+            }
+            rejectExisting();
+            Map<Long, Future<String>> passwords = new LinkedHashMap<>();
+            batch.forEach((row, user) -> passwords.put(row,
+                hashingExecutor.submit(() -> passwordEncoder.encode(RandomUtil.generatePassword()))));
+            Instant now = Instant.now();
+            Map<Long, User> hashed = new LinkedHashMap<>();
+            passwords.forEach((row, password) -> {
+                User user = batch.get(row);
+                try {
+                    user.setPassword(password.get());
+                } catch (ExecutionException e) {
+                    reject(row, user.getLogin(), "Password hashing failed: " + e.getCause().getMessage());
+                    return;
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    reject(row, user.getLogin(), "Interrupted");
+                    return;
+                }
+                user.setActivated(true);
+                user.setResetKey(RandomUtil.generateResetKey());
+                user.setResetDate(now);
+                hashed.put(row, user);
+            });
+            List<User> users = new ArrayList<>(hashed.values());
+            try {
+                save(users);
+                imported(users);
+            } catch (DataAccessException | TransactionException e) {
+                log.debug("Batch of {} users failed, importing them one at a time: {}", users.size(), e.getMessage());
+                importOneByOne(hashed);
+            }
+            batch.clear();
+        }
+
+        /**
+         * Import the users of a failed batch one per transaction, to only reject the rows which fail.
+         */
+        private void importOneByOne(Map<Long, User> users) {
+            List<User> imported = new ArrayList<>();
+            users.forEach((row, user) -> {
+                // The rolled back batch left the ids it was given
+                user.setId(null);
+                try {
+                    save(Collections.singletonList(user));
+                    imported.add(user);
+                } catch (DataAccessException | TransactionException e) {
+                    reject(row, user.getLogin(), "Import failed: " + NestedExceptionUtils.getMostSpecificCause(e).getMessage());
+                }
+            });
+            if (!imported.isEmpty()) {
+                imported(imported);
+            }
+        }
+
+        private void save(List<User> users) {
+            transactionTemplate.execute(status -> {
+                // The imported users are not read right away: keep them out of the second-level cache
+                entityManager.unwrap(Session.class).setCacheMode(CacheMode.IGNORE);
+                userRepository.saveAll(users);
+                userRepository.flush();
+                return null;
+            });
+        }
+
+        private void imported(List<User> users) {
+            report.setImported(report.getImported() + users.size());
+            importedRows.increment(users.size());
+            clearUserCaches(users);
+        }
+
+        private void rejectExisting() {
+            Set<String> existingLogins = userRepository.findLoginsByLoginIn(
+                batch.values().stream().map(User::getLogin).collect(Collectors.toList()));
+            List<String> batchEmails = batch.values().stream().map(User::getEmail).filter(Objects::nonNull).collect(Collectors.toList());
+            Set<String> existingEmails = batchEmails.isEmpty() ? Collections.emptySet() :
+                userRepository.findEmailsByEmailIgnoreCaseIn(batchEmails);
+            batch.entrySet().removeIf(entry -> {
+                User user = entry.getValue();
+                if (existingLogins.contains(user.getLogin())) {
+                    reject(entry.getKey(), user.getLogin(), "Login already used");
+                    return true;
+                }
+                if (user.getEmail() != null && existingEmails.contains(user.getEmail())) {
+                    reject(entry.getKey(), user.getLogin(), "Email already used");
+                    return true;
+                }
+                return false;
+            });
+        }
+    }
+
+    /**
+     * Evict the cache entries of the new users, which may hold their login or email as unknown, and the cached
+     * pages of users: the inserts only invalidate the Hibernate query cache of this node.
+     */
+    private void clearUserCaches(List<User> users) {
+        List<CacheEviction> evictions = new ArrayList<>();
+        for (User user : users) {
+            evictions.add(CacheEviction.of(UserRepository.USERS_BY_LOGIN_CACHE, user.getLogin()));
+            evictions.add(CacheEviction.of(DomainUserDetailsService.USER_DETAILS_CACHE, user.getLogin()));
+            evictions.add(CacheEviction.of(UserRepository.UNKNOWN_USERS_CACHE, UserRepository.unknownLoginKey(user.getLogin())));
+            if (user.getEmail() != null) {
+                evictions.add(CacheEviction.of(UserRepository.USERS_BY_EMAIL_CACHE, user.getEmail()));
+                evictions.add(CacheEviction.of(DomainUserDetailsService.USER_DETAILS_CACHE, user.getEmail()));
+                evictions.add(CacheEviction.of(UserRepository.UNKNOWN_USERS_CACHE, UserRepository.unknownEmailKey(user.getEmail())));
+            }
+        }
+        evictions.add(CacheEviction.clear(UserRepository.MANAGED_USERS_QUERY_CACHE));
+        cacheInvalidationService.invalidate(evictions);
+    }
+}
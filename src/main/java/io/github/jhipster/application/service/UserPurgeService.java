@@ -0,0 +1,151 @@
+package io.github.jhipster.application.service;
+
+import io.github.jhipster.application.config.ApplicationProperties;
+import io.github.jhipster.application.domain.User;
+import io.github.jhipster.application.repository.UserRepository;
+import io.github.jhipster.application.security.DomainUserDetailsService;
+import io.github.jhipster.application.service.cache.CacheEviction;
+import io.github.jhipster.application.service.cache.CacheInvalidationService;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Service purging the users which were not activated within 3 days of their registration.
+ * <p>
+ * Users are deleted by chunks of {@code application.user-purge.chunk-size}, each in its own transaction: the id,
+ * login and email of the next chunk are read by id, then its users and their authorities deleted by two statements
+ * over its range of ids, and their cache entries evicted at once. A chunk only locks its own rows, for a bounded
+ * time, and a failed purge keeps the chunks it deleted. A purge stops after
+ * {@code application.user-purge.max-duration-in-seconds}: as deleted users are gone, the next purge resumes with the
+ * remaining ones.
+ * <p>
+ * The number of users deleted is counted by the {@code users.purge.deleted} counter, and the duration of the purges
+ * recorded by the {@code users.purge} timer.
+ */
+@Service
+public class UserPurgeService {
+
+    private final Logger log = LoggerFactory.getLogger(UserPurgeService.class);
+
+    private final UserRepository userRepository;
+
+    private final CacheInvalidationService cacheInvalidationService;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final ApplicationProperties.UserPurge properties;
+
+    private final Timer purgeTimer;
+
+    private final Counter deletedUsers;
+
+    public UserPurgeService(UserRepository userRepository, CacheInvalidationService cacheInvalidationService,
+                            PlatformTransactionManager transactionManager, ApplicationProperties applicationProperties,
+                            MeterRegistry meterRegistry) {
+        this.userRepository = userRepository;
+        this.cacheInvalidationService = cacheInvalidationService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.properties = applicationProperties.getUserPurge();
+        this.purgeTimer = Timer.builder("users.purge")
+            .description("Time spent purging not activated users").register(meterRegistry);
+        this.deletedUsers = Counter.builder("users.purge.deleted")
+            .description("Not activated users deleted by the purges").register(meterRegistry);
+    }
+
+    /**
+     * Not activated users should be automatically deleted after 3 days.
+     * <p>
+     * This is scheduled to get fired everyday, at 01:00 (am).
+     */
+    @Scheduled(cron = "0 0 1 * * ?")
+    public void removeNotActivatedUsers() {
+        purgeNotActivatedUsers(Instant.now().minus(3, ChronoUnit.DAYS), properties.getChunkSize());
+    }
+
+    /**
+     * Delete the not activated users created before a date, by chunks.
+     *
+     * @param createdBefore the creation date before which users are deleted.
+     * @param chunkSize the number of users deleted per transaction.
+     * @return the number of users deleted.
+     */
+    int purgeNotActivatedUsers(Instant createdBefore, int chunkSize) {
+        long start = System.nanoTime();
+        long deadline = properties.getMaxDurationInSeconds() > 0 ?
+            start + TimeUnit.SECONDS.toNanos(properties.getMaxDurationInSeconds()) : Long.MAX_VALUE;
+        PageRequest chunk = PageRequest.of(0, Math.max(chunkSize, 1));
+        long lastId = 0;
+        int deleted = 0;
+        boolean complete = false;
+        while (System.nanoTime() < deadline) {
+            long fromId = lastId;
+            List<Object[]> users = userRepository.findNotActivatedByCreatedDateBeforeAndIdGreaterThan(createdBefore, fromId, chunk);
+            if (users.isEmpty()) {
+                complete = true;
+                break;
+            }
+            lastId = (Long) users.get(users.size() - 1)[0];
+            Long firstId = (Long) users.get(0)[0];
+            Long toId = lastId;
+            Integer count = transactionTemplate.execute(status -> {
+                int chunkDeleted = userRepository.deleteNotActivatedByCreatedDateBeforeAndIdBetween(createdBefore, firstId, toId);
+                clearUserCaches(users);
+                return chunkDeleted;
+            });
+            deleted += count;
+            deletedUsers.increment(count);
+            log.debug("Deleted {} not activated users, up to id {}", count, toId);
+            if (users.size() < chunk.getPageSize()) {
+                complete = true;
+                break;
+            }
+        }
+        long duration = System.nanoTime() - start;
+        purgeTimer.record(duration, TimeUnit.NANOSECONDS);
+        if (complete) {
+            log.info("Deleted {} not activated users in {} ms", deleted, TimeUnit.NANOSECONDS.toMillis(duration));
+        } else {
+            log.warn("Deleted {} not activated users in {} ms, up to id {}: the others are left to the next purge",
+                deleted, TimeUnit.NANOSECONDS.toMillis(duration), lastId);
+        }
+        return deleted;
+    }
+
+    /**
+     * Evict the cache entries of a chunk of deleted users, and the cached pages of users: the deletes only
+     * invalidate the Hibernate caches of this node.
+     */
+    private void clearUserCaches(List<Object[]> users) {
+        List<CacheEviction> evictions = new ArrayList<>();
+        for (Object[] user : users) {
+            Long id = (Long) user[0];
+            String login = (String) user[1];
+            String email = (String) user[2];
+            evictions.add(CacheEviction.of(UserRepository.USERS_BY_LOGIN_CACHE, login));
+            evictions.add(CacheEviction.of(DomainUserDetailsService.USER_DETAILS_CACHE, login));
+            if (email != null) {
+                evictions.add(CacheEviction.of(UserRepository.USERS_BY_EMAIL_CACHE, email));
+                evictions.add(CacheEviction.of(DomainUserDetailsService.USER_DETAILS_CACHE, email));
+            }
+            evictions.add(CacheEviction.of(User.class.getName(), id));
+            evictions.add(CacheEviction.of(User.class.getName() + ".authorities", id));
+        }
+        evictions.add(CacheEviction.clear(UserRepository.MANAGED_USERS_QUERY_CACHE));
+        cacheInvalidationService.invalidate(evictions);
+    }
+}
@@ -3,26 +3,31 @@ package io.github.jhipster.application.service;
 import io.github.jhipster.application.config.Constants;
 import io.github.jhipster.application.domain.Authority;
 import io.github.jhipster.application.domain.User;
+import io.github.jhipster.application.domain.UserSnapshot;
 import io.github.jhipster.application.repository.AuthorityRepository;
 import io.github.jhipster.application.repository.UserRepository;
 import io.github.jhipster.application.security.AuthoritiesConstants;
+import io.github.jhipster.application.security.DomainUserDetailsService;
 import io.github.jhipster.application.security.SecurityUtils;
+import io.github.jhipster.application.security.jwt.TokenRevocationStore;
+import io.github.jhipster.application.service.cache.CacheEviction;
+import io.github.jhipster.application.service.cache.CacheInvalidationService;
+import io.github.jhipster.application.service.dto.UserCursor;
 import io.github.jhipster.application.service.dto.UserDTO;
 import io.github.jhipster.application.service.util.RandomUtil;
 import io.github.jhipster.application.web.rest.errors.*;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.cache.CacheManager;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
-import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.data.domain.Slice;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.Instant;
-import java.time.temporal.ChronoUnit;
 import java.util.*;
 import java.util.stream.Collectors;
 
@@ -41,13 +46,19 @@ public class UserService {
 
     private final AuthorityRepository authorityRepository;
 
-    private final CacheManager cacheManager;
+    private final CacheInvalidationService cacheInvalidationService;
 
-    public UserService(UserRepository userRepository, PasswordEncoder passwordEncoder, AuthorityRepository authorityRepository, CacheManager cacheManager) {
+    private final TokenRevocationStore tokenRevocationStore;
+
+    private final RefreshTokenService refreshTokenService;
+
+    public UserService(UserRepository userRepository, PasswordEncoder passwordEncoder, AuthorityRepository authorityRepository, CacheInvalidationService cacheInvalidationService, TokenRevocationStore tokenRevocationStore, RefreshTokenService refreshTokenService) {
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
         this.authorityRepository = authorityRepository;
-        this.cacheManager = cacheManager;
+        this.cacheInvalidationService = cacheInvalidationService;
+        this.tokenRevocationStore = tokenRevocationStore;
+        this.refreshTokenService = refreshTokenService;
     }
 
     public Optional<User> activateRegistration(String key) {
@@ -72,6 +83,7 @@ public class UserService {
                 user.setResetKey(null);
                 user.setResetDate(null);
                 this.clearUserCaches(user);
+                this.revokeTokens(user);
                 return user;
             });
     }
@@ -177,6 +189,7 @@ public class UserService {
         SecurityUtils.getCurrentUserLogin()
             .flatMap(userRepository::findOneByLogin)
             .ifPresent(user -> {
+                this.clearUserCaches(user);
                 user.setFirstName(firstName);
                 user.setLastName(lastName);
                 user.setEmail(email.toLowerCase());
@@ -200,6 +213,9 @@ public class UserService {
             .map(Optional::get)
             .map(user -> {
                 this.clearUserCaches(user);
+                if (user.getActivated() && !userDTO.isActivated()) {
+                    this.revokeTokens(user);
+                }
                 user.setLogin(userDTO.getLogin().toLowerCase());
                 user.setFirstName(userDTO.getFirstName());
                 user.setLastName(userDTO.getLastName());
@@ -225,6 +241,7 @@ public class UserService {
         userRepository.findOneByLogin(login).ifPresent(user -> {
             userRepository.delete(user);
             this.clearUserCaches(user);
+            this.revokeTokens(user);
             log.debug("Deleted User: {}", user);
         });
     }
@@ -240,44 +257,78 @@ public class UserService {
                 String encryptedPassword = passwordEncoder.encode(newPassword);
                 user.setPassword(encryptedPassword);
                 this.clearUserCaches(user);
+                this.revokeTokens(user);
                 log.debug("Changed password for User: {}", user);
             });
     }
 
+    /**
+     * Replace the password hash of a user by a stronger hash of the same password.
+     * <p>
+     * Unlike a password change, the user's tokens are not revoked.
+     *
+     * @param login the login of the user.
+     * @param encodedPassword the new hash.
+     */
+    public void updatePasswordHash(String login, String encodedPassword) {
+        userRepository.findOneByLogin(login)
+            .ifPresent(user -> {
+                user.setPassword(encodedPassword);
+                this.clearUserCaches(user);
+                log.debug("Upgraded password hash for User: {}", user);
+            });
+    }
+
     @Transactional(readOnly = true)
     public Page<UserDTO> getAllManagedUsers(Pageable pageable) {
         return userRepository.findAllByLoginNot(pageable, Constants.ANONYMOUS_USER).map(UserDTO::new);
     }
 
+    /**
+     * Get a page of managed users by keyset, without counting them.
+     *
+     * @param cursor the position of the page.
+     * @param size the size of the page.
+     * @return the page of managed users.
+     */
     @Transactional(readOnly = true)
-    public Optional<User> getUserWithAuthoritiesByLogin(String login) {
-        return userRepository.findOneWithAuthoritiesByLogin(login);
+    public Slice<UserDTO> getAllManagedUsers(UserCursor cursor, int size) {
+        Pageable pageable = PageRequest.of(0, size, cursor.toSort());
+        String after = cursor.getAfter();
+        boolean ascending = cursor.getDirection().isAscending();
+        Slice<User> users;
+        if (after == null) {
+            users = userRepository.findSliceByLoginNot(Constants.ANONYMOUS_USER, pageable);
+        } else if (cursor.getKey() == UserCursor.Key.ID) {
+            users = ascending ?
+                userRepository.findSliceByLoginNotAndIdGreaterThan(Constants.ANONYMOUS_USER, Long.valueOf(after), pageable) :
+                userRepository.findSliceByLoginNotAndIdLessThan(Constants.ANONYMOUS_USER, Long.valueOf(after), pageable);
+        } else {
+            users = ascending ?
+                userRepository.findSliceByLoginNotAndLoginGreaterThan(Constants.ANONYMOUS_USER, after, pageable) :
+                userRepository.findSliceByLoginNotAndLoginLessThan(Constants.ANONYMOUS_USER, after, pageable);
+        }
+        return users.map(UserDTO::new);
     }
 
     @Transactional(readOnly = true)
-    public Optional<User> getUserWithAuthorities(Long id) {
-        return userRepository.findOneWithAuthoritiesById(id);
+    public long countManagedUsers() {
+        return userRepository.countByLoginNot(Constants.ANONYMOUS_USER);
     }
 
     @Transactional(readOnly = true)
-    public Optional<User> getUserWithAuthorities() {
-        return SecurityUtils.getCurrentUserLogin().flatMap(userRepository::findOneWithAuthoritiesByLogin);
+    public Optional<UserSnapshot> getUserWithAuthoritiesByLogin(String login) {
+        return userRepository.findSnapshotByLogin(login);
     }
 
-    /**
-     * Not activated users should be automatically deleted after 3 days.
-     * <p>
-     * This is scheduled to get fired everyday, at 01:00 (am).
-     */
-    @Scheduled(cron = "0 0 1 * * ?")
-    public void removeNotActivatedUsers() {
-        userRepository
-            .findAllByActivatedIsFalseAndActivationKeyIsNotNullAndCreatedDateBefore(Instant.now().minus(3, ChronoUnit.DAYS))
-            .forEach(user -> {
-                log.debug("Deleting not activated user {}", user.getLogin());
-                userRepository.delete(user);
-                this.clearUserCaches(user);
-            });
+    @Transactional(readOnly = true)
+    public Optional<User> getUserWithAuthorities(Long id) {
+        return userRepository.findOneWithAuthoritiesById(id);
+    }
+
+    @Transactional(readOnly = true)
+    public Optional<UserSnapshot> getUserWithAuthorities() {
+        return SecurityUtils.getCurrentUserLogin().flatMap(userRepository::findSnapshotByLogin);
     }
 
     /**
@@ -289,8 +340,33 @@ public class UserService {
     }
 
 
+    private void revokeTokens(User user) {
+        tokenRevocationStore.revokeAllTokens(user.getLogin());
+        refreshTokenService.revokeAllRefreshTokens(user.getLogin());
+    }
+
+    /**
+     * Evict the cache entries of a user, right away and again once its transaction commits.
+     * <p>
+     * When the login or email of a user changes, this is called both before and after the change, so that the
+     * entries of the old and of the new keys get evicted; evictions are deduplicated per transaction.
+     */
     private void clearUserCaches(User user) {
-        Objects.requireNonNull(cacheManager.getCache(UserRepository.USERS_BY_LOGIN_CACHE)).evict(user.getLogin());
-        Objects.requireNonNull(cacheManager.getCache(UserRepository.USERS_BY_EMAIL_CACHE)).evict(user.getEmail());
+        List<CacheEviction> evictions = new ArrayList<>();
+        evictions.add(CacheEviction.of(UserRepository.USERS_BY_LOGIN_CACHE, user.getLogin()));
+        evictions.add(CacheEviction.of(DomainUserDetailsService.USER_DETAILS_CACHE, user.getLogin()));
+        if (user.getEmail() != null) {
+            evictions.add(CacheEviction.of(UserRepository.USERS_BY_EMAIL_CACHE, user.getEmail()));
+            evictions.add(CacheEviction.of(DomainUserDetailsService.USER_DETAILS_CACHE, user.getEmail()));
+        }
+        if (user.getId() != null) {
+            evictions.add(CacheEviction.of(User.class.getName(), user.getId()));
+            evictions.add(CacheEviction.of(User.class.getName() + ".authorities", user.getId()));
+        }
+        evictions.add(CacheEviction.of(UserRepository.UNKNOWN_USERS_CACHE, UserRepository.unknownLoginKey(user.getLogin())));
+        if (user.getEmail() != null) {
+            evictions.add(CacheEviction.of(UserRepository.UNKNOWN_USERS_CACHE, UserRepository.unknownEmailKey(user.getEmail())));
+        }
+        cacheInvalidationService.invalidate(evictions);
     }
 }
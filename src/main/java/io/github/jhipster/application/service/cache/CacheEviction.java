@@ -0,0 +1,75 @@
+package io.github.jhipster.application.service.cache;
+
+import java.util.Objects;
+
+/**
+ * An eviction of a cache entry, or of a whole cache when its key is null.
+ * <p>
+ * Keys are carried as strings, so that evictions can be sent to other nodes: Spring caches are evicted by their
+ * string key, and Hibernate second-level cache regions by the identifier of the entity, or of the collection owner.
+ */
+public final class CacheEviction {
+
+    private final String cacheName;
+
+    private final String key;
+
+    private CacheEviction(String cacheName, String key) {
+        this.cacheName = Objects.requireNonNull(cacheName);
+        this.key = key;
+    }
+
+    /**
+     * @param cacheName the name of the cache, or of the Hibernate region.
+     * @param key the key of the entry, or the identifier of the entity or collection owner.
+     * @return the eviction of this entry.
+     */
+    public static CacheEviction of(String cacheName, Object key) {
+        return new CacheEviction(cacheName, Objects.requireNonNull(key).toString());
+    }
+
+    /**
+     * @param cacheName the name of the cache, or of the Hibernate region.
+     * @return the eviction of all the entries of this cache.
+     */
+    public static CacheEviction clear(String cacheName) {
+        return new CacheEviction(cacheName, null);
+    }
+
+    public String getCacheName() {
+        return cacheName;
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    public boolean isClear() {
+        return key == null;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof CacheEviction)) {
+            return false;
+        }
+        CacheEviction that = (CacheEviction) o;
+        return cacheName.equals(that.cacheName) && Objects.equals(key, that.key);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * cacheName.hashCode() + Objects.hashCode(key);
+    }
+
+    @Override
+    public String toString() {
+        return "CacheEviction{" +
+            "cacheName='" + cacheName + '\'' +
+            ", key='" + key + '\'' +
+            "}";
+    }
+}
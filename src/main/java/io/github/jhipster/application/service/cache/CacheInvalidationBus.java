@@ -0,0 +1,24 @@
+package io.github.jhipster.application.service.cache;
+
+import java.util.Collection;
+import java.util.function.Consumer;
+
+/**
+ * Bus broadcasting the cache evictions of a node to the other nodes.
+ */
+public interface CacheInvalidationBus {
+
+    /**
+     * Send evictions to the other nodes.
+     *
+     * @param evictions the evictions made by this node.
+     */
+    void publish(Collection<CacheEviction> evictions);
+
+    /**
+     * Set the listener of the evictions sent by the other nodes.
+     *
+     * @param listener the listener, called with batches of evictions.
+     */
+    void subscribe(Consumer<Collection<CacheEviction>> listener);
+}
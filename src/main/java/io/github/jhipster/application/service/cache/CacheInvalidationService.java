@@ -0,0 +1,209 @@
+package io.github.jhipster.application.service.cache;
+
+import io.github.jhipster.application.config.ApplicationProperties;
+
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.persister.collection.CollectionPersister;
+import org.hibernate.persister.entity.EntityPersister;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.core.convert.ConversionService;
+import org.springframework.core.convert.support.DefaultConversionService;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.persistence.EntityManagerFactory;
+import java.io.Serializable;
+import java.util.*;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Service evicting cache entries on this node and on the other nodes.
+ * <p>
+ * Spring caches are evicted on this node right away, while Hibernate keeps its own second-level cache regions
+ * up to date. Within a transaction, the evictions are collected without duplicates and evicted again once it
+ * commits: entries loaded by concurrent readers in the meantime hold the data from before the commit.
+ * <p>
+ * Evictions are sent to the other nodes once their transaction commits, so that the other nodes do not reload the
+ * old data: they are queued, and sent every second through the {@link CacheInvalidationBus}, coalesced into a
+ * single clear of the cache when a cache has too many evicted entries.
+ */
+@Service
+public class CacheInvalidationService {
+
+    private final Logger log = LoggerFactory.getLogger(CacheInvalidationService.class);
+
+    private final ConversionService conversionService = DefaultConversionService.getSharedInstance();
+
+    private final CacheManager cacheManager;
+
+    private final SessionFactoryImplementor sessionFactory;
+
+    private final CacheInvalidationBus cacheInvalidationBus;
+
+    private final int maxKeysPerCache;
+
+    private final Queue<CacheEviction> pending = new ConcurrentLinkedQueue<>();
+
+    public CacheInvalidationService(CacheManager cacheManager, EntityManagerFactory entityManagerFactory,
+                                    CacheInvalidationBus cacheInvalidationBus, ApplicationProperties applicationProperties) {
+        this.cacheManager = cacheManager;
+        this.sessionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+        this.cacheInvalidationBus = cacheInvalidationBus;
+        this.maxKeysPerCache = applicationProperties.getCache().getInvalidation().getMaxKeysPerCache();
+        cacheInvalidationBus.subscribe(this::apply);
+    }
+
+    /**
+     * Evict cache entries on all the nodes.
+     *
+     * @param evictions the evictions of Spring cache entries, or of Hibernate second-level cache entries.
+     */
+    public void invalidate(Collection<CacheEviction> evictions) {
+        evictLocally(evictions);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            transactionEvictions().addAll(evictions);
+        } else {
+            pending.addAll(evictions);
+        }
+    }
+
+    private Set<CacheEviction> transactionEvictions() {
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            if (synchronization instanceof AfterCommitEvictions && ((AfterCommitEvictions) synchronization).owner() == this) {
+                return ((AfterCommitEvictions) synchronization).evictions;
+            }
+        }
+        AfterCommitEvictions synchronization = new AfterCommitEvictions();
+        TransactionSynchronizationManager.registerSynchronization(synchronization);
+        return synchronization.evictions;
+    }
+
+    private void evictLocally(Collection<CacheEviction> evictions) {
+        for (CacheEviction eviction : evictions) {
+            Cache cache = cacheManager.getCache(eviction.getCacheName());
+            if (cache != null && !isHibernateRegion(eviction.getCacheName())) {
+                evict(cache, eviction);
+            }
+        }
+    }
+
+    /**
+     * Evict cache entries on all the nodes, including from the Hibernate second-level cache regions of this node,
+     * for data changed outside of this application.
+     *
+     * @param evictions the evictions of Spring cache entries, or of Hibernate second-level cache entries.
+     */
+    public void evict(Collection<CacheEviction> evictions) {
+        apply(evictions);
+        pending.addAll(evictions);
+    }
+
+    /**
+     * Send the pending evictions to the other nodes.
+     * <p>
+     * Evictions which fail to be sent are dropped: the other nodes then serve the old entries until they expire.
+     */
+    @Scheduled(fixedDelay = 1000)
+    public void flush() {
+        Map<String, Set<CacheEviction>> evictionsByCache = new LinkedHashMap<>();
+        CacheEviction eviction;
+        while ((eviction = pending.poll()) != null) {
+            Set<CacheEviction> evictions = evictionsByCache.computeIfAbsent(eviction.getCacheName(), name -> new LinkedHashSet<>());
+            if (evictions.size() == 1 && evictions.iterator().next().isClear()) {
+                continue;
+            }
+            if (eviction.isClear() || evictions.size() >= maxKeysPerCache) {
+                evictions.clear();
+                evictions.add(CacheEviction.clear(eviction.getCacheName()));
+            } else {
+                evictions.add(eviction);
+            }
+        }
+        if (evictionsByCache.isEmpty()) {
+            return;
+        }
+        List<CacheEviction> coalesced = new ArrayList<>();
+        evictionsByCache.values().forEach(coalesced::addAll);
+        try {
+            cacheInvalidationBus.publish(coalesced);
+            log.debug("Sent {} cache evictions to other nodes", coalesced.size());
+        } catch (RuntimeException e) {
+            log.warn("Could not send {} cache evictions to other nodes: {}", coalesced.size(), e.toString());
+        }
+    }
+
+    /**
+     * Apply the evictions made by another node.
+     *
+     * @param evictions the evictions.
+     */
+    void apply(Collection<CacheEviction> evictions) {
+        for (CacheEviction eviction : evictions) {
+            EntityPersister entityPersister = sessionFactory.getMetamodel().entityPersisters().get(eviction.getCacheName());
+            CollectionPersister collectionPersister = sessionFactory.getMetamodel().collectionPersisters().get(eviction.getCacheName());
+            if (entityPersister != null) {
+                if (eviction.isClear()) {
+                    sessionFactory.getCache().evictEntityData(eviction.getCacheName());
+                } else {
+                    sessionFactory.getCache().evictEntityData(eviction.getCacheName(),
+                        convert(eviction.getKey(), entityPersister.getIdentifierType().getReturnedClass()));
+                }
+            } else if (collectionPersister != null) {
+                if (eviction.isClear()) {
+                    sessionFactory.getCache().evictCollectionData(eviction.getCacheName());
+                } else {
+                    sessionFactory.getCache().evictCollectionData(eviction.getCacheName(),
+                        convert(eviction.getKey(), collectionPersister.getKeyType().getReturnedClass()));
+                }
+            } else {
+                Cache cache = cacheManager.getCache(eviction.getCacheName());
+                if (cache != null) {
+                    evict(cache, eviction);
+                } else {
+                    log.warn("Cannot evict {}: unknown cache", eviction);
+                }
+            }
+        }
+    }
+
+    private boolean isHibernateRegion(String cacheName) {
+        return sessionFactory.getMetamodel().entityPersisters().containsKey(cacheName) ||
+            sessionFactory.getMetamodel().collectionPersisters().containsKey(cacheName);
+    }
+
+    private Serializable convert(String key, Class<?> identifierClass) {
+        return (Serializable) conversionService.convert(key, identifierClass);
+    }
+
+    /**
+     * The evictions of a transaction, evicted on this node and sent to the other nodes once it commits.
+     */
+    private final class AfterCommitEvictions extends TransactionSynchronizationAdapter {
+
+        private final Set<CacheEviction> evictions = new LinkedHashSet<>();
+
+        private CacheInvalidationService owner() {
+            return CacheInvalidationService.this;
+        }
+
+        @Override
+        public void afterCommit() {
+            evictLocally(evictions);
+            pending.addAll(evictions);
+        }
+    }
+
+    private static void evict(Cache cache, CacheEviction eviction) {
+        if (eviction.isClear()) {
+            cache.clear();
+        } else {
+            cache.evict(eviction.getKey());
+        }
+    }
+}
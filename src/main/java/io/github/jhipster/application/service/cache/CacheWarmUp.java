@@ -0,0 +1,135 @@
+package io.github.jhipster.application.service.cache;
+
+import io.github.jhipster.application.config.ApplicationProperties;
+import io.github.jhipster.application.domain.User;
+import io.github.jhipster.application.domain.UserSnapshot;
+import io.github.jhipster.application.repository.AuthorityRepository;
+import io.github.jhipster.application.repository.PersistenceAuditEventRepository;
+import io.github.jhipster.application.repository.UserRepository;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.boot.actuate.security.AuthenticationAuditListener;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.*;
+
+/**
+ * Warm-up of the caches after startup, so that the first requests do not all hit the database.
+ * <p>
+ * It preloads the {@code Authority} region, then the most recently authenticated users, found in the
+ * {@code AUTHENTICATION_SUCCESS} audit events, into the {@code usersByLogin} cache and the {@code User} regions.
+ * Users are loaded in batches, a bounded number of batches at a time, in the background.
+ * <p>
+ * Until the warm-up is over, this health indicator is {@code OUT_OF_SERVICE}, so that load balancers checking the
+ * health endpoint do not route traffic to this node yet. A failed warm-up does not keep the node out of service.
+ */
+@Component
+public class CacheWarmUp implements HealthIndicator {
+
+    private final Logger log = LoggerFactory.getLogger(CacheWarmUp.class);
+
+    private final ThreadFactory threadFactory = new CustomizableThreadFactory("cache-warm-up-");
+
+    private final AuthorityRepository authorityRepository;
+
+    private final UserRepository userRepository;
+
+    private final PersistenceAuditEventRepository persistenceAuditEventRepository;
+
+    private final CacheManager cacheManager;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final ApplicationProperties.Cache.WarmUp warmUp;
+
+    private volatile Health health;
+
+    public CacheWarmUp(AuthorityRepository authorityRepository, UserRepository userRepository,
+                       PersistenceAuditEventRepository persistenceAuditEventRepository, CacheManager cacheManager,
+                       PlatformTransactionManager transactionManager, ApplicationProperties applicationProperties) {
+        this.authorityRepository = authorityRepository;
+        this.userRepository = userRepository;
+        this.persistenceAuditEventRepository = persistenceAuditEventRepository;
+        this.cacheManager = cacheManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.warmUp = applicationProperties.getCache().getWarmUp();
+        this.health = warmUp.isEnabled() ? Health.outOfService().withDetail("warmUp", "pending").build() : Health.up().build();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (warmUp.isEnabled()) {
+            threadFactory.newThread(this::warmUp).start();
+        }
+    }
+
+    @Override
+    public Health health() {
+        return health;
+    }
+
+    /**
+     * Preload the caches, and report readiness once done.
+     */
+    public void warmUp() {
+        long start = System.nanoTime();
+        ExecutorService executor = Executors.newFixedThreadPool(warmUp.getParallelism(), threadFactory);
+        try {
+            int authorities = Objects.requireNonNull(transactionTemplate.execute(status -> authorityRepository.findAll().size()));
+            List<String> logins = persistenceAuditEventRepository.findRecentPrincipalsByAuditEventType(
+                AuthenticationAuditListener.AUTHENTICATION_SUCCESS,
+                Instant.now().minus(warmUp.getLookbackInDays(), ChronoUnit.DAYS), PageRequest.of(0, warmUp.getMaxUsers()));
+            List<Future<Integer>> batches = new ArrayList<>();
+            for (int from = 0; from < logins.size(); from += warmUp.getBatchSize()) {
+                List<String> batch = logins.subList(from, Math.min(from + warmUp.getBatchSize(), logins.size()));
+                batches.add(executor.submit(() -> warmUpUsers(batch)));
+            }
+            int users = 0;
+            for (Future<Integer> batch : batches) {
+                users += batch.get();
+            }
+            long durationInMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            log.info("Warmed up caches with {} authorities and {} users in {} ms", authorities, users, durationInMs);
+            health = Health.up()
+                .withDetail("authorities", authorities)
+                .withDetail("users", users)
+                .withDetail("durationInMs", durationInMs)
+                .build();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            health = Health.up().withDetail("warmUp", "interrupted").build();
+        } catch (ExecutionException | RuntimeException e) {
+            log.warn("Could not warm up caches: {}", e.toString());
+            health = Health.up().withDetail("error", e.toString()).build();
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private int warmUpUsers(List<String> logins) {
+        Cache usersByLogin = Objects.requireNonNull(cacheManager.getCache(UserRepository.USERS_BY_LOGIN_CACHE));
+        List<User> users = Objects.requireNonNull(transactionTemplate.execute(status -> userRepository.findAllWithAuthoritiesByLoginIn(logins)));
+        for (User user : users) {
+            // Do not overwrite an entry loaded in the meantime, which is at least as recent
+            usersByLogin.putIfAbsent(user.getLogin(), new UserSnapshot(user));
+        }
+        return users.size();
+    }
+}
@@ -0,0 +1,100 @@
+package io.github.jhipster.application.service.cache;
+
+import io.github.jhipster.application.domain.CacheInvalidation;
+import io.github.jhipster.application.repository.CacheInvalidationRepository;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.time.Instant;
+import java.util.*;
+import java.util.function.Consumer;
+
+/**
+ * {@link CacheInvalidationBus} using the database as an outbox: evictions are inserted as {@link CacheInvalidation}s,
+ * which every node polls every 2 seconds.
+ */
+public class DatabaseCacheInvalidationBus implements CacheInvalidationBus {
+
+    /**
+     * Invalidations are polled by creation date: the overlap covers late commits and clock skew between nodes.
+     */
+    private static final long POLL_OVERLAP_SECONDS = 30;
+
+    private static final long RETENTION_SECONDS = 600;
+
+    private final Logger log = LoggerFactory.getLogger(DatabaseCacheInvalidationBus.class);
+
+    private final CacheInvalidationRepository cacheInvalidationRepository;
+
+    private final String node = UUID.randomUUID().toString();
+
+    private volatile Consumer<Collection<CacheEviction>> listener = evictions -> { };
+
+    private Instant lastPoll = Instant.now();
+
+    /**
+     * Invalidations received during the overlap of the next poll, so that they are not applied twice.
+     */
+    private Map<Long, Instant> received = new HashMap<>();
+
+    public DatabaseCacheInvalidationBus(CacheInvalidationRepository cacheInvalidationRepository) {
+        this.cacheInvalidationRepository = cacheInvalidationRepository;
+    }
+
+    @Override
+    public void publish(Collection<CacheEviction> evictions) {
+        Instant now = Instant.now();
+        List<CacheInvalidation> cacheInvalidations = new ArrayList<>(evictions.size());
+        for (CacheEviction eviction : evictions) {
+            CacheInvalidation cacheInvalidation = new CacheInvalidation();
+            cacheInvalidation.setCacheName(eviction.getCacheName());
+            cacheInvalidation.setCacheKey(eviction.getKey());
+            cacheInvalidation.setNode(node);
+            cacheInvalidation.setCreatedDate(now);
+            cacheInvalidations.add(cacheInvalidation);
+        }
+        cacheInvalidationRepository.saveAll(cacheInvalidations);
+    }
+
+    @Override
+    public void subscribe(Consumer<Collection<CacheEviction>> listener) {
+        this.listener = listener;
+    }
+
+    /**
+     * Apply the evictions made by other nodes.
+     */
+    @Scheduled(fixedDelay = 2000, initialDelay = 2000)
+    public synchronized void poll() {
+        Instant now = Instant.now();
+        Instant since = lastPoll.minusSeconds(POLL_OVERLAP_SECONDS);
+        Map<Long, Instant> polled = new HashMap<>();
+        Set<CacheEviction> evictions = new LinkedHashSet<>();
+        for (CacheInvalidation cacheInvalidation : cacheInvalidationRepository.findAllByCreatedDateAfterAndNodeNot(since, node)) {
+            polled.put(cacheInvalidation.getId(), cacheInvalidation.getCreatedDate());
+            if (!received.containsKey(cacheInvalidation.getId())) {
+                evictions.add(cacheInvalidation.getCacheKey() == null ? CacheEviction.clear(cacheInvalidation.getCacheName()) :
+                    CacheEviction.of(cacheInvalidation.getCacheName(), cacheInvalidation.getCacheKey()));
+            }
+        }
+        received = polled;
+        lastPoll = now;
+        if (!evictions.isEmpty()) {
+            log.debug("Applying {} cache evictions from other nodes", evictions.size());
+            listener.accept(evictions);
+        }
+    }
+
+    /**
+     * Invalidations are only useful until all the nodes have polled them.
+     * <p>
+     * This is scheduled to get fired every 10 minutes.
+     */
+    @Scheduled(fixedDelay = 600000, initialDelay = 600000)
+    public void removeOldInvalidations() {
+        int deleted = cacheInvalidationRepository.deleteAllByCreatedDateBefore(Instant.now().minusSeconds(RETENTION_SECONDS));
+        log.debug("Deleted {} old cache invalidations", deleted);
+    }
+}
@@ -0,0 +1,69 @@
+package io.github.jhipster.application.service.cache;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.binder.cache.CacheMeterBinder;
+
+import javax.cache.Cache;
+
+/**
+ * Micrometer binder of the {@link EhcacheStatistics} of a cache: hits, misses, puts, removals, evictions, size, and
+ * the bytes occupied off-heap when the cache has an off-heap tier.
+ * <p>
+ * Micrometer's own {@code JCacheMetrics} cannot be used, as it does not find the statistics MBeans of Ehcache.
+ */
+public class EhcacheMetrics extends CacheMeterBinder {
+
+    private final EhcacheStatistics statistics;
+
+    public EhcacheMetrics(Cache<?, ?> cache, Iterable<Tag> tags) {
+        this(cache, new EhcacheStatistics(cache), tags);
+    }
+
+    public EhcacheMetrics(Cache<?, ?> cache, EhcacheStatistics statistics, Iterable<Tag> tags) {
+        super(cache, cache.getName(), tags);
+        this.statistics = statistics;
+    }
+
+    @Override
+    protected Long size() {
+        return statistics.getSize();
+    }
+
+    @Override
+    protected long hitCount() {
+        return statistics.getHits();
+    }
+
+    @Override
+    protected Long missCount() {
+        return statistics.getMisses();
+    }
+
+    @Override
+    protected Long evictionCount() {
+        return statistics.getEvictions();
+    }
+
+    @Override
+    protected long putCount() {
+        return statistics.getPuts();
+    }
+
+    @Override
+    protected void bindImplementationSpecificMetrics(MeterRegistry registry) {
+        FunctionCounter.builder("cache.removals", statistics, EhcacheStatistics::getRemovals)
+            .tags(getTagsWithCacheName())
+            .description("Cache removals")
+            .register(registry);
+        if (statistics.getOffheapBytes().isPresent()) {
+            Gauge.builder("cache.offheap.size", statistics, s -> s.getOffheapBytes().orElse(0L))
+                .tags(getTagsWithCacheName())
+                .description("The bytes occupied by the off-heap tier of this cache")
+                .baseUnit("bytes")
+                .register(registry);
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package io.github.jhipster.application.service.cache;
+
+import org.ehcache.impl.internal.statistics.StatsUtils;
+import org.terracotta.statistics.ValueStatistic;
+
+import javax.cache.Cache;
+import javax.cache.management.CacheStatisticsMXBean;
+import javax.management.JMX;
+import javax.management.MBeanServer;
+import javax.management.MalformedObjectNameException;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.Optional;
+
+/**
+ * Statistics of an Ehcache JCache cache.
+ * <p>
+ * Operation counts come from the standard JCache statistics MBean, which Ehcache registers in the platform MBean
+ * server once statistics are enabled, whether or not Spring exports beans to JMX. Entry counts and sizes come from
+ * the Ehcache statistics of the cache tiers.
+ * <p>
+ * The statistics of a cache are read through its {@link EhcacheStatisticsRegistry}, rather than created on each use.
+ */
+public class EhcacheStatistics {
+
+    private static final MBeanServer MBEAN_SERVER = ManagementFactory.getPlatformMBeanServer();
+
+    private static final String OFFHEAP_TIER = "OffHeap";
+
+    private final String name;
+
+    private final Cache<?, ?> cache;
+
+    private final CacheStatisticsMXBean statistics;
+
+    private final ValueStatistic<Long> mappings;
+
+    private final ValueStatistic<Long> offheapOccupiedMemory;
+
+    /**
+     * Enable the statistics of a cache, and read them.
+     *
+     * @param cache the cache, created by an Ehcache {@link javax.cache.CacheManager}.
+     */
+    public EhcacheStatistics(Cache<?, ?> cache) {
+        this.name = cache.getName();
+        this.cache = cache;
+        cache.getCacheManager().enableStatistics(cache.getName(), true);
+        this.statistics = JMX.newMXBeanProxy(MBEAN_SERVER, objectName(cache), CacheStatisticsMXBean.class);
+        org.ehcache.Cache<?, ?> ehcache = cache.unwrap(org.ehcache.Cache.class);
+        String[] tiers = StatsUtils.findTiers(ehcache);
+        this.mappings = StatsUtils.<ValueStatistic<Long>>findStatisticOnDescendants(ehcache,
+            StatsUtils.findLowestTier(tiers), "mappings").orElse(null);
+        this.offheapOccupiedMemory = Arrays.asList(tiers).contains(OFFHEAP_TIER) ?
+            StatsUtils.<ValueStatistic<Long>>findStatisticOnDescendants(ehcache, OFFHEAP_TIER, "occupiedMemory").orElse(null) :
+            null;
+    }
+
+    /**
+     * @param cache a cache.
+     * @return true if these are the statistics of this very cache.
+     */
+    boolean isOf(Cache<?, ?> cache) {
+        return this.cache == cache;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public long getHits() {
+        return statistics.getCacheHits();
+    }
+
+    public long getMisses() {
+        return statistics.getCacheMisses();
+    }
+
+    public long getPuts() {
+        return statistics.getCachePuts();
+    }
+
+    public long getRemovals() {
+        return statistics.getCacheRemovals();
+    }
+
+    public long getEvictions() {
+        return statistics.getCacheEvictions();
+    }
+
+    /**
+     * @return the number of entries, held by the lowest tier of the cache.
+     */
+    public Long getSize() {
+        return mappings != null ? mappings.value() : null;
+    }
+
+    /**
+     * @return the bytes occupied by the off-heap tier, if the cache has one.
+     */
+    public Optional<Long> getOffheapBytes() {
+        return Optional.ofNullable(offheapOccupiedMemory).map(ValueStatistic::value);
+    }
+
+    /**
+     * Ehcache replaces the characters which are not allowed in object names.
+     */
+    private static ObjectName objectName(Cache<?, ?> cache) {
+        try {
+            return new ObjectName("javax.cache:type=CacheStatistics,CacheManager=" +
+                sanitize(cache.getCacheManager().getURI().toString()) + ",Cache=" + sanitize(cache.getName()));
+        } catch (MalformedObjectNameException e) {
+            throw new IllegalArgumentException("Invalid cache name " + cache.getName(), e);
+        }
+    }
+
+    private static String sanitize(String string) {
+        return string.replaceAll(",|:|=|\n", ".");
+    }
+}
@@ -0,0 +1,29 @@
+package io.github.jhipster.application.service.cache;
+
+import org.springframework.stereotype.Component;
+
+import javax.cache.Cache;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The {@link EhcacheStatistics} of the caches, shared by their {@link EhcacheMetrics} and the cache management
+ * endpoint.
+ * <p>
+ * The statistics of a cache are created once, as it enables them and builds the proxy of their MBean, and created
+ * again only if the cache was recreated under the same name.
+ */
+@Component
+public class EhcacheStatisticsRegistry {
+
+    private final Map<String, EhcacheStatistics> statistics = new ConcurrentHashMap<>();
+
+    /**
+     * @param cache the cache, created by an Ehcache {@link javax.cache.CacheManager}.
+     * @return its statistics.
+     */
+    public EhcacheStatistics get(Cache<?, ?> cache) {
+        return statistics.compute(cache.getName(), (name, existing) ->
+            existing != null && existing.isOf(cache) ? existing : new EhcacheStatistics(cache));
+    }
+}
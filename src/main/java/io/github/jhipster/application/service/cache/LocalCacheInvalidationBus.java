@@ -0,0 +1,49 @@
+package io.github.jhipster.application.service.cache;
+
+import java.util.Collection;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.function.Consumer;
+
+/**
+ * In-JVM {@link CacheInvalidationBus}, connecting the buses created by {@link #peer()}.
+ * <p>
+ * On its own, it is the bus of a single node, which has no one to send evictions to; its peers stand in for other
+ * nodes in tests.
+ */
+public class LocalCacheInvalidationBus implements CacheInvalidationBus {
+
+    private final Set<LocalCacheInvalidationBus> peers;
+
+    private volatile Consumer<Collection<CacheEviction>> listener = evictions -> { };
+
+    public LocalCacheInvalidationBus() {
+        this(new CopyOnWriteArraySet<>());
+    }
+
+    private LocalCacheInvalidationBus(Set<LocalCacheInvalidationBus> peers) {
+        this.peers = peers;
+        peers.add(this);
+    }
+
+    /**
+     * @return a new bus, receiving the evictions of this bus and of its other peers.
+     */
+    public LocalCacheInvalidationBus peer() {
+        return new LocalCacheInvalidationBus(peers);
+    }
+
+    @Override
+    public void publish(Collection<CacheEviction> evictions) {
+        for (LocalCacheInvalidationBus peer : peers) {
+            if (peer != this) {
+                peer.listener.accept(evictions);
+            }
+        }
+    }
+
+    @Override
+    public void subscribe(Consumer<Collection<CacheEviction>> listener) {
+        this.listener = listener;
+    }
+}
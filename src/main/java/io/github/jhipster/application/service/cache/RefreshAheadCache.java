@@ -0,0 +1,233 @@
+package io.github.jhipster.application.service.cache;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.Cache;
+import org.springframework.cache.support.SimpleValueWrapper;
+
+import java.io.Serializable;
+import java.time.Duration;
+import java.util.concurrent.*;
+import java.util.function.Consumer;
+import java.util.function.LongSupplier;
+
+/**
+ * {@link Cache} decorator reloading its entries in the background shortly before they expire, and serving expired
+ * entries for a while until they are reloaded.
+ * <p>
+ * Entries are stored with their load time: an entry older than its time to live minus the refresh-ahead period is
+ * still returned, but also reloaded in the background, at most once at a time per key. Expired entries are served
+ * stale the same way during the stale-while-revalidate window, which the underlying cache must keep them for;
+ * after that, they are missed. Concurrent misses of the same key, through {@link #get(Object, Callable)}, wait for a
+ * single load.
+ * <p>
+ * Entries are reloaded by calling the reloader, typically the {@code @Cacheable} method itself: while it runs, its
+ * key is missed on the reloading thread, so that the method gets invoked and its result stored.
+ */
+public class RefreshAheadCache implements Cache {
+
+    private static final ThreadLocal<Refresh> REFRESH = new ThreadLocal<>();
+
+    private final Logger log = LoggerFactory.getLogger(RefreshAheadCache.class);
+
+    private final Cache delegate;
+
+    private final Policy policy;
+
+    private final Executor executor;
+
+    private final LongSupplier clock;
+
+    private final ConcurrentMap<Object, CompletableFuture<Object>> loads = new ConcurrentHashMap<>();
+
+    private final ConcurrentMap<Object, Refresh> refreshes = new ConcurrentHashMap<>();
+
+    public RefreshAheadCache(Cache delegate, Policy policy, Executor executor, LongSupplier clock) {
+        this.delegate = delegate;
+        this.policy = policy;
+        this.executor = executor;
+        this.clock = clock;
+    }
+
+    @Override
+    public String getName() {
+        return delegate.getName();
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return delegate.getNativeCache();
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        if (isRefreshing(key)) {
+            return null;
+        }
+        ValueWrapper wrapper = delegate.get(key);
+        if (wrapper == null || !(wrapper.get() instanceof Entry)) {
+            return wrapper;
+        }
+        Entry entry = (Entry) wrapper.get();
+        long age = clock.getAsLong() - entry.loadedAt;
+        if (age >= policy.timeToLiveInMillis + policy.staleWhileRevalidateInMillis) {
+            return null;
+        }
+        if (age >= policy.timeToLiveInMillis - policy.refreshAheadInMillis) {
+            refresh(key);
+        }
+        return new SimpleValueWrapper(entry.value);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Class<T> type) {
+        ValueWrapper wrapper = get(key);
+        Object value = wrapper != null ? wrapper.get() : null;
+        if (value != null && type != null && !type.isInstance(value)) {
+            throw new IllegalStateException("Cached value is not of required type [" + type.getName() + "]: " + value);
+        }
+        return (T) value;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        ValueWrapper wrapper = get(key);
+        if (wrapper != null) {
+            return (T) wrapper.get();
+        }
+        CompletableFuture<Object> load = new CompletableFuture<>();
+        CompletableFuture<Object> existing = isRefreshing(key) ? null : loads.putIfAbsent(key, load);
+        if (existing != null) {
+            try {
+                return (T) existing.join();
+            } catch (CompletionException e) {
+                throw new ValueRetrievalException(key, valueLoader, e.getCause());
+            }
+        }
+        try {
+            T value = valueLoader.call();
+            put(key, value);
+            load.complete(value);
+            return value;
+        } catch (Exception e) {
+            load.completeExceptionally(e);
+            throw new ValueRetrievalException(key, valueLoader, e);
+        } finally {
+            loads.remove(key, load);
+        }
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        Refresh refresh = REFRESH.get();
+        if (refresh != null && refresh.key.equals(key) && refreshes.get(key) != refresh) {
+            // Evicted while reloading: the reloaded value may already be stale
+            return;
+        }
+        delegate.put(key, new Entry(value, clock.getAsLong()));
+    }
+
+    @Override
+    public ValueWrapper putIfAbsent(Object key, Object value) {
+        ValueWrapper existing = delegate.putIfAbsent(key, new Entry(value, clock.getAsLong()));
+        if (existing != null && existing.get() instanceof Entry) {
+            return new SimpleValueWrapper(((Entry) existing.get()).value);
+        }
+        return existing;
+    }
+
+    @Override
+    public void evict(Object key) {
+        refreshes.remove(key);
+        delegate.evict(key);
+    }
+
+    @Override
+    public void clear() {
+        refreshes.clear();
+        delegate.clear();
+    }
+
+    private boolean isRefreshing(Object key) {
+        Refresh refresh = REFRESH.get();
+        return refresh != null && refresh.key.equals(key);
+    }
+
+    private void refresh(Object key) {
+        Refresh refresh = new Refresh(key);
+        if (refreshes.putIfAbsent(key, refresh) != null) {
+            return;
+        }
+        try {
+            executor.execute(() -> {
+                REFRESH.set(refresh);
+                try {
+                    policy.reloader.accept(key);
+                } catch (RuntimeException e) {
+                    log.warn("Could not refresh {} in cache {}: {}", key, getName(), e.toString());
+                } finally {
+                    REFRESH.remove();
+                    refreshes.remove(key, refresh);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // Too many refreshes pending: the entry gets refreshed on a later hit, or reloaded once missed
+            refreshes.remove(key, refresh);
+        }
+    }
+
+    /**
+     * Settings of a {@link RefreshAheadCache}.
+     */
+    public static final class Policy {
+
+        private final long timeToLiveInMillis;
+
+        private final long refreshAheadInMillis;
+
+        private final long staleWhileRevalidateInMillis;
+
+        private final Consumer<Object> reloader;
+
+        /**
+         * @param timeToLive the time after which entries are expired.
+         * @param refreshAhead the time before expiry from which entries are reloaded on access.
+         * @param staleWhileRevalidate the time after expiry during which entries are still served, and reloaded.
+         * @param reloader the function reloading the entry of a key into the cache.
+         */
+        public Policy(Duration timeToLive, Duration refreshAhead, Duration staleWhileRevalidate, Consumer<Object> reloader) {
+            this.timeToLiveInMillis = timeToLive.toMillis();
+            this.refreshAheadInMillis = refreshAhead.toMillis();
+            this.staleWhileRevalidateInMillis = staleWhileRevalidate.toMillis();
+            this.reloader = reloader;
+        }
+    }
+
+    /**
+     * A cached value and its load time.
+     */
+    static final class Entry implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        private final Object value;
+
+        private final long loadedAt;
+
+        Entry(Object value, long loadedAt) {
+            this.value = value;
+            this.loadedAt = loadedAt;
+        }
+    }
+
+    private static final class Refresh {
+
+        private final Object key;
+
+        private Refresh(Object key) {
+            this.key = key;
+        }
+    }
+}
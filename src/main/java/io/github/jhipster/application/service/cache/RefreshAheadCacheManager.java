@@ -0,0 +1,48 @@
+package io.github.jhipster.application.service.cache;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.cache.Cache;
+import org.springframework.cache.jcache.JCacheCacheManager;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link JCacheCacheManager} decorating caches with a {@link RefreshAheadCache} when they have a refresh-ahead
+ * policy.
+ * <p>
+ * Refreshes run on 2 background threads; beyond 1000 pending refreshes, entries are not refreshed ahead anymore.
+ */
+public class RefreshAheadCacheManager extends JCacheCacheManager implements DisposableBean {
+
+    private final Map<String, RefreshAheadCache.Policy> policies;
+
+    private final ThreadPoolExecutor executor;
+
+    /**
+     * @param cacheManager the JCache cache manager.
+     * @param policies the refresh-ahead policies, by cache name.
+     */
+    public RefreshAheadCacheManager(javax.cache.CacheManager cacheManager, Map<String, RefreshAheadCache.Policy> policies) {
+        super(cacheManager);
+        this.policies = policies;
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("cache-refresh-");
+        threadFactory.setDaemon(true);
+        this.executor = new ThreadPoolExecutor(2, 2, 0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(1000), threadFactory);
+    }
+
+    @Override
+    protected Cache decorateCache(Cache cache) {
+        Cache decorated = super.decorateCache(cache);
+        RefreshAheadCache.Policy policy = policies.get(cache.getName());
+        return policy != null ? new RefreshAheadCache(decorated, policy, executor, System::currentTimeMillis) : decorated;
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+}
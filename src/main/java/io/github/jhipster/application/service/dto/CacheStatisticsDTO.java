@@ -0,0 +1,129 @@
+package io.github.jhipster.application.service.dto;
+
+import io.github.jhipster.application.service.cache.EhcacheStatistics;
+
+/**
+ * A DTO representing the statistics of a cache, or of a Hibernate second-level cache region.
+ */
+public class CacheStatisticsDTO {
+
+    private String name;
+
+    private long hits;
+
+    private long misses;
+
+    private Double hitRatio;
+
+    private long puts;
+
+    private long removals;
+
+    private long evictions;
+
+    private Long size;
+
+    private Long offheapBytes;
+
+    public CacheStatisticsDTO() {
+        // Empty constructor needed for Jackson.
+    }
+
+    public CacheStatisticsDTO(EhcacheStatistics statistics) {
+        this.name = statistics.getName();
+        this.hits = statistics.getHits();
+        this.misses = statistics.getMisses();
+        this.hitRatio = hits + misses > 0 ? (double) hits / (hits + misses) : null;
+        this.puts = statistics.getPuts();
+        this.removals = statistics.getRemovals();
+        this.evictions = statistics.getEvictions();
+        this.size = statistics.getSize();
+        this.offheapBytes = statistics.getOffheapBytes().orElse(null);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public long getHits() {
+        return hits;
+    }
+
+    public void setHits(long hits) {
+        this.hits = hits;
+    }
+
+    public long getMisses() {
+        return misses;
+    }
+
+    public void setMisses(long misses) {
+        this.misses = misses;
+    }
+
+    public Double getHitRatio() {
+        return hitRatio;
+    }
+
+    public void setHitRatio(Double hitRatio) {
+        this.hitRatio = hitRatio;
+    }
+
+    public long getPuts() {
+        return puts;
+    }
+
+    public void setPuts(long puts) {
+        this.puts = puts;
+    }
+
+    public long getRemovals() {
+        return removals;
+    }
+
+    public void setRemovals(long removals) {
+        this.removals = removals;
+    }
+
+    public long getEvictions() {
+        return evictions;
+    }
+
+    public void setEvictions(long evictions) {
+        this.evictions = evictions;
+    }
+
+    public Long getSize() {
+        return size;
+    }
+
+    public void setSize(Long size) {
+        this.size = size;
+    }
+
+    public Long getOffheapBytes() {
+        return offheapBytes;
+    }
+
+    public void setOffheapBytes(Long offheapBytes) {
+        this.offheapBytes = offheapBytes;
+    }
+
+    @Override
+    public String toString() {
+        return "CacheStatisticsDTO{" +
+            "name='" + name + '\'' +
+            ", hits=" + hits +
+            ", misses=" + misses +
+            ", puts=" + puts +
+            ", removals=" + removals +
+            ", evictions=" + evictions +
+            ", size=" + size +
+            ", offheapBytes=" + offheapBytes +
+            "}";
+    }
+}
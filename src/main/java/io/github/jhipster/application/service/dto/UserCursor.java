@@ -0,0 +1,139 @@
+package io.github.jhipster.application.service.dto;
+
+import org.springframework.data.domain.Sort;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Iterator;
+
+/**
+ * A position in the list of users sorted by id or by login, to read the next page from with a keyset query rather
+ * than with an offset.
+ * <p>
+ * A cursor holds its sort key, its direction and the value of the sort key of the last user read, if any. It is
+ * sent to clients as an opaque token, so that they do not depend on its content.
+ */
+public final class UserCursor {
+
+    private static final char SEPARATOR = ':';
+
+    /**
+     * Properties users can be sorted by: both are unique, so that a seek on their last value skips no user.
+     */
+    public enum Key {
+        ID("id"), LOGIN("login");
+
+        private final String property;
+
+        Key(String property) {
+            this.property = property;
+        }
+
+        public String getProperty() {
+            return property;
+        }
+
+        static Key of(String property) {
+            for (Key key : values()) {
+                if (key.property.equals(property)) {
+                    return key;
+                }
+            }
+            throw new IllegalArgumentException("Users can only be paged by id or login, not by " + property);
+        }
+    }
+
+    private final Key key;
+
+    private final Sort.Direction direction;
+
+    private final String after;
+
+    private UserCursor(Key key, Sort.Direction direction, String after) {
+        this.key = key;
+        this.direction = direction;
+        this.after = after;
+    }
+
+    /**
+     * @param sort the sort of the users, on one property at most: by ascending id when unsorted.
+     * @return the cursor of the first page.
+     * @throws IllegalArgumentException if users cannot be paged with this sort.
+     */
+    public static UserCursor first(Sort sort) {
+        Iterator<Sort.Order> orders = sort.iterator();
+        if (!orders.hasNext()) {
+            return new UserCursor(Key.ID, Sort.Direction.ASC, null);
+        }
+        Sort.Order order = orders.next();
+        if (orders.hasNext()) {
+            throw new IllegalArgumentException("Users can only be paged by one property");
+        }
+        return new UserCursor(Key.of(order.getProperty()), order.getDirection(), null);
+    }
+
+    /**
+     * @param token a token returned by {@link #encode()}.
+     * @return the cursor.
+     * @throws IllegalArgumentException if the token is not a valid cursor.
+     */
+    public static UserCursor decode(String token) {
+        String cursor = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+        int keyEnd = cursor.indexOf(SEPARATOR);
+        int directionEnd = cursor.indexOf(SEPARATOR, keyEnd + 1);
+        if (keyEnd < 0 || directionEnd < 0) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+        Key key = Key.of(cursor.substring(0, keyEnd));
+        String after = directionEnd + 1 < cursor.length() ? cursor.substring(directionEnd + 1) : null;
+        if (key == Key.ID && after != null) {
+            Long.parseLong(after);
+        }
+        return new UserCursor(key, Sort.Direction.fromString(cursor.substring(keyEnd + 1, directionEnd)), after);
+    }
+
+    /**
+     * @param last the last user of the current page.
+     * @return the cursor of the page following this user.
+     */
+    public UserCursor next(UserDTO last) {
+        return new UserCursor(key, direction, key == Key.ID ? String.valueOf(last.getId()) : last.getLogin());
+    }
+
+    /**
+     * @return the token of this cursor, safe to use in a URL.
+     */
+    public String encode() {
+        String cursor = key.getProperty() + SEPARATOR + direction.name().toLowerCase() + SEPARATOR +
+            (after != null ? after : "");
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(cursor.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public Key getKey() {
+        return key;
+    }
+
+    public Sort.Direction getDirection() {
+        return direction;
+    }
+
+    /**
+     * @return the value of the sort key of the last user read, or {@code null} for the first page.
+     */
+    public String getAfter() {
+        return after;
+    }
+
+    public Sort toSort() {
+        return Sort.by(direction, key.getProperty());
+    }
+
+    @Override
+    public String toString() {
+        return "UserCursor{" +
+            "key=" + key +
+            ", direction=" + direction +
+            ", after='" + after + '\'' +
+            "}";
+    }
+}
@@ -4,6 +4,7 @@ import io.github.jhipster.application.config.Constants;
 
 import io.github.jhipster.application.domain.Authority;
 import io.github.jhipster.application.domain.User;
+import io.github.jhipster.application.domain.UserSnapshot;
 
 import javax.validation.constraints.Email;
 import javax.validation.constraints.NotBlank;
@@ -75,6 +76,22 @@ public class UserDTO {
             .collect(Collectors.toSet());
     }
 
+    public UserDTO(UserSnapshot user) {
+        this.id = user.getId();
+        this.login = user.getLogin();
+        this.firstName = user.getFirstName();
+        this.lastName = user.getLastName();
+        this.email = user.getEmail();
+        this.activated = user.isActivated();
+        this.imageUrl = user.getImageUrl();
+        this.langKey = user.getLangKey();
+        this.createdBy = user.getCreatedBy();
+        this.createdDate = user.getCreatedDate();
+        this.lastModifiedBy = user.getLastModifiedBy();
+        this.lastModifiedDate = user.getLastModifiedDate();
+        this.authorities = user.getAuthorities();
+    }
+
     public Long getId() {
         return id;
     }
@@ -0,0 +1,135 @@
+package io.github.jhipster.application.service.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A DTO representing the outcome of a user import: the users imported, and the rows rejected with their reason.
+ */
+public class UserImportReportDTO {
+
+    private long imported;
+
+    private long rejected;
+
+    private List<RowError> errors = new ArrayList<>();
+
+    private boolean errorsTruncated;
+
+    private long durationInMs;
+
+    private double usersPerSecond;
+
+    public UserImportReportDTO() {
+        // Empty constructor needed for Jackson.
+    }
+
+    public long getImported() {
+        return imported;
+    }
+
+    public void setImported(long imported) {
+        this.imported = imported;
+    }
+
+    public long getRejected() {
+        return rejected;
+    }
+
+    public void setRejected(long rejected) {
+        this.rejected = rejected;
+    }
+
+    /**
+     * @return the errors of the first rejected rows.
+     */
+    public List<RowError> getErrors() {
+        return errors;
+    }
+
+    public void setErrors(List<RowError> errors) {
+        this.errors = errors;
+    }
+
+    /**
+     * @return whether more rows were rejected than reported in {@link #getErrors()}.
+     */
+    public boolean isErrorsTruncated() {
+        return errorsTruncated;
+    }
+
+    public void setErrorsTruncated(boolean errorsTruncated) {
+        this.errorsTruncated = errorsTruncated;
+    }
+
+    public long getDurationInMs() {
+        return durationInMs;
+    }
+
+    public void setDurationInMs(long durationInMs) {
+        this.durationInMs = durationInMs;
+    }
+
+    public double getUsersPerSecond() {
+        return usersPerSecond;
+    }
+
+    public void setUsersPerSecond(double usersPerSecond) {
+        this.usersPerSecond = usersPerSecond;
+    }
+
+    @Override
+    public String toString() {
+        return "UserImportReportDTO{" +
+            "imported=" + imported +
+            ", rejected=" + rejected +
+            ", durationInMs=" + durationInMs +
+            "}";
+    }
+
+    /**
+     * A rejected row: its number in the file, not counting the CSV header line, and its login if it could be read.
+     */
+    public static class RowError {
+
+        private long row;
+
+        private String login;
+
+        private String message;
+
+        public RowError() {
+            // Empty constructor needed for Jackson.
+        }
+
+        public RowError(long row, String login, String message) {
+            this.row = row;
+            this.login = login;
+            this.message = message;
+        }
+
+        public long getRow() {
+            return row;
+        }
+
+        public void setRow(long row) {
+            this.row = row;
+        }
+
+        public String getLogin() {
+            return login;
+        }
+
+        public void setLogin(String login) {
+            this.login = login;
+        }
+
+        public String getMessage() {
+            return message;
+        }
+
+        public void setMessage(String message) {
+            this.message = message;
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package io.github.jhipster.application.service.util;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads the records of a CSV stream one at a time, as written by RFC 4180: fields separated by commas, and quoted
+ * with double quotes when they contain commas, double quotes or line breaks.
+ */
+public class CsvReader {
+
+    private final Reader reader;
+
+    private int next;
+
+    public CsvReader(Reader reader) throws IOException {
+        this.reader = reader;
+        this.next = reader.read();
+    }
+
+    /**
+     * @return the fields of the next record, or {@code null} at the end of the stream.
+     * @throws IOException if the stream could not be read, or a quoted field is not closed.
+     */
+    public List<String> readRecord() throws IOException {
+        if (next < 0) {
+            return null;
+        }
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        while (true) {
+            int c = next;
+            next = reader.read();
+            if (quoted) {
+                if (c < 0) {
+                    throw new IOException("Unclosed quoted field");
+                } else if (c == '"' && next == '"') {
+                    field.append('"');
+                    next = reader.read();
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append((char) c);
+                }
+            } else if (c == '"' && field.length() == 0) {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (c == '\r' && next == '\n') {
+                // The line feed ends the record
+            } else if (c == '\n' || c < 0) {
+                fields.add(field.toString());
+                return fields;
+            } else {
+                field.append((char) c);
+            }
+        }
+    }
+}
@@ -2,6 +2,9 @@ package io.github.jhipster.application.service.util;
 
 import org.apache.commons.lang3.RandomStringUtils;
 
+import java.security.SecureRandom;
+import java.util.Base64;
+
 /**
  * Utility class for generating random Strings.
  */
@@ -9,6 +12,8 @@ public final class RandomUtil {
 
     private static final int DEF_COUNT = 20;
 
+    private static final SecureRandom SECURE_RANDOM = new SecureRandom();
+
     private RandomUtil() {
     }
 
@@ -38,4 +43,15 @@ public final class RandomUtil {
     public static String generateResetKey() {
         return RandomStringUtils.randomNumeric(DEF_COUNT);
     }
+
+    /**
+     * Generate a refresh token, with 256 bits of entropy.
+     *
+     * @return the generated refresh token.
+     */
+    public static String generateRefreshToken() {
+        byte[] bytes = new byte[32];
+        SECURE_RANDOM.nextBytes(bytes);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
 }
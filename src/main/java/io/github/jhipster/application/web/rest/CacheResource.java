@@ -0,0 +1,80 @@
+package io.github.jhipster.application.web.rest;
+
+import io.github.jhipster.application.service.cache.CacheEviction;
+import io.github.jhipster.application.service.cache.CacheInvalidationService;
+import io.github.jhipster.application.service.cache.EhcacheStatisticsRegistry;
+import io.github.jhipster.application.service.dto.CacheStatisticsDTO;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import javax.cache.Cache;
+import javax.cache.CacheManager;
+import java.util.*;
+
+/**
+ * REST controller reporting the statistics of the caches, and evicting their entries.
+ * <p>
+ * This covers the Spring caches as well as the Hibernate second-level cache regions, which share the same
+ * Ehcache {@link CacheManager}. Evictions are applied on all the nodes.
+ */
+@RestController
+@RequestMapping("/management")
+public class CacheResource {
+
+    private final Logger log = LoggerFactory.getLogger(CacheResource.class);
+
+    private final CacheManager cacheManager;
+
+    private final CacheInvalidationService cacheInvalidationService;
+
+    private final EhcacheStatisticsRegistry ehcacheStatisticsRegistry;
+
+    public CacheResource(CacheManager cacheManager, CacheInvalidationService cacheInvalidationService,
+                         EhcacheStatisticsRegistry ehcacheStatisticsRegistry) {
+        this.cacheManager = cacheManager;
+        this.cacheInvalidationService = cacheInvalidationService;
+        this.ehcacheStatisticsRegistry = ehcacheStatisticsRegistry;
+    }
+
+    /**
+     * {@code GET /caches} : get the statistics of all the caches.
+     *
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the statistics of the caches in body, by
+     * cache name.
+     */
+    @GetMapping("/caches")
+    public ResponseEntity<List<CacheStatisticsDTO>> getAllCaches() {
+        SortedSet<String> cacheNames = new TreeSet<>();
+        cacheManager.getCacheNames().forEach(cacheNames::add);
+        List<CacheStatisticsDTO> caches = new ArrayList<>();
+        for (String cacheName : cacheNames) {
+            Cache<Object, Object> cache = cacheManager.getCache(cacheName);
+            if (cache != null) {
+                caches.add(new CacheStatisticsDTO(ehcacheStatisticsRegistry.get(cache)));
+            }
+        }
+        return ResponseEntity.ok(caches);
+    }
+
+    /**
+     * {@code DELETE /caches/:name} : evict an entry of a cache, or all its entries.
+     *
+     * @param name the name of the cache, or of the Hibernate region.
+     * @param key the key of the entry to evict, or the identifier of the entity or collection owner; when not set,
+     * all the entries are evicted.
+     * @return the {@link ResponseEntity} with status {@code 204 (NO_CONTENT)}, or with status {@code 404 (Not Found)}
+     * if there is no such cache.
+     */
+    @DeleteMapping("/caches/{name:.+}")
+    public ResponseEntity<Void> evictCache(@PathVariable String name, @RequestParam(required = false) String key) {
+        log.debug("REST request to evict cache {}, key {}", name, key);
+        if (cacheManager.getCache(name) == null) {
+            return ResponseEntity.notFound().build();
+        }
+        cacheInvalidationService.evict(Collections.singletonList(key != null ? CacheEviction.of(name, key) : CacheEviction.clear(name)));
+        return ResponseEntity.noContent().build();
+    }
+}
@@ -0,0 +1,79 @@
+package io.github.jhipster.application.web.rest;
+
+import io.github.jhipster.application.security.jwt.JwtKeyRing;
+
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.math.BigInteger;
+import java.security.interfaces.ECPublicKey;
+import java.security.interfaces.RSAPublicKey;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * REST controller publishing the public keys of the {@link JwtKeyRing} as a JSON Web Key Set (RFC 7517), so that
+ * other services can verify our JWTs.
+ */
+@RestController
+@RequestMapping("/management")
+public class JwksResource {
+
+    private static final Base64.Encoder BASE64_URL = Base64.getUrlEncoder().withoutPadding();
+
+    private final JwtKeyRing jwtKeyRing;
+
+    public JwksResource(JwtKeyRing jwtKeyRing) {
+        this.jwtKeyRing = jwtKeyRing;
+    }
+
+    /**
+     * {@code GET /jwks} : get the public keys used to verify JWTs, including the next key once it is published.
+     *
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the JSON Web Key Set in body,
+     * which has no keys when JWTs are signed with the HS512 secret.
+     */
+    @GetMapping("/jwks")
+    public ResponseEntity<Map<String, List<Map<String, String>>>> getJwks() {
+        List<Map<String, String>> keys = new ArrayList<>();
+        for (JwtKeyRing.SigningKey signingKey : jwtKeyRing.getVerificationKeys()) {
+            Map<String, String> jwk = new LinkedHashMap<>();
+            jwk.put("kid", signingKey.getKid());
+            jwk.put("use", "sig");
+            jwk.put("alg", signingKey.getAlgorithm().getValue());
+            if (signingKey.getPublicKey() instanceof RSAPublicKey) {
+                RSAPublicKey publicKey = (RSAPublicKey) signingKey.getPublicKey();
+                jwk.put("kty", "RSA");
+                jwk.put("n", encode(publicKey.getModulus(), 0));
+                jwk.put("e", encode(publicKey.getPublicExponent(), 0));
+            } else if (signingKey.getPublicKey() instanceof ECPublicKey) {
+                ECPublicKey publicKey = (ECPublicKey) signingKey.getPublicKey();
+                jwk.put("kty", "EC");
+                jwk.put("crv", "P-256");
+                jwk.put("x", encode(publicKey.getW().getAffineX(), 32));
+                jwk.put("y", encode(publicKey.getW().getAffineY(), 32));
+            } else {
+                continue;
+            }
+            keys.add(jwk);
+        }
+        return ResponseEntity.ok()
+            .cacheControl(CacheControl.maxAge(5, TimeUnit.MINUTES).cachePublic())
+            .body(Collections.singletonMap("keys", keys));
+    }
+
+    /**
+     * Base64url-encode an unsigned big-endian integer, left-padded with zeros to {@code length} bytes.
+     */
+    private static String encode(BigInteger value, int length) {
+        byte[] bytes = value.toByteArray();
+        int start = bytes.length > 1 && bytes[0] == 0 ? 1 : 0;
+        int size = Math.max(bytes.length - start, length);
+        byte[] unsigned = new byte[size];
+        System.arraycopy(bytes, start, unsigned, size - (bytes.length - start), bytes.length - start);
+        return BASE64_URL.encodeToString(unsigned);
+    }
+}
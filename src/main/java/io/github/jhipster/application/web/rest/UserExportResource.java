@@ -0,0 +1,61 @@
+package io.github.jhipster.application.web.rest;
+
+import io.github.jhipster.application.security.AuthoritiesConstants;
+import io.github.jhipster.application.service.UserExportService;
+import io.github.jhipster.application.service.UserFileFormat;
+import io.github.jhipster.application.web.rest.errors.BadRequestAlertException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.Locale;
+
+/**
+ * REST controller exporting all the users in one response, streamed as they are read from the database.
+ */
+@RestController
+@RequestMapping("/api")
+public class UserExportResource {
+
+    private final Logger log = LoggerFactory.getLogger(UserExportResource.class);
+
+    private final UserExportService userExportService;
+
+    public UserExportResource(UserExportService userExportService) {
+        this.userExportService = userExportService;
+    }
+
+    /**
+     * {@code GET /users/export} : export all users, sorted by id.
+     * <p>
+     * An interrupted export is resumed by passing the id of the last user received as {@code afterId}: the CSV
+     * header line is then omitted.
+     *
+     * @param format the export format: {@code ndjson} or {@code csv}.
+     * @param afterId the id of the last user already received, to resume an export.
+     * @param response the response the users are written to, with status {@code 200 (OK)}.
+     * @throws IOException if the users could not be written.
+     * @throws BadRequestAlertException {@code 400 (Bad Request)} if the format is unknown.
+     */
+    @GetMapping("/users/export")
+    @PreAuthorize("hasRole(\"" + AuthoritiesConstants.ADMIN + "\")")
+    public void exportUsers(@RequestParam(defaultValue = "ndjson") String format, @RequestParam(required = false) Long afterId,
+                            HttpServletResponse response) throws IOException {
+        log.debug("REST request to export Users as {} after id : {}", format, afterId);
+        UserFileFormat exportFormat;
+        try {
+            exportFormat = UserFileFormat.valueOf(format.toUpperCase(Locale.ENGLISH));
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestAlertException("Unknown export format " + format, "userManagement", "invalidformat");
+        }
+        response.setContentType(exportFormat.getContentType() + ";charset=UTF-8");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+            "attachment; filename=\"users." + exportFormat.name().toLowerCase(Locale.ENGLISH) + "\"");
+        userExportService.export(exportFormat, afterId, response.getOutputStream());
+    }
+}
@@ -0,0 +1,60 @@
+package io.github.jhipster.application.web.rest;
+
+import io.github.jhipster.application.security.AuthoritiesConstants;
+import io.github.jhipster.application.service.UserFileFormat;
+import io.github.jhipster.application.service.UserImportService;
+import io.github.jhipster.application.service.dto.UserImportReportDTO;
+import io.github.jhipster.application.web.rest.errors.BadRequestAlertException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Locale;
+
+/**
+ * REST controller importing users in bulk, streamed from the request body.
+ */
+@RestController
+@RequestMapping("/api")
+public class UserImportResource {
+
+    private final Logger log = LoggerFactory.getLogger(UserImportResource.class);
+
+    private final UserImportService userImportService;
+
+    public UserImportResource(UserImportService userImportService) {
+        this.userImportService = userImportService;
+    }
+
+    /**
+     * {@code POST /users/import} : import users, as NDJSON or CSV.
+     * <p>
+     * Valid rows are imported even if others are rejected: the report lists the rejected rows with their error.
+     *
+     * @param format the format of the request body: {@code ndjson} or {@code csv}.
+     * @param body the request body.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the report of the import.
+     * @throws BadRequestAlertException {@code 400 (Bad Request)} if the format is unknown, or the body cannot be read.
+     */
+    @PostMapping("/users/import")
+    @PreAuthorize("hasRole(\"" + AuthoritiesConstants.ADMIN + "\")")
+    public ResponseEntity<UserImportReportDTO> importUsers(@RequestParam(defaultValue = "ndjson") String format, InputStream body) {
+        log.debug("REST request to import Users as {}", format);
+        UserFileFormat importFormat;
+        try {
+            importFormat = UserFileFormat.valueOf(format.toUpperCase(Locale.ENGLISH));
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestAlertException("Unknown import format " + format, "userManagement", "invalidformat");
+        }
+        try {
+            return ResponseEntity.ok(userImportService.importUsers(importFormat, body));
+        } catch (IOException e) {
+            throw new BadRequestAlertException("Cannot read the users: " + e.getMessage(), "userManagement", "invalidimport");
+        }
+    }
+}
@@ -1,20 +1,30 @@
 package io.github.jhipster.application.web.rest;
 
+import io.github.jhipster.application.security.ClientAddressResolver;
+import io.github.jhipster.application.security.LoginThrottle;
+import io.github.jhipster.application.security.SecurityUtils;
 import io.github.jhipster.application.security.jwt.JWTFilter;
 import io.github.jhipster.application.security.jwt.TokenProvider;
+import io.github.jhipster.application.service.RefreshTokenService;
 import io.github.jhipster.application.web.rest.vm.LoginVM;
+import io.github.jhipster.application.web.rest.vm.RefreshTokenVM;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
 
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.config.annotation.authentication.builders.AuthenticationManagerBuilder;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.web.bind.annotation.*;
 
+import javax.servlet.http.HttpServletRequest;
 import javax.validation.Valid;
 
 /**
@@ -28,37 +38,107 @@ public class UserJWTController {
 
     private final AuthenticationManagerBuilder authenticationManagerBuilder;
 
-    public UserJWTController(TokenProvider tokenProvider, AuthenticationManagerBuilder authenticationManagerBuilder) {
+    private final RefreshTokenService refreshTokenService;
+
+    private final UserDetailsService userDetailsService;
+
+    private final LoginThrottle loginThrottle;
+
+    private final ClientAddressResolver clientAddressResolver;
+
+    public UserJWTController(TokenProvider tokenProvider, AuthenticationManagerBuilder authenticationManagerBuilder,
+                             RefreshTokenService refreshTokenService, UserDetailsService userDetailsService,
+                             LoginThrottle loginThrottle, ClientAddressResolver clientAddressResolver) {
         this.tokenProvider = tokenProvider;
         this.authenticationManagerBuilder = authenticationManagerBuilder;
+        this.refreshTokenService = refreshTokenService;
+        this.userDetailsService = userDetailsService;
+        this.loginThrottle = loginThrottle;
+        this.clientAddressResolver = clientAddressResolver;
     }
 
     @PostMapping("/authenticate")
-    public ResponseEntity<JWTToken> authorize(@Valid @RequestBody LoginVM loginVM) {
+    public ResponseEntity<JWTToken> authorize(@Valid @RequestBody LoginVM loginVM, HttpServletRequest request) {
+        // Rejects attempts over budget before their password gets hashed
+        loginThrottle.checkAttempt(loginVM.getUsername(), clientAddressResolver.resolve(request));
 
         UsernamePasswordAuthenticationToken authenticationToken =
             new UsernamePasswordAuthenticationToken(loginVM.getUsername(), loginVM.getPassword());
 
-        Authentication authentication = authenticationManagerBuilder.getObject().authenticate(authenticationToken);
+        Authentication authentication;
+        try {
+            authentication = authenticationManagerBuilder.getObject().authenticate(authenticationToken);
+        } catch (BadCredentialsException e) {
+            loginThrottle.recordFailure(loginVM.getUsername());
+            throw e;
+        }
         SecurityContextHolder.getContext().setAuthentication(authentication);
         boolean rememberMe = (loginVM.isRememberMe() == null) ? false : loginVM.isRememberMe();
+        if (Boolean.TRUE.equals(loginVM.isRefreshToken())) {
+            return createTokens(authentication, refreshTokenService.createRefreshToken(authentication.getName(), rememberMe));
+        }
         String jwt = tokenProvider.createToken(authentication, rememberMe);
         HttpHeaders httpHeaders = new HttpHeaders();
         httpHeaders.add(JWTFilter.AUTHORIZATION_HEADER, "Bearer " + jwt);
         return new ResponseEntity<>(new JWTToken(jwt), httpHeaders, HttpStatus.OK);
     }
 
+    /**
+     * {@code POST  /authenticate/refresh} : exchange a refresh token for a new JWT and a new refresh token.
+     *
+     * @param refreshTokenVM the refresh token, which cannot be used again.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the tokens in body,
+     * or with status {@code 401 (Unauthorized)} if the refresh token is not valid.
+     */
+    @PostMapping("/authenticate/refresh")
+    public ResponseEntity<JWTToken> refresh(@Valid @RequestBody RefreshTokenVM refreshTokenVM) {
+        RefreshTokenService.Rotation rotation = refreshTokenService.rotate(refreshTokenVM.getRefreshToken());
+        UserDetails user = userDetailsService.loadUserByUsername(rotation.getLogin());
+        Authentication authentication = new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities());
+        return createTokens(authentication, rotation.getRefreshToken());
+    }
+
+    /**
+     * {@code POST  /logout} : revoke the JWT of the current user, and the given refresh token.
+     *
+     * @param refreshTokenVM the refresh token to revoke, if any.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)}.
+     */
+    @PostMapping("/logout")
+    public ResponseEntity<Void> logout(@RequestBody(required = false) RefreshTokenVM refreshTokenVM) {
+        SecurityUtils.getCurrentUserJWT().ifPresent(tokenProvider::revokeToken);
+        if (refreshTokenVM != null && refreshTokenVM.getRefreshToken() != null) {
+            refreshTokenService.revokeRefreshToken(refreshTokenVM.getRefreshToken());
+        }
+        return ResponseEntity.ok().build();
+    }
+
+    private ResponseEntity<JWTToken> createTokens(Authentication authentication, String refreshToken) {
+        String jwt = tokenProvider.createAccessToken(authentication);
+        HttpHeaders httpHeaders = new HttpHeaders();
+        httpHeaders.add(JWTFilter.AUTHORIZATION_HEADER, "Bearer " + jwt);
+        return new ResponseEntity<>(new JWTToken(jwt, refreshToken), httpHeaders, HttpStatus.OK);
+    }
+
     /**
      * Object to return as body in JWT Authentication.
      */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
     static class JWTToken {
 
         private String idToken;
 
+        private String refreshToken;
+
         JWTToken(String idToken) {
             this.idToken = idToken;
         }
 
+        JWTToken(String idToken, String refreshToken) {
+            this.idToken = idToken;
+            this.refreshToken = refreshToken;
+        }
+
         @JsonProperty("id_token")
         String getIdToken() {
             return idToken;
@@ -67,5 +147,14 @@ public class UserJWTController {
         void setIdToken(String idToken) {
             this.idToken = idToken;
         }
+
+        @JsonProperty("refresh_token")
+        String getRefreshToken() {
+            return refreshToken;
+        }
+
+        void setRefreshToken(String refreshToken) {
+            this.refreshToken = refreshToken;
+        }
     }
 }
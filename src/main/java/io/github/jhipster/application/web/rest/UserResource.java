@@ -6,6 +6,7 @@ import io.github.jhipster.application.repository.UserRepository;
 import io.github.jhipster.application.security.AuthoritiesConstants;
 import io.github.jhipster.application.service.MailService;
 import io.github.jhipster.application.service.UserService;
+import io.github.jhipster.application.service.dto.UserCursor;
 import io.github.jhipster.application.service.dto.UserDTO;
 import io.github.jhipster.application.web.rest.errors.BadRequestAlertException;
 import io.github.jhipster.application.web.rest.errors.EmailAlreadyUsedException;
@@ -20,17 +21,21 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.util.LinkedMultiValueMap;
 import org.springframework.util.MultiValueMap;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.util.UriComponentsBuilder;
+import org.springframework.web.util.UriUtils;
 
 import javax.validation.Valid;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
 import java.util.*;
 
 /**
@@ -153,6 +158,49 @@ public class UserResource {
         return new ResponseEntity<>(page.getContent(), headers, HttpStatus.OK);
     }
 
+    /**
+     * {@code GET /users?cursor=} : get a page of users by keyset.
+     * <p>
+     * Unlike pages by number, deep pages do not scan the users of the previous pages. Pass an empty cursor, and
+     * optionally a sort on {@code id} or {@code login}, for the first page: the {@code next} link of the
+     * {@code Link} header holds the cursor of the next page, and is missing on the last page.
+     *
+     * @param cursor the cursor of the page, empty for the first page.
+     * @param count whether to count all users in the {@code X-Total-Count} header.
+     * @param queryParams a {@link MultiValueMap} query parameters.
+     * @param uriBuilder a {@link UriComponentsBuilder} URI builder.
+     * @param pageable the size and the sort of the page: its number is ignored.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the users of the page, or with status {@code 400 (Bad Request)} if the cursor or the sort is invalid.
+     */
+    @GetMapping(value = "/users", params = "cursor")
+    public ResponseEntity<List<UserDTO>> getAllUsersByCursor(@RequestParam String cursor,
+                                                             @RequestParam(defaultValue = "false") boolean count,
+                                                             @RequestParam MultiValueMap<String, String> queryParams,
+                                                             UriComponentsBuilder uriBuilder, Pageable pageable) {
+        UserCursor userCursor;
+        try {
+            userCursor = cursor.isEmpty() ? UserCursor.first(pageable.getSort()) : UserCursor.decode(cursor);
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestAlertException(e.getMessage(), "userManagement", "invalidcursor");
+        }
+        final Slice<UserDTO> page = userService.getAllManagedUsers(userCursor, pageable.getPageSize());
+        HttpHeaders headers = new HttpHeaders();
+        if (page.hasNext()) {
+            MultiValueMap<String, String> nextParams = new LinkedMultiValueMap<>(queryParams);
+            nextParams.set("cursor", userCursor.next(page.getContent().get(page.getNumberOfElements() - 1)).encode());
+            // Query values are fully encoded, as the "," of sort parameters would end the link of the header
+            MultiValueMap<String, String> encodedParams = new LinkedMultiValueMap<>();
+            nextParams.forEach((name, values) -> values.forEach(value ->
+                encodedParams.add(UriUtils.encode(name, StandardCharsets.UTF_8), UriUtils.encode(value, StandardCharsets.UTF_8))));
+            String next = uriBuilder.replaceQueryParams(encodedParams).build(true).toUriString();
+            headers.add(HttpHeaders.LINK, "<" + next + ">; rel=\"next\"");
+        }
+        if (count) {
+            headers.add("X-Total-Count", Long.toString(userService.countManagedUsers()));
+        }
+        return new ResponseEntity<>(page.getContent(), headers, HttpStatus.OK);
+    }
+
     /**
      * Gets a list of all roles.
      * @return a string list of all roles.
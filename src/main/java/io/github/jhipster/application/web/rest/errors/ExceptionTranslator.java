@@ -1,9 +1,12 @@
 package io.github.jhipster.application.web.rest.errors;
 
+import io.github.jhipster.application.security.LoginThrottledException;
+import io.github.jhipster.application.security.PasswordHashingRejectedException;
 import io.github.jhipster.web.util.HeaderUtil;
 
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.MethodArgumentNotValidException;
@@ -114,4 +117,26 @@ public class ExceptionTranslator implements ProblemHandling, SecurityAdviceTrait
             .build();
         return create(ex, problem, request);
     }
+
+    @ExceptionHandler
+    public ResponseEntity<Problem> handlePasswordHashingRejected(PasswordHashingRejectedException ex, NativeWebRequest request) {
+        Problem problem = Problem.builder()
+            .withStatus(Status.SERVICE_UNAVAILABLE)
+            .with(MESSAGE_KEY, ErrorConstants.ERR_SERVICE_UNAVAILABLE)
+            .build();
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.RETRY_AFTER, "1");
+        return create(ex, problem, request, headers);
+    }
+
+    @ExceptionHandler
+    public ResponseEntity<Problem> handleLoginThrottled(LoginThrottledException ex, NativeWebRequest request) {
+        Problem problem = Problem.builder()
+            .withStatus(Status.TOO_MANY_REQUESTS)
+            .with(MESSAGE_KEY, ErrorConstants.ERR_TOO_MANY_REQUESTS)
+            .build();
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterInSeconds()));
+        return create(ex, problem, request, headers);
+    }
 }
@@ -18,6 +18,11 @@ public class LoginVM {
 
     private Boolean rememberMe;
 
+    /**
+     * Whether to issue a short-lived JWT along with a refresh token, rather than a long-lived JWT.
+     */
+    private Boolean refreshToken;
+
     public String getUsername() {
         return username;
     }
@@ -42,11 +47,20 @@ public class LoginVM {
         this.rememberMe = rememberMe;
     }
 
+    public Boolean isRefreshToken() {
+        return refreshToken;
+    }
+
+    public void setRefreshToken(Boolean refreshToken) {
+        this.refreshToken = refreshToken;
+    }
+
     @Override
     public String toString() {
         return "LoginVM{" +
             "username='" + username + '\'' +
             ", rememberMe=" + rememberMe +
+            ", refreshToken=" + refreshToken +
             '}';
     }
 }
@@ -0,0 +1,220 @@
+package io.github.jhipster.application.config;
+
+import io.github.jhipster.application.domain.User;
+import io.github.jhipster.application.repository.UserRepository;
+import io.github.jhipster.application.service.cache.EhcacheMetrics;
+import io.github.jhipster.config.JHipsterProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import org.ehcache.config.CacheRuntimeConfiguration;
+import org.ehcache.config.ResourcePools;
+import org.ehcache.config.ResourceType;
+import org.ehcache.core.config.DefaultConfiguration;
+import org.ehcache.jsr107.EhcacheCachingProvider;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.BeanInitializationException;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.context.properties.source.MapConfigurationPropertySource;
+import org.springframework.util.FileSystemUtils;
+import org.springframework.util.unit.DataSize;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Test class for the {@link CacheConfiguration} per-cache settings.
+ */
+public class CacheConfigurationTest {
+
+    private static final String USER_CACHE = User.class.getName();
+
+    private CacheManager cacheManager;
+
+    private Path persistenceDirectory;
+
+    @AfterEach
+    public void tearDown() throws Exception {
+        if (cacheManager != null) {
+            cacheManager.close();
+        }
+        if (persistenceDirectory != null) {
+            FileSystemUtils.deleteRecursively(persistenceDirectory);
+        }
+    }
+
+    @Test
+    public void testCachesDefaultToHeap() {
+        cacheManager = ((EhcacheCachingProvider) Caching.getCachingProvider(EhcacheCachingProvider.class.getName()))
+            .getCacheManager(URI.create("urn:heap"), new DefaultConfiguration(getClass().getClassLoader()));
+        new CacheConfiguration(new JHipsterProperties(), new ApplicationProperties()).cacheManagerCustomizer().customize(cacheManager);
+
+        ResourcePools resourcePools = resourcePools(USER_CACHE);
+
+        assertThat(resourcePools.getResourceTypeSet()).containsExactly(ResourceType.Core.HEAP);
+        assertThat(resourcePools.getPoolForResource(ResourceType.Core.HEAP).getSize()).isEqualTo(100);
+    }
+
+    @Test
+    public void testOffheapTier() {
+        ApplicationProperties applicationProperties = new ApplicationProperties();
+        ApplicationProperties.Cache.Region region = new ApplicationProperties.Cache.Region();
+        region.setHeapEntries(10L);
+        region.setOffheap(DataSize.ofMegabytes(2));
+        applicationProperties.getCache().getRegions().put(USER_CACHE, region);
+        cacheManager = ((EhcacheCachingProvider) Caching.getCachingProvider(EhcacheCachingProvider.class.getName()))
+            .getCacheManager(URI.create("urn:offheap"), new DefaultConfiguration(getClass().getClassLoader()));
+        new CacheConfiguration(new JHipsterProperties(), applicationProperties).cacheManagerCustomizer().customize(cacheManager);
+
+        assertThat(resourcePools(USER_CACHE).getPoolForResource(ResourceType.Core.OFFHEAP).getSize()).isEqualTo(2 * 1024 * 1024);
+        assertRoundTrips(USER_CACHE);
+    }
+
+    @Test
+    public void testOffheapMetrics() {
+        ApplicationProperties applicationProperties = new ApplicationProperties();
+        ApplicationProperties.Cache.Region region = new ApplicationProperties.Cache.Region();
+        region.setHeapEntries(10L);
+        region.setOffheap(DataSize.ofMegabytes(2));
+        applicationProperties.getCache().getRegions().put(USER_CACHE, region);
+        cacheManager = ((EhcacheCachingProvider) Caching.getCachingProvider(EhcacheCachingProvider.class.getName()))
+            .getCacheManager(URI.create("urn:metrics"), new DefaultConfiguration(getClass().getClassLoader()));
+        new CacheConfiguration(new JHipsterProperties(), applicationProperties).cacheManagerCustomizer().customize(cacheManager);
+        MeterRegistry meterRegistry = new SimpleMeterRegistry();
+        new EhcacheMetrics(cacheManager.getCache(USER_CACHE), Tags.empty()).bindTo(meterRegistry);
+        new EhcacheMetrics(cacheManager.getCache(UserRepository.USERS_BY_LOGIN_CACHE), Tags.empty()).bindTo(meterRegistry);
+
+        assertRoundTrips(USER_CACHE);
+        cacheManager.getCache(USER_CACHE).get(-1L);
+
+        assertThat(meterRegistry.get("cache.gets").tag("cache", USER_CACHE).tag("result", "hit").functionCounter().count()).isEqualTo(100);
+        assertThat(meterRegistry.get("cache.gets").tag("cache", USER_CACHE).tag("result", "miss").functionCounter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("cache.puts").tag("cache", USER_CACHE).functionCounter().count()).isEqualTo(100);
+        assertThat(meterRegistry.get("cache.size").tag("cache", USER_CACHE).gauge().value()).isEqualTo(100);
+        assertThat(meterRegistry.get("cache.offheap.size").tag("cache", USER_CACHE).gauge().value()).isPositive();
+        assertThat(meterRegistry.find("cache.offheap.size").tag("cache", UserRepository.USERS_BY_LOGIN_CACHE).gauge()).isNull();
+    }
+
+    @Test
+    public void testDiskTier() throws Exception {
+        persistenceDirectory = Files.createTempDirectory("cache");
+        ApplicationProperties applicationProperties = new ApplicationProperties();
+        applicationProperties.getCache().setPersistenceDirectory(persistenceDirectory.toString());
+        ApplicationProperties.Cache.Region region = new ApplicationProperties.Cache.Region();
+        region.setHeapEntries(10L);
+        region.setOffheap(DataSize.ofMegabytes(1));
+        region.setDisk(DataSize.ofMegabytes(4));
+        applicationProperties.getCache().getRegions().put(USER_CACHE, region);
+
+        cacheManager = new CacheConfiguration(new JHipsterProperties(), applicationProperties).jCacheCacheManager();
+
+        assertThat(resourcePools(USER_CACHE).getResourceTypeSet())
+            .contains(ResourceType.Core.HEAP, ResourceType.Core.OFFHEAP, ResourceType.Core.DISK);
+        assertRoundTrips(USER_CACHE);
+    }
+
+    @Test
+    public void testRegionsBindFromProperties() {
+        Map<String, String> properties = new HashMap<>();
+        properties.put("application.cache.regions.[io.github.jhipster.application.domain.User].offheap", "64MB");
+        properties.put("application.cache.regions.usersByLogin.time-to-idle-seconds", "60");
+        properties.put("application.cache.regions.usersByLogin.eviction-advisor", RetainAllEvictionAdvisor.class.getName());
+
+        ApplicationProperties applicationProperties = new Binder(new MapConfigurationPropertySource(properties))
+            .bind("application", ApplicationProperties.class).get();
+
+        assertThat(applicationProperties.getCache().getRegions().get(USER_CACHE).getOffheap()).isEqualTo(DataSize.ofMegabytes(64));
+        assertThat(applicationProperties.getCache().getRegions().get("usersByLogin").getTimeToIdleSeconds()).isEqualTo(60);
+        assertThat(applicationProperties.getCache().getRegions().get("usersByLogin").getEvictionAdvisor())
+            .isEqualTo(RetainAllEvictionAdvisor.class);
+    }
+
+    @Test
+    public void testExpiryAndEvictionAdvisor() {
+        ApplicationProperties applicationProperties = new ApplicationProperties();
+        ApplicationProperties.Cache.Region region = new ApplicationProperties.Cache.Region();
+        region.setTimeToIdleSeconds(60L);
+        region.setEvictionAdvisor(RetainAllEvictionAdvisor.class);
+        applicationProperties.getCache().getRegions().put(USER_CACHE, region);
+        cacheManager = ((EhcacheCachingProvider) Caching.getCachingProvider(EhcacheCachingProvider.class.getName()))
+            .getCacheManager(URI.create("urn:expiry"), new DefaultConfiguration(getClass().getClassLoader()));
+        new CacheConfiguration(new JHipsterProperties(), applicationProperties).cacheManagerCustomizer().customize(cacheManager);
+
+        CacheRuntimeConfiguration<Object, Object> configuration = runtimeConfiguration(USER_CACHE);
+
+        assertThat(configuration.getEvictionAdvisor()).isInstanceOf(RetainAllEvictionAdvisor.class);
+        assertThat(configuration.getExpiryPolicy().getExpiryForAccess("key", () -> "value")).isEqualTo(Duration.ofSeconds(60));
+        assertThat(runtimeConfiguration(UserRepository.USERS_BY_LOGIN_CACHE).getExpiryPolicy().getExpiryForAccess("key", () -> "value"))
+            .isNull();
+    }
+
+    @Test
+    public void testTimeToLiveAndTimeToIdleAreExclusive() {
+        ApplicationProperties applicationProperties = new ApplicationProperties();
+        ApplicationProperties.Cache.Region region = new ApplicationProperties.Cache.Region();
+        region.setTimeToLiveSeconds(60L);
+        region.setTimeToIdleSeconds(60L);
+        applicationProperties.getCache().getRegions().put(USER_CACHE, region);
+        cacheManager = ((EhcacheCachingProvider) Caching.getCachingProvider(EhcacheCachingProvider.class.getName()))
+            .getCacheManager(URI.create("urn:exclusive"), new DefaultConfiguration(getClass().getClassLoader()));
+
+        assertThatThrownBy(() -> new CacheConfiguration(new JHipsterProperties(), applicationProperties)
+            .cacheManagerCustomizer().customize(cacheManager))
+            .isInstanceOf(BeanInitializationException.class);
+    }
+
+    @Test
+    public void testStaleWhileRevalidateExtendsTimeToLive() {
+        ApplicationProperties applicationProperties = new ApplicationProperties();
+        ApplicationProperties.Cache.Region region = new ApplicationProperties.Cache.Region();
+        region.setTimeToLiveSeconds(300L);
+        region.setRefreshAheadSeconds(30L);
+        region.setStaleWhileRevalidateSeconds(60L);
+        applicationProperties.getCache().getRegions().put(UserRepository.USERS_BY_LOGIN_CACHE, region);
+        cacheManager = ((EhcacheCachingProvider) Caching.getCachingProvider(EhcacheCachingProvider.class.getName()))
+            .getCacheManager(URI.create("urn:stale"), new DefaultConfiguration(getClass().getClassLoader()));
+        CacheConfiguration cacheConfiguration = new CacheConfiguration(new JHipsterProperties(), applicationProperties);
+        cacheConfiguration.cacheManagerCustomizer().customize(cacheManager);
+
+        assertThat(runtimeConfiguration(UserRepository.USERS_BY_LOGIN_CACHE).getExpiryPolicy().getExpiryForCreation("key", "value"))
+            .isEqualTo(Duration.ofSeconds(360));
+        assertThat(cacheConfiguration.refreshAheadPolicies(Collections.singletonMap(UserRepository.USERS_BY_LOGIN_CACHE, login -> { })))
+            .containsOnlyKeys(UserRepository.USERS_BY_LOGIN_CACHE);
+        assertThatThrownBy(() -> cacheConfiguration.refreshAheadPolicies(Collections.emptyMap()))
+            .isInstanceOf(BeanInitializationException.class);
+    }
+
+    private void assertRoundTrips(String cacheName) {
+        javax.cache.Cache<Object, Object> cache = cacheManager.getCache(cacheName);
+        for (long id = 0; id < 100; id++) {
+            User user = new User();
+            user.setId(id);
+            user.setLogin("user-" + id);
+            cache.put(id, user);
+        }
+        for (long id = 0; id < 100; id++) {
+            assertThat(((User) cache.get(id)).getLogin()).isEqualTo("user-" + id);
+        }
+    }
+
+    private ResourcePools resourcePools(String cacheName) {
+        return runtimeConfiguration(cacheName).getResourcePools();
+    }
+
+    @SuppressWarnings("unchecked")
+    private CacheRuntimeConfiguration<Object, Object> runtimeConfiguration(String cacheName) {
+        return cacheManager.getCache(cacheName).unwrap(org.ehcache.Cache.class).getRuntimeConfiguration();
+    }
+}
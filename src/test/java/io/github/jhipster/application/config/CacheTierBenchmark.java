@@ -0,0 +1,94 @@
+package io.github.jhipster.application.config;
+
+import io.github.jhipster.application.domain.User;
+import io.github.jhipster.config.JHipsterProperties;
+
+import org.ehcache.core.config.DefaultConfiguration;
+import org.ehcache.jsr107.EhcacheCachingProvider;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.util.unit.DataSize;
+
+import javax.cache.Cache;
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.io.Serializable;
+import java.net.URI;
+import java.time.Instant;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Hit latency and full GC pause of the {@code User} second-level cache, filled with {@link #ENTRIES} users, per
+ * tier configuration: all on heap, or mostly off-heap behind a small heap tier.
+ * <p>
+ * {@code hit} reads a random user; {@code fullGc} times a full collection, which has to trace every entry kept on
+ * heap. Run it with {@code ./mvnw test-compile} then the {@link #main(String[])} method of this class.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(value = 1, jvmArgs = {"-Xmx1g", "-XX:MaxDirectMemorySize=1g"})
+@State(Scope.Benchmark)
+public class CacheTierBenchmark {
+
+    private static final int ENTRIES = 100000;
+
+    private static final String USER_CACHE = User.class.getName();
+
+    @Param({"heap", "offheap"})
+    public String tiers;
+
+    private CacheManager cacheManager;
+
+    private Cache<Object, Object> cache;
+
+    @Setup
+    public void setup() {
+        ApplicationProperties applicationProperties = new ApplicationProperties();
+        ApplicationProperties.Cache.Region region = new ApplicationProperties.Cache.Region();
+        if ("heap".equals(tiers)) {
+            region.setHeapEntries((long) ENTRIES);
+        } else {
+            region.setHeapEntries(1000L);
+            region.setOffheap(DataSize.ofMegabytes(256));
+        }
+        applicationProperties.getCache().getRegions().put(USER_CACHE, region);
+        cacheManager = ((EhcacheCachingProvider) Caching.getCachingProvider(EhcacheCachingProvider.class.getName()))
+            .getCacheManager(URI.create("urn:" + tiers), new DefaultConfiguration(getClass().getClassLoader()));
+        new CacheConfiguration(new JHipsterProperties(), applicationProperties).cacheManagerCustomizer().customize(cacheManager);
+        cache = cacheManager.getCache(USER_CACHE);
+        for (long id = 0; id < ENTRIES; id++) {
+            // Hibernate caches the disassembled state of the entity, rather than the entity itself
+            cache.put(id, new Serializable[]{"user-" + id, "$2a$10$" + id, "First" + id, "Last" + id,
+                "user-" + id + "@localhost", null, true, "en", null, null, null, "system", Instant.now(), "system",
+                Instant.now()});
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        cacheManager.close();
+    }
+
+    @Benchmark
+    public Object hit() {
+        return cache.get((long) ThreadLocalRandom.current().nextInt(ENTRIES));
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 2)
+    @Measurement(iterations = 10)
+    public void fullGc() {
+        System.gc();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(CacheTierBenchmark.class.getSimpleName()).build()).run();
+    }
+}
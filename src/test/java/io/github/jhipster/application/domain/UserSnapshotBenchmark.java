@@ -0,0 +1,113 @@
+package io.github.jhipster.application.domain;
+
+import io.github.jhipster.application.security.AuthoritiesConstants;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.time.Instant;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Memory footprint of the entries of the user caches: a detached {@link User} entity with its authorities, or a
+ * {@link UserSnapshot}.
+ * <p>
+ * {@code serialize} times the serialization of a value, as done when it moves to an off-heap or disk tier, and
+ * reports its size in the {@code serializedBytesPerEntry} counter. The {@code heapBytesPerEntry} counter reports
+ * the heap retained per entry by {@link #ENTRIES} values, as kept by a heap tier, measured once per iteration. The
+ * entity is built with a plain {@code HashSet} of authorities, where Hibernate would use a heavier persistent set.
+ * Run it with {@code ./mvnw test-compile} then the {@link #main(String[])} method of this class.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 2, time = 1)
+@Measurement(iterations = 3, time = 1)
+@Fork(value = 1, jvmArgs = "-Xmx1g")
+@State(Scope.Benchmark)
+public class UserSnapshotBenchmark {
+
+    private static final int ENTRIES = 100000;
+
+    @Param({"entity", "snapshot"})
+    public String entry;
+
+    private Serializable value;
+
+    private long heapBytesPerEntry;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Footprint {
+
+        public long heapBytesPerEntry;
+
+        public long serializedBytesPerEntry;
+    }
+
+    @Setup(Level.Iteration)
+    public void setup() {
+        value = value(0);
+        long before = usedHeap();
+        Object[] values = new Object[ENTRIES];
+        for (int i = 0; i < ENTRIES; i++) {
+            values[i] = value(i);
+        }
+        heapBytesPerEntry = (usedHeap() - before) / ENTRIES;
+        // Keep the values reachable until they are measured
+        values[0] = null;
+    }
+
+    @Benchmark
+    public byte[] serialize(Footprint footprint) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(512);
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(value);
+        }
+        footprint.heapBytesPerEntry = heapBytesPerEntry;
+        footprint.serializedBytesPerEntry = bytes.size();
+        return bytes.toByteArray();
+    }
+
+    private Serializable value(int i) {
+        User user = new User();
+        user.setId((long) i);
+        user.setLogin("user-" + i);
+        user.setPassword("$2a$10$" + String.format("%053d", i));
+        user.setFirstName("First" + i);
+        user.setLastName("Last" + i);
+        user.setEmail("user-" + i + "@localhost");
+        user.setActivated(true);
+        user.setLangKey("en");
+        user.setCreatedBy("system");
+        user.setCreatedDate(Instant.now());
+        user.setLastModifiedBy("system");
+        user.setLastModifiedDate(Instant.now());
+        Set<Authority> authorities = new HashSet<>();
+        for (String name : new String[]{AuthoritiesConstants.USER, AuthoritiesConstants.ADMIN}) {
+            Authority authority = new Authority();
+            authority.setName(name);
+            authorities.add(authority);
+        }
+        user.setAuthorities(authorities);
+        return "entity".equals(entry) ? user : new UserSnapshot(user);
+    }
+
+    private static long usedHeap() {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return Runtime.getRuntime().totalMemory() - Runtime.getRuntime().freeMemory();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(UserSnapshotBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,97 @@
+package io.github.jhipster.application.domain;
+
+import io.github.jhipster.application.security.AuthoritiesConstants;
+import io.github.jhipster.application.security.AuthorityRegistry;
+
+import org.apache.commons.lang3.RandomStringUtils;
+import org.junit.jupiter.api.Test;
+
+import java.io.*;
+import java.time.Instant;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Test class for the {@link UserSnapshot} value class.
+ */
+public class UserSnapshotTest {
+
+    @Test
+    public void testSnapshotOfUser() {
+        UserSnapshot snapshot = new UserSnapshot(user(AuthoritiesConstants.ADMIN, "ROLE_SNAPSHOT"));
+
+        assertThat(snapshot.getId()).isEqualTo(42L);
+        assertThat(snapshot.getLogin()).isEqualTo("johndoe");
+        assertThat(snapshot.getEmail()).isEqualTo("johndoe@localhost");
+        assertThat(snapshot.isActivated()).isTrue();
+        assertThat(snapshot.getCreatedDate()).isEqualTo(Instant.ofEpochSecond(1000, 123));
+        assertThat(snapshot.getLastModifiedDate()).isNull();
+        assertThat(snapshot.getAuthorities()).containsExactlyInAnyOrder(AuthoritiesConstants.ADMIN, "ROLE_SNAPSHOT");
+        assertThat(snapshot.hasAuthority(AuthoritiesConstants.ADMIN)).isTrue();
+        assertThat(snapshot.hasAuthority(AuthoritiesConstants.USER)).isFalse();
+    }
+
+    @Test
+    public void testHasAuthorityDoesNotIndexUnknownNames() {
+        UserSnapshot snapshot = new UserSnapshot(user(AuthoritiesConstants.USER));
+
+        assertThat(snapshot.hasAuthority("ROLE_NEVER_GRANTED")).isFalse();
+        assertThat(AuthorityRegistry.lookupIndex("ROLE_NEVER_GRANTED")).isEqualTo(-1);
+    }
+
+    @Test
+    public void testSerializationRoundTrip() throws Exception {
+        UserSnapshot snapshot = new UserSnapshot(user(AuthoritiesConstants.ADMIN, AuthoritiesConstants.USER));
+
+        UserSnapshot deserialized = (UserSnapshot) deserialize(serialize(snapshot));
+
+        assertThat(deserialized).isEqualToComparingFieldByField(snapshot);
+        assertThat(deserialized.getAuthorities()).containsExactlyInAnyOrder(AuthoritiesConstants.ADMIN, AuthoritiesConstants.USER);
+    }
+
+    @Test
+    public void testSerializedFormIsSmallerThanEntity() throws Exception {
+        User user = user(AuthoritiesConstants.ADMIN, AuthoritiesConstants.USER);
+
+        assertThat(serialize(new UserSnapshot(user)).length).isLessThan(serialize(user).length / 2);
+    }
+
+    private static User user(String... authorities) {
+        User user = new User();
+        user.setId(42L);
+        user.setLogin("johndoe");
+        user.setPassword(RandomStringUtils.random(60));
+        user.setFirstName("John");
+        user.setLastName("Doe");
+        user.setEmail("johndoe@localhost");
+        user.setActivated(true);
+        user.setLangKey("en");
+        user.setCreatedBy("system");
+        user.setCreatedDate(Instant.ofEpochSecond(1000, 123));
+        user.setLastModifiedDate(null);
+        Set<Authority> userAuthorities = new HashSet<>();
+        for (String name : authorities) {
+            Authority authority = new Authority();
+            authority.setName(name);
+            userAuthorities.add(authority);
+        }
+        user.setAuthorities(userAuthorities);
+        return user;
+    }
+
+    private static byte[] serialize(Serializable value) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(value);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static Object deserialize(byte[] bytes) throws IOException, ClassNotFoundException {
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes))) {
+            return in.readObject();
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package io.github.jhipster.application.repository;
+
+import io.github.jhipster.application.domain.PersistentAuditEvent;
+
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.boot.MetadataSources;
+import org.hibernate.boot.registry.StandardServiceRegistry;
+import org.hibernate.boot.registry.StandardServiceRegistryBuilder;
+import org.hibernate.cfg.AvailableSettings;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Audit events inserted per second by Hibernate in an in-memory H2 database, by transactions of
+ * {@code eventsPerTransaction} events with two data entries each.
+ * <p>
+ * {@code identity} maps {@link PersistentAuditEvent} as before, with ids generated by the database on insert, which
+ * disables insert batching; {@code pooled} maps it as is, with ids allocated by blocks of 50 from a sequence, and
+ * inserts batched by 50. The {@code events} counter reports the events inserted per second.
+ * <p>
+ * H2 runs in memory, so that a statement costs no network round-trip: the JDBC statements executed per event are
+ * printed after each iteration, as they are what batching saves with a remote database. Run it with
+ * {@code ./mvnw test-compile} then the {@link #main(String[])} method of this class.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = "-Xmx1g")
+@State(Scope.Benchmark)
+public class AuditEventInsertBenchmark {
+
+    @Param({"identity", "pooled"})
+    public String ids;
+
+    @Param({"1", "100"})
+    public int eventsPerTransaction;
+
+    private SessionFactory sessionFactory;
+
+    private long events;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Inserts {
+
+        public long events;
+    }
+
+    /**
+     * Maps {@link PersistentAuditEvent} as before its ids came from a sequence. This is an override of its mapping,
+     * rather than another entity, which the application would scan from the test classes.
+     */
+    private static final String IDENTITY_MAPPING =
+        "<entity-mappings xmlns=\"http://xmlns.jcp.org/xml/ns/persistence/orm\" version=\"2.1\">" +
+            "<entity class=\"" + PersistentAuditEvent.class.getName() + "\">" +
+                "<attributes><id name=\"id\"><generated-value strategy=\"IDENTITY\"/></id></attributes>" +
+            "</entity>" +
+        "</entity-mappings>";
+
+    /**
+     * The tables are created for each iteration, so that their size does not grow over the benchmark.
+     */
+    @Setup(Level.Iteration)
+    public void setup() {
+        StandardServiceRegistryBuilder settings = new StandardServiceRegistryBuilder()
+            .applySetting(AvailableSettings.URL, "jdbc:h2:mem:audit-" + ids + "-" + eventsPerTransaction + ";DB_CLOSE_DELAY=-1")
+            .applySetting(AvailableSettings.USER, "sa")
+            .applySetting(AvailableSettings.HBM2DDL_AUTO, "create-drop")
+            .applySetting(AvailableSettings.GENERATE_STATISTICS, true);
+        if ("pooled".equals(ids)) {
+            settings.applySetting(AvailableSettings.STATEMENT_BATCH_SIZE, 50)
+                .applySetting(AvailableSettings.ORDER_INSERTS, true)
+                .applySetting(AvailableSettings.ORDER_UPDATES, true);
+        }
+        StandardServiceRegistry registry = settings.build();
+        MetadataSources sources = new MetadataSources(registry).addAnnotatedClass(PersistentAuditEvent.class);
+        if ("identity".equals(ids)) {
+            sources.addInputStream(new ByteArrayInputStream(IDENTITY_MAPPING.getBytes(StandardCharsets.UTF_8)));
+        }
+        sessionFactory = sources.buildMetadata().buildSessionFactory();
+    }
+
+    @TearDown(Level.Iteration)
+    public void tearDown() {
+        // Each batch is prepared once, and each statement outside of a batch
+        System.out.printf("%.2f JDBC statements per event%n",
+            (double) sessionFactory.getStatistics().getPrepareStatementCount() / Math.max(events, 1));
+        events = 0;
+        sessionFactory.close();
+    }
+
+    @Benchmark
+    public void insert(Inserts inserts) {
+        try (Session session = sessionFactory.openSession()) {
+            session.beginTransaction();
+            for (int i = 0; i < eventsPerTransaction; i++) {
+                Map<String, String> data = new HashMap<>();
+                data.put("remoteAddress", "127.0.0.1");
+                data.put("sessionId", "session-" + i);
+                PersistentAuditEvent event = new PersistentAuditEvent();
+                event.setPrincipal("user-" + i);
+                event.setAuditEventDate(Instant.now());
+                event.setAuditEventType("AUTHENTICATION_SUCCESS");
+                event.setData(data);
+                session.persist(event);
+            }
+            session.getTransaction().commit();
+        }
+        inserts.events += eventsPerTransaction;
+        events += eventsPerTransaction;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(AuditEventInsertBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,73 @@
+package io.github.jhipster.application.repository;
+
+import org.hibernate.jpa.QueryHints;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.framework.ProxyFactory;
+
+import javax.persistence.EntityManager;
+import javax.persistence.Query;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+public class CacheableQueryRepositoryFactoryBeanTest {
+
+    private static final String REGION = "allTests";
+
+    private Query query;
+
+    private TestRepository repository;
+
+    interface TestRepository {
+
+        @CacheableQuery(REGION)
+        List<?> findAllCached();
+
+        List<?> findAll();
+    }
+
+    @BeforeEach
+    public void setup() {
+        query = mock(Query.class, RETURNS_SELF);
+        EntityManager target = mock(EntityManager.class);
+        when(target.createQuery(anyString())).thenReturn(query);
+        EntityManager entityManager = CacheableQueryRepositoryFactoryBean.cacheableQueryEntityManager(target);
+        ProxyFactory proxyFactory = new ProxyFactory(new TestRepository() {
+
+            @Override
+            public List<?> findAllCached() {
+                return entityManager.createQuery("select t from Test t").getResultList();
+            }
+
+            @Override
+            public List<?> findAll() {
+                return entityManager.createQuery("select t from Test t").getResultList();
+            }
+        });
+        proxyFactory.addInterface(TestRepository.class);
+        proxyFactory.addAdvice(new CacheableQueryRepositoryFactoryBean.CacheableQueryInterceptor(TestRepository.class));
+        repository = (TestRepository) proxyFactory.getProxy();
+    }
+
+    @Test
+    public void testQueriesOfAnnotatedMethodsAreCached() {
+        repository.findAllCached();
+
+        verify(query).setHint(QueryHints.HINT_CACHEABLE, true);
+        verify(query).setHint(QueryHints.HINT_CACHE_REGION, REGION);
+    }
+
+    @Test
+    public void testQueriesOfOtherMethodsAreNotCached() {
+        repository.findAllCached();
+        reset(query);
+
+        repository.findAll();
+
+        verify(query, never()).setHint(anyString(), anyBoolean());
+        verify(query, never()).setHint(anyString(), anyString());
+    }
+}
@@ -0,0 +1,114 @@
+package io.github.jhipster.application.repository;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.sql.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency of a page of {@link #PAGE_SIZE} managed users at a given depth of a {@code jhi_user} table of
+ * {@link #USERS} users, in an in-memory H2 database, sorted by id.
+ * <p>
+ * {@code page} runs the queries of {@code UserRepository}: by number, the page query with an offset then the count
+ * query of {@code findAllByLoginNot}, or without the count query; by keyset, the seek query of {@code findSliceByLoginNotAndIdGreaterThan},
+ * which reads one more user to know whether there is a next page. Run it with {@code ./mvnw test-compile} then the
+ * {@link #main(String[])} method of this class.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 1)
+@Measurement(iterations = 3, time = 1)
+@Fork(value = 1, jvmArgs = "-Xmx1g")
+@State(Scope.Benchmark)
+public class UserPaginationBenchmark {
+
+    private static final int USERS = 200000;
+
+    private static final int PAGE_SIZE = 20;
+
+    private static final String ANONYMOUS_USER = "anonymoususer";
+
+    @Param({"0", "10000", "190000"})
+    public int depth;
+
+    @Param({"offset", "offsetWithoutCount", "keyset"})
+    public String pagination;
+
+    private Connection connection;
+
+    private PreparedStatement pageQuery;
+
+    private PreparedStatement countQuery;
+
+    @Setup
+    public void setup() throws SQLException {
+        connection = DriverManager.getConnection("jdbc:h2:mem:pagination;DB_CLOSE_DELAY=-1;OPTIMIZE_REUSE_RESULTS=0");
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("create table if not exists jhi_user (id bigint primary key, login varchar(50) not null, " +
+                "first_name varchar(50), last_name varchar(50), email varchar(191), activated boolean not null, " +
+                "constraint ux_user_login unique (login))");
+            statement.execute("delete from jhi_user");
+        }
+        try (PreparedStatement insert = connection.prepareStatement(
+            "insert into jhi_user (id, login, first_name, last_name, email, activated) values (?, ?, ?, ?, ?, true)")) {
+            for (int id = 1; id <= USERS; id++) {
+                insert.setLong(1, id);
+                insert.setString(2, id == 1 ? ANONYMOUS_USER : "user-" + id);
+                insert.setString(3, "First" + id);
+                insert.setString(4, "Last" + id);
+                insert.setString(5, "user-" + id + "@localhost");
+                insert.addBatch();
+                if (id % 1000 == 0) {
+                    insert.executeBatch();
+                }
+            }
+            insert.executeBatch();
+        }
+        String columns = "select id, login, first_name, last_name, email, activated from jhi_user";
+        if (pagination.startsWith("offset")) {
+            pageQuery = connection.prepareStatement(columns + " where login <> ? order by id asc limit ? offset ?");
+            pageQuery.setString(1, ANONYMOUS_USER);
+            pageQuery.setInt(2, PAGE_SIZE);
+            pageQuery.setInt(3, depth);
+            if ("offset".equals(pagination)) {
+                countQuery = connection.prepareStatement("select count(id) from jhi_user where login <> ?");
+                countQuery.setString(1, ANONYMOUS_USER);
+            }
+        } else {
+            pageQuery = connection.prepareStatement(columns + " where login <> ? and id > ? order by id asc limit ?");
+            pageQuery.setString(1, ANONYMOUS_USER);
+            // The id of the last user of the previous page: ids start at 1, and the anonymous user is skipped
+            pageQuery.setLong(2, depth + 1L);
+            pageQuery.setInt(3, PAGE_SIZE + 1);
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws SQLException {
+        connection.close();
+    }
+
+    @Benchmark
+    public void page(Blackhole blackhole) throws SQLException {
+        try (ResultSet users = pageQuery.executeQuery()) {
+            while (users.next()) {
+                blackhole.consume(users.getLong(1));
+                blackhole.consume(users.getString(2));
+            }
+        }
+        if (countQuery != null) {
+            try (ResultSet count = countQuery.executeQuery()) {
+                count.next();
+                blackhole.consume(count.getLong(1));
+            }
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(UserPaginationBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,50 @@
+package io.github.jhipster.application.security;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Login throughput per BCrypt cost: {@code matches} is what {@code /api/authenticate} runs for each login,
+ * {@code encode} is what a rehash on login adds once per user.
+ * <p>
+ * Run it with {@code ./mvnw test-compile} then the {@link #main(String[])} method of this class.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AdaptiveBCryptPasswordEncoderBenchmark {
+
+    @Param({"8", "10", "12"})
+    public int cost;
+
+    private AdaptiveBCryptPasswordEncoder encoder;
+
+    private String encodedPassword;
+
+    @Setup
+    public void setup() {
+        encoder = new AdaptiveBCryptPasswordEncoder(cost);
+        encodedPassword = encoder.encode("password");
+    }
+
+    @Benchmark
+    public boolean matches() {
+        return encoder.matches("password", encodedPassword);
+    }
+
+    @Benchmark
+    public String encode() {
+        return encoder.encode("password");
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(AdaptiveBCryptPasswordEncoderBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,56 @@
+package io.github.jhipster.application.security;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+/**
+ * Test class for the {@link AdaptiveBCryptPasswordEncoder} utility class.
+ */
+public class AdaptiveBCryptPasswordEncoderTest {
+
+    @Test
+    public void testEncodeWithTargetCost() {
+        AdaptiveBCryptPasswordEncoder encoder = new AdaptiveBCryptPasswordEncoder(5);
+
+        String encodedPassword = encoder.encode("password");
+
+        assertThat(encodedPassword).startsWith("$2a$05$").hasSize(60);
+        assertThat(AdaptiveBCryptPasswordEncoder.costOf(encodedPassword)).isEqualTo(5);
+        assertThat(encoder.matches("password", encodedPassword)).isTrue();
+        assertThat(encoder.matches("other", encodedPassword)).isFalse();
+    }
+
+    @Test
+    public void testMatchesHashesOfOtherCosts() {
+        AdaptiveBCryptPasswordEncoder encoder = new AdaptiveBCryptPasswordEncoder(5);
+
+        assertThat(encoder.matches("password", new BCryptPasswordEncoder(4).encode("password"))).isTrue();
+        assertThat(encoder.matches("password", new BCryptPasswordEncoder(6).encode("password"))).isTrue();
+    }
+
+    @Test
+    public void testUpgradeEncodingOnlyForWeakerHashes() {
+        AdaptiveBCryptPasswordEncoder encoder = new AdaptiveBCryptPasswordEncoder(5);
+
+        assertThat(encoder.upgradeEncoding(new BCryptPasswordEncoder(4).encode("password"))).isTrue();
+        assertThat(encoder.upgradeEncoding(encoder.encode("password"))).isFalse();
+        assertThat(encoder.upgradeEncoding(new BCryptPasswordEncoder(6).encode("password"))).isFalse();
+        assertThat(encoder.upgradeEncoding("not a bcrypt hash")).isFalse();
+        assertThat(encoder.upgradeEncoding(null)).isFalse();
+    }
+
+    @Test
+    public void testCalibrateStaysWithinBounds() {
+        assertThat(AdaptiveBCryptPasswordEncoder.calibrate(4, 6, 0)).isEqualTo(4);
+        assertThat(AdaptiveBCryptPasswordEncoder.calibrate(4, 6, 60000)).isEqualTo(6);
+    }
+
+    @Test
+    public void testInvalidCost() {
+        assertThatIllegalArgumentException().isThrownBy(() -> new AdaptiveBCryptPasswordEncoder(3));
+        assertThatIllegalArgumentException().isThrownBy(() -> new AdaptiveBCryptPasswordEncoder(32));
+    }
+}
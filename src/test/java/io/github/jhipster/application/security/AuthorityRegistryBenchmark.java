@@ -0,0 +1,51 @@
+package io.github.jhipster.application.security;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Allocation cost of turning the authority claim of a JWT into {@link GrantedAuthority} instances.
+ * <p>
+ * Run it with the GC profiler ({@code -prof gc}, enabled by {@link #main(String[])}) and compare
+ * {@code gc.alloc.rate.norm}: the registry path should not allocate.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AuthorityRegistryBenchmark {
+
+    @Param({AuthoritiesConstants.USER, AuthoritiesConstants.ADMIN + "," + AuthoritiesConstants.USER})
+    public String claim;
+
+    @Benchmark
+    public List<GrantedAuthority> splitAndAllocate() {
+        return Arrays.stream(claim.split(","))
+            .map(SimpleGrantedAuthority::new)
+            .collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public List<GrantedAuthority> registry() {
+        return AuthorityRegistry.fromClaim(claim);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+            .include(AuthorityRegistryBenchmark.class.getSimpleName())
+            .addProfiler(GCProfiler.class)
+            .build()).run();
+    }
+}
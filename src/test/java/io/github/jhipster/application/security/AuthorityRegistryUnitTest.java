@@ -0,0 +1,53 @@
+package io.github.jhipster.application.security;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.GrantedAuthority;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Test class for the {@link AuthorityRegistry} utility class.
+ */
+public class AuthorityRegistryUnitTest {
+
+    @Test
+    public void testAuthorityIsCanonical() {
+        assertThat(AuthorityRegistry.authority(AuthoritiesConstants.ADMIN))
+            .isSameAs(AuthorityRegistry.authority(new String(AuthoritiesConstants.ADMIN)));
+        assertThat(AuthorityRegistry.authority(AuthoritiesConstants.USER).getAuthority()).isEqualTo(AuthoritiesConstants.USER);
+    }
+
+    @Test
+    public void testFromClaimReturnsSharedImmutableList() {
+        List<GrantedAuthority> authorities = AuthorityRegistry.fromClaim(AuthoritiesConstants.ADMIN + "," + AuthoritiesConstants.USER);
+
+        assertThat(authorities).extracting(GrantedAuthority::getAuthority)
+            .containsExactly(AuthoritiesConstants.ADMIN, AuthoritiesConstants.USER);
+        assertThat(authorities.get(0)).isSameAs(AuthorityRegistry.authority(AuthoritiesConstants.ADMIN));
+        assertThat(AuthorityRegistry.fromClaim(new String(AuthoritiesConstants.ADMIN + "," + AuthoritiesConstants.USER)))
+            .isSameAs(authorities);
+        assertThatThrownBy(() -> authorities.add(AuthorityRegistry.authority(AuthoritiesConstants.ANONYMOUS)))
+            .isInstanceOf(UnsupportedOperationException.class);
+    }
+
+    @Test
+    public void testFromClaimSkipsEmptyNames() {
+        assertThat(AuthorityRegistry.fromClaim("")).isEmpty();
+        assertThat(AuthorityRegistry.fromClaim("ROLE_CUSTOM,,")).extracting(GrantedAuthority::getAuthority)
+            .containsExactly("ROLE_CUSTOM");
+    }
+
+    @Test
+    public void testIndexIsStable() {
+        int index = AuthorityRegistry.index("ROLE_INDEXED");
+
+        assertThat(index).isBetween(0, AuthorityRegistry.MAX_INDEXED - 1);
+        assertThat(AuthorityRegistry.index(new String("ROLE_INDEXED"))).isEqualTo(index);
+        assertThat(AuthorityRegistry.name(index)).isEqualTo("ROLE_INDEXED");
+        assertThat(AuthorityRegistry.name(AuthorityRegistry.index(AuthoritiesConstants.ADMIN))).isEqualTo(AuthoritiesConstants.ADMIN);
+        assertThat(AuthorityRegistry.lookupIndex("ROLE_INDEXED")).isEqualTo(index);
+    }
+}
@@ -0,0 +1,93 @@
+package io.github.jhipster.application.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Test class for the {@link BoundedPasswordEncoder}.
+ */
+public class BoundedPasswordEncoderTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final CountDownLatch started = new CountDownLatch(1);
+
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    private BoundedPasswordEncoder encoder;
+
+    @AfterEach
+    public void tearDown() {
+        release.countDown();
+        if (encoder != null) {
+            encoder.destroy();
+        }
+    }
+
+    @Test
+    public void testEncodeAndMatchRecordTimers() {
+        encoder = new BoundedPasswordEncoder(new AdaptiveBCryptPasswordEncoder(4), 1, 1, meterRegistry);
+
+        String hash = encoder.encode("password");
+
+        assertThat(encoder.matches("password", hash)).isTrue();
+        assertThat(encoder.matches("other", hash)).isFalse();
+        assertThat(meterRegistry.get("password.hashing.time").tag("operation", "encode").timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("password.hashing.time").tag("operation", "matches").timer().count()).isEqualTo(2);
+        assertThat(meterRegistry.get("password.hashing.queue").tag("operation", "matches").timer().count()).isEqualTo(2);
+    }
+
+    @Test
+    public void testSaturatedPoolRejects() throws Exception {
+        encoder = new BoundedPasswordEncoder(new BlockingPasswordEncoder(), 1, 1, meterRegistry);
+        CompletableFuture<String> running = CompletableFuture.supplyAsync(() -> encoder.encode("running"));
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+        CompletableFuture<String> queued = CompletableFuture.supplyAsync(() -> encoder.encode("queued"));
+        while (meterRegistry.get("password.hashing.queue.size").gauge().value() < 1) {
+            Thread.sleep(1);
+        }
+
+        assertThatThrownBy(() -> encoder.encode("rejected")).isInstanceOf(PasswordHashingRejectedException.class);
+        assertThat(meterRegistry.get("password.hashing.rejections").counter().count()).isEqualTo(1);
+
+        release.countDown();
+        assertThat(running.get(5, TimeUnit.SECONDS)).isEqualTo("running");
+        assertThat(queued.get(5, TimeUnit.SECONDS)).isEqualTo("queued");
+    }
+
+    @Test
+    public void testUpgradeEncodingIsDelegated() {
+        encoder = new BoundedPasswordEncoder(new AdaptiveBCryptPasswordEncoder(12), 1, 1, meterRegistry);
+
+        assertThat(encoder.upgradeEncoding(new AdaptiveBCryptPasswordEncoder(4).encode("password"))).isTrue();
+    }
+
+    private class BlockingPasswordEncoder implements PasswordEncoder {
+
+        @Override
+        public String encode(CharSequence rawPassword) {
+            started.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return rawPassword.toString();
+        }
+
+        @Override
+        public boolean matches(CharSequence rawPassword, String encodedPassword) {
+            return rawPassword.toString().equals(encodedPassword);
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package io.github.jhipster.application.security;
+
+import io.github.jhipster.application.config.ApplicationProperties;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Test class for the {@link ClientAddressResolver}.
+ */
+public class ClientAddressResolverTest {
+
+    private final ClientAddressResolver resolver = resolver("10.0.0.0/8", "2001:db8::1");
+
+    private static ClientAddressResolver resolver(String... trustedProxies) {
+        ApplicationProperties applicationProperties = new ApplicationProperties();
+        applicationProperties.getSecurity().getLoginThrottle().setTrustedProxies(Arrays.asList(trustedProxies));
+        return new ClientAddressResolver(applicationProperties);
+    }
+
+    private static MockHttpServletRequest request(String remoteAddr, String... forwardedFor) {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setRemoteAddr(remoteAddr);
+        for (String header : forwardedFor) {
+            request.addHeader(ClientAddressResolver.X_FORWARDED_FOR, header);
+        }
+        return request;
+    }
+
+    @Test
+    public void testRemoteAddressWithoutProxy() {
+        assertThat(resolver.resolve(request("203.0.113.7"))).isEqualTo("203.0.113.7");
+    }
+
+    @Test
+    public void testHeaderIgnoredFromUntrustedAddress() {
+        assertThat(resolver.resolve(request("203.0.113.7", "192.0.2.1"))).isEqualTo("203.0.113.7");
+    }
+
+    @Test
+    public void testHeaderIgnoredWithoutTrustedProxies() {
+        assertThat(resolver().resolve(request("10.0.0.1", "192.0.2.1"))).isEqualTo("10.0.0.1");
+    }
+
+    @Test
+    public void testLastUntrustedForwardedAddress() {
+        assertThat(resolver.resolve(request("10.0.0.1", "192.0.2.1, 203.0.113.7, 10.0.0.2")))
+            .isEqualTo("203.0.113.7");
+        assertThat(resolver.resolve(request("2001:db8::1", "192.0.2.1", "203.0.113.7")))
+            .isEqualTo("203.0.113.7");
+    }
+
+    @Test
+    public void testOnlyTrustedProxies() {
+        assertThat(resolver.resolve(request("10.0.0.1", "10.0.0.3, 10.0.0.2"))).isEqualTo("10.0.0.3");
+        assertThat(resolver.resolve(request("10.0.0.1"))).isEqualTo("10.0.0.1");
+    }
+
+    @Test
+    public void testHostNamesAreNotTrusted() {
+        assertThat(resolver.resolve(request("10.0.0.1", "192.0.2.1, localhost"))).isEqualTo("localhost");
+    }
+}
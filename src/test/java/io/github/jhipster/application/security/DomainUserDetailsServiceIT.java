@@ -3,12 +3,20 @@ package io.github.jhipster.application.security;
 import io.github.jhipster.application.JhipsterSampleApplicationApp;
 import io.github.jhipster.application.domain.User;
 import io.github.jhipster.application.repository.UserRepository;
+import io.github.jhipster.application.service.UserService;
+import io.github.jhipster.application.service.dto.UserDTO;
 
 import org.apache.commons.lang3.RandomStringUtils;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.config.annotation.authentication.builders.AuthenticationManagerBuilder;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
@@ -39,6 +47,18 @@ public class DomainUserDetailsServiceIT {
     @Autowired
     private UserDetailsService domainUserDetailsService;
 
+    @Autowired
+    private AuthenticationManagerBuilder authenticationManagerBuilder;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private UserService userService;
+
     private User userOne;
     private User userTwo;
     private User userThree;
@@ -122,4 +142,76 @@ public class DomainUserDetailsServiceIT {
             () -> domainUserDetailsService.loadUserByUsername(USER_THREE_LOGIN));
     }
 
+    @Test
+    @Transactional
+    public void assertThatWeakPasswordHashIsUpgradedOnLogin() throws Exception {
+        userOne.setPassword(new BCryptPasswordEncoder(4).encode("password"));
+        userRepository.saveAndFlush(userOne);
+        cacheManager.getCache(UserRepository.USERS_BY_LOGIN_CACHE).clear();
+        cacheManager.getCache(DomainUserDetailsService.USER_DETAILS_CACHE).clear();
+
+        authenticationManagerBuilder.getObject()
+            .authenticate(new UsernamePasswordAuthenticationToken(USER_ONE_LOGIN, "password"));
+
+        String upgradedPassword = userRepository.findOneByLogin(USER_ONE_LOGIN).get().getPassword();
+        assertThat(AdaptiveBCryptPasswordEncoder.costOf(upgradedPassword)).isEqualTo(10);
+        assertThat(passwordEncoder.matches("password", upgradedPassword)).isTrue();
+    }
+
+    @Test
+    @Transactional
+    public void assertThatUserDetailsAreCached() {
+        cacheManager.getCache(DomainUserDetailsService.USER_DETAILS_CACHE).clear();
+
+        UserDetails userDetails = domainUserDetailsService.loadUserByUsername(USER_ONE_LOGIN);
+
+        assertThat(cacheManager.getCache(DomainUserDetailsService.USER_DETAILS_CACHE).get(USER_ONE_LOGIN)).isNotNull();
+        UserDetails cachedUserDetails = domainUserDetailsService.loadUserByUsername(USER_ONE_LOGIN);
+        assertThat(cachedUserDetails).isNotSameAs(userDetails);
+        assertThat(cachedUserDetails.getPassword()).isEqualTo(userOne.getPassword());
+    }
+
+    @Test
+    @Transactional
+    public void assertThatCachedUserDetailsAreEvictedWhenTheUserChanges() {
+        cacheManager.getCache(DomainUserDetailsService.USER_DETAILS_CACHE).clear();
+        domainUserDetailsService.loadUserByUsername(USER_ONE_LOGIN);
+        domainUserDetailsService.loadUserByUsername(USER_ONE_EMAIL);
+
+        UserDTO userDTO = new UserDTO(userOne);
+        userDTO.setActivated(false);
+        userService.updateUser(userDTO);
+
+        assertThat(cacheManager.getCache(DomainUserDetailsService.USER_DETAILS_CACHE).get(USER_ONE_LOGIN)).isNull();
+        assertThat(cacheManager.getCache(DomainUserDetailsService.USER_DETAILS_CACHE).get(USER_ONE_EMAIL)).isNull();
+        assertThatExceptionOfType(UserNotActivatedException.class).isThrownBy(
+            () -> domainUserDetailsService.loadUserByUsername(USER_ONE_LOGIN));
+    }
+
+    @Test
+    @Transactional
+    public void assertThatUnknownUsersAreCachedUntilRegistered() {
+        Cache unknownUsers = cacheManager.getCache(UserRepository.UNKNOWN_USERS_CACHE);
+        unknownUsers.clear();
+        assertThatExceptionOfType(UsernameNotFoundException.class).isThrownBy(
+            () -> domainUserDetailsService.loadUserByUsername("test-user-four"));
+        assertThat(userRepository.findOneByEmailIgnoreCase("Test-User-Four@localhost")).isEmpty();
+
+        assertThat(unknownUsers.get(UserRepository.unknownLoginKey("test-user-four"))).isNotNull();
+        assertThat(unknownUsers.get(UserRepository.unknownEmailKey("test-user-four@localhost"))).isNotNull();
+        assertThatExceptionOfType(UsernameNotFoundException.class).isThrownBy(
+            () -> domainUserDetailsService.loadUserByUsername("test-user-four"));
+
+        UserDTO userDTO = new UserDTO();
+        userDTO.setLogin("test-user-four");
+        userDTO.setEmail("test-user-four@localhost");
+        userDTO.setLangKey("en");
+        userService.registerUser(userDTO, "password");
+
+        assertThat(unknownUsers.get(UserRepository.unknownLoginKey("test-user-four"))).isNull();
+        assertThat(unknownUsers.get(UserRepository.unknownEmailKey("test-user-four@localhost"))).isNull();
+        assertThat(userRepository.findOneByLogin("test-user-four")).isPresent();
+        assertThatExceptionOfType(UserNotActivatedException.class).isThrownBy(
+            () -> domainUserDetailsService.loadUserByUsername("test-user-four"));
+    }
 }
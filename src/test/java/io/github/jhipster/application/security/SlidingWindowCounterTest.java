@@ -0,0 +1,59 @@
+package io.github.jhipster.application.security;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Test class for the {@link SlidingWindowCounter}.
+ */
+public class SlidingWindowCounterTest {
+
+    private final AtomicLong now = new AtomicLong(1_000_000);
+
+    private final SlidingWindowCounter counter = new SlidingWindowCounter(1024, 1000, now::get);
+
+    @Test
+    public void testCountsPerKey() {
+        counter.increment("alice");
+        counter.increment("alice");
+
+        assertThat(counter.increment("alice")).isEqualTo(3);
+        assertThat(counter.estimate("bob")).isEqualTo(0);
+    }
+
+    @Test
+    public void testPreviousWindowFadesOut() {
+        IntStream.range(0, 10).forEach(i -> counter.increment("alice"));
+
+        now.addAndGet(1000);
+        assertThat(counter.estimate("alice")).isEqualTo(10);
+        now.addAndGet(500);
+        assertThat(counter.estimate("alice")).isEqualTo(5);
+        assertThat(counter.increment("alice")).isEqualTo(6);
+        now.addAndGet(2000);
+        assertThat(counter.estimate("alice")).isEqualTo(0);
+    }
+
+    @Test
+    public void testConcurrentIncrements() {
+        IntStream.range(0, 10000).parallel().forEach(i -> counter.increment("alice"));
+
+        assertThat(counter.estimate("alice")).isEqualTo(10000);
+    }
+
+    @Test
+    public void testMurmur3() {
+        assertThat(SlidingWindowCounter.murmur3(new byte[0], 0)).isEqualTo(0);
+        assertThat(SlidingWindowCounter.murmur3(new byte[0], 1)).isEqualTo(0x514E28B7);
+        assertThat(SlidingWindowCounter.murmur3(new byte[0], 0xFFFFFFFF)).isEqualTo(0x81F16F39);
+        assertThat(SlidingWindowCounter.murmur3("aaaa".getBytes(StandardCharsets.UTF_8), 0x9747B28C)).isEqualTo(0x5A97808A);
+        assertThat(SlidingWindowCounter.murmur3("hello".getBytes(StandardCharsets.UTF_8), 0)).isEqualTo(0x248BFA47);
+        assertThat(SlidingWindowCounter.murmur3("The quick brown fox jumps over the lazy dog".getBytes(StandardCharsets.UTF_8), 0))
+            .isEqualTo(0x2E4FF723);
+    }
+}
@@ -1,9 +1,9 @@
 package io.github.jhipster.application.security.jwt;
 
+import io.github.jhipster.application.config.ApplicationProperties;
 import io.github.jhipster.application.security.AuthoritiesConstants;
 import io.github.jhipster.config.JHipsterProperties;
-import io.jsonwebtoken.io.Decoders;
-import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -16,6 +16,7 @@ import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.test.util.ReflectionTestUtils;
 
+import java.util.ArrayList;
 import java.util.Collections;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -27,12 +28,14 @@ public class JWTFilterTest {
     private JWTFilter jwtFilter;
 
     @BeforeEach
-    public void setup() {
+    public void setup() throws Exception {
         JHipsterProperties jHipsterProperties = new JHipsterProperties();
-        tokenProvider = new TokenProvider(jHipsterProperties);
-        ReflectionTestUtils.setField(tokenProvider, "key",
-            Keys.hmacShaKeyFor(Decoders.BASE64
-                .decode("fd54a45s65fds737b9aafcb3412e07ed99b267f33413274720ddbb7f6c5e64e9f14075f2d7ed041592f0b7657baf8")));
+        jHipsterProperties.getSecurity().getAuthentication().getJwt()
+            .setBase64Secret("fd54a45s65fds737b9aafcb3412e07ed99b267f33413274720ddbb7f6c5e64e9f14075f2d7ed041592f0b7657baf8");
+        tokenProvider = new TokenProvider(jHipsterProperties, new ApplicationProperties(), new SimpleMeterRegistry(),
+            new JwtKeyRing(jHipsterProperties, new ApplicationProperties(), null),
+            TokenRevocationStoreTest.tokenRevocationStore(jHipsterProperties, new ArrayList<>()));
+        tokenProvider.afterPropertiesSet();
 
         ReflectionTestUtils.setField(tokenProvider, "tokenValidityInMilliseconds", 60000);
         jwtFilter = new JWTFilter(tokenProvider);
@@ -0,0 +1,234 @@
+package io.github.jhipster.application.security.jwt;
+
+import io.github.jhipster.application.config.ApplicationProperties;
+import io.github.jhipster.application.domain.JwtSigningKey;
+import io.github.jhipster.application.repository.JwtSigningKeyRepository;
+import io.github.jhipster.application.security.AuthoritiesConstants;
+import io.github.jhipster.config.JHipsterProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.security.KeyPair;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+public class JwtKeyRingTest {
+
+    private static final String KEY_ENCRYPTION_KEY = "q0dA2xNuVJ3mYe6Sx1kL4bq5rZ9Hc8Wf0tPj7uIvRyE=";
+
+    @Test
+    public void testHs512DisablesKeyRing() {
+        JwtKeyRing jwtKeyRing = new JwtKeyRing(new JHipsterProperties(), new ApplicationProperties(), null);
+
+        assertThat(jwtKeyRing.isEnabled()).isFalse();
+        assertThat(jwtKeyRing.getVerificationKeys()).isEmpty();
+    }
+
+    @Test
+    public void testRs256Token() throws Exception {
+        assertSignsAndVerifies("RS256");
+    }
+
+    @Test
+    public void testEs256Token() throws Exception {
+        assertSignsAndVerifies("ES256");
+    }
+
+    @Test
+    public void testTokensStayValidAfterRotation() throws Exception {
+        List<JwtSigningKey> keys = new CopyOnWriteArrayList<>();
+        JwtSigningKeyRepository repository = inMemoryRepository(keys);
+        JHipsterProperties jHipsterProperties = new JHipsterProperties();
+        JwtKeyRing jwtKeyRing = keyRing(jHipsterProperties, "RS256", repository);
+        TokenProvider tokenProvider = new TokenProvider(jHipsterProperties, new ApplicationProperties(),
+            new SimpleMeterRegistry(), jwtKeyRing, TokenRevocationStoreTest.tokenRevocationStore(jHipsterProperties, new CopyOnWriteArrayList<>()));
+        tokenProvider.afterPropertiesSet();
+        String oldToken = tokenProvider.createToken(createAuthentication(), false);
+        String oldKid = keys.get(0).getKid();
+
+        // Age the current key so that another node creates its successor, then pick it up on the next tick
+        keys.get(0).setActivationDate(Instant.now().minus(7, ChronoUnit.DAYS));
+        keyRing(jHipsterProperties, "RS256", repository).rotate();
+        assertThat(keys).hasSize(2);
+        jwtKeyRing.rotate();
+        String newToken = tokenProvider.createToken(createAuthentication(), false);
+
+        assertThat(tokenProvider.validateToken(oldToken)).isTrue();
+        assertThat(tokenProvider.validateToken(newToken)).isTrue();
+        assertThat(Jwts.parser().setSigningKeyResolver(jwtKeyRing).parseClaimsJws(newToken).getHeader().getKeyId())
+            .isNotEqualTo(oldKid);
+        assertThat(jwtKeyRing.getVerificationKeys()).hasSize(2);
+    }
+
+    @Test
+    public void testExpiredKeysAreDeleted() {
+        List<JwtSigningKey> keys = new CopyOnWriteArrayList<>();
+        JwtSigningKeyRepository repository = inMemoryRepository(keys);
+        JwtKeyRing jwtKeyRing = keyRing(new JHipsterProperties(), "ES256", repository);
+        jwtKeyRing.rotate();
+        keys.get(0).setExpirationDate(Instant.now().minusSeconds(1));
+
+        jwtKeyRing.rotate();
+
+        assertThat(keys).hasSize(1);
+        assertThat(jwtKeyRing.getVerificationKeys()).hasSize(1);
+        verify(repository).deleteAll(any());
+    }
+
+    @Test
+    public void testUnknownKeyIdIsRejected() throws Exception {
+        JHipsterProperties jHipsterProperties = new JHipsterProperties();
+        TokenProvider tokenProvider = tokenProvider(jHipsterProperties, "ES256", inMemoryRepository(new CopyOnWriteArrayList<>()));
+        KeyPair keyPair = io.jsonwebtoken.security.Keys.keyPairFor(SignatureAlgorithm.ES256);
+        String token = Jwts.builder()
+            .setHeaderParam("kid", "unknown")
+            .setSubject("anonymous")
+            .signWith(keyPair.getPrivate(), SignatureAlgorithm.ES256)
+            .setExpiration(new Date(new Date().getTime() + 60000))
+            .compact();
+
+        TokenValidationResult result = tokenProvider.parseToken(token);
+
+        assertThat(result.getFailure()).isEqualTo(TokenValidationResult.Failure.INVALID_SIGNATURE);
+    }
+
+    @Test
+    public void testPrivateKeysAreStoredEncrypted() {
+        List<JwtSigningKey> keys = new CopyOnWriteArrayList<>();
+        JwtKeyRing jwtKeyRing = keyRing(new JHipsterProperties(), "ES256", inMemoryRepository(keys));
+
+        JwtKeyRing.SigningKey signingKey = jwtKeyRing.getSigningKey();
+
+        String storedKey = keys.get(0).getPrivateKey();
+        assertThat(storedKey).startsWith(SigningKeyCipher.PREFIX);
+        assertThat(storedKey).doesNotContain(Base64.getEncoder().encodeToString(signingKey.getPrivateKey().getEncoded()));
+    }
+
+    @Test
+    public void testClearPrivateKeysAreEncrypted() {
+        List<JwtSigningKey> keys = new CopyOnWriteArrayList<>();
+        JwtSigningKeyRepository repository = inMemoryRepository(keys);
+        KeyPair keyPair = io.jsonwebtoken.security.Keys.keyPairFor(SignatureAlgorithm.ES256);
+        JwtSigningKey clearKey = new JwtSigningKey();
+        clearKey.setKid("clear");
+        clearKey.setAlgorithm("ES256");
+        clearKey.setPublicKey(Base64.getEncoder().encodeToString(keyPair.getPublic().getEncoded()));
+        clearKey.setPrivateKey(Base64.getEncoder().encodeToString(keyPair.getPrivate().getEncoded()));
+        clearKey.setActivationDate(Instant.now().minusSeconds(60));
+        clearKey.setExpirationDate(Instant.now().plus(7, ChronoUnit.DAYS));
+        keys.add(clearKey);
+
+        JwtKeyRing.SigningKey signingKey = keyRing(new JHipsterProperties(), "ES256", repository).getSigningKey();
+
+        assertThat(signingKey.getKid()).isEqualTo("clear");
+        assertThat(signingKey.getPrivateKey()).isEqualTo(keyPair.getPrivate());
+        assertThat(clearKey.getPrivateKey()).startsWith(SigningKeyCipher.PREFIX);
+        verify(repository).save(clearKey);
+    }
+
+    @Test
+    public void testKeysEncryptedWithAnotherKeyEncryptionKeyAreIgnored() {
+        List<JwtSigningKey> keys = new CopyOnWriteArrayList<>();
+        JwtSigningKeyRepository repository = inMemoryRepository(keys);
+        String kid = keyRing(new JHipsterProperties(), "ES256", repository).getSigningKey().getKid();
+        ApplicationProperties applicationProperties = applicationProperties("ES256");
+        applicationProperties.getSecurity().getJwt().setKeyEncryptionKey("AAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAA=");
+
+        JwtKeyRing otherKeyRing = new JwtKeyRing(new JHipsterProperties(), applicationProperties, repository);
+
+        assertThat(otherKeyRing.getSigningKey().getKid()).isNotEqualTo(kid);
+        assertThat(otherKeyRing.getVerificationKeys()).extracting(JwtKeyRing.SigningKey::getKid).doesNotContain(kid);
+    }
+
+    @Test
+    public void testKeyEncryptionKeyDefaultsToTheJHipsterSecret() {
+        JHipsterProperties jHipsterProperties = new JHipsterProperties();
+        jHipsterProperties.getSecurity().getAuthentication().getJwt()
+            .setBase64Secret(Base64.getEncoder().encodeToString(new byte[64]));
+        ApplicationProperties applicationProperties = new ApplicationProperties();
+        applicationProperties.getSecurity().getJwt().setAlgorithm("ES256");
+        List<JwtSigningKey> keys = new CopyOnWriteArrayList<>();
+
+        new JwtKeyRing(jHipsterProperties, applicationProperties, inMemoryRepository(keys)).getSigningKey();
+
+        assertThat(keys.get(0).getPrivateKey()).startsWith(SigningKeyCipher.PREFIX);
+    }
+
+    private void assertSignsAndVerifies(String algorithm) throws Exception {
+        List<JwtSigningKey> keys = new CopyOnWriteArrayList<>();
+        TokenProvider tokenProvider = tokenProvider(new JHipsterProperties(), algorithm, inMemoryRepository(keys));
+
+        String token = tokenProvider.createToken(createAuthentication(), false);
+
+        assertThat(keys).hasSize(1);
+        assertThat(keys.get(0).getAlgorithm()).isEqualTo(algorithm);
+        TokenValidationResult result = tokenProvider.parseToken(token);
+        assertThat(result.isValid()).isTrue();
+        assertThat(result.getAuthentication().getName()).isEqualTo("anonymous");
+    }
+
+    private static TokenProvider tokenProvider(JHipsterProperties jHipsterProperties, String algorithm,
+                                               JwtSigningKeyRepository repository) throws Exception {
+        ApplicationProperties applicationProperties = applicationProperties(algorithm);
+        TokenProvider tokenProvider = new TokenProvider(jHipsterProperties, applicationProperties,
+            new SimpleMeterRegistry(), new JwtKeyRing(jHipsterProperties, applicationProperties, repository),
+            TokenRevocationStoreTest.tokenRevocationStore(jHipsterProperties, new CopyOnWriteArrayList<>()));
+        tokenProvider.afterPropertiesSet();
+        return tokenProvider;
+    }
+
+    private static JwtKeyRing keyRing(JHipsterProperties jHipsterProperties, String algorithm,
+                                      JwtSigningKeyRepository repository) {
+        return new JwtKeyRing(jHipsterProperties, applicationProperties(algorithm), repository);
+    }
+
+    private static ApplicationProperties applicationProperties(String algorithm) {
+        ApplicationProperties applicationProperties = new ApplicationProperties();
+        applicationProperties.getSecurity().getJwt().setAlgorithm(algorithm);
+        applicationProperties.getSecurity().getJwt().setKeyEncryptionKey(KEY_ENCRYPTION_KEY);
+        return applicationProperties;
+    }
+
+    /**
+     * A mocked repository backed by a list, shared by several key rings to simulate several nodes.
+     */
+    @SuppressWarnings("unchecked")
+    static JwtSigningKeyRepository inMemoryRepository(List<JwtSigningKey> keys) {
+        JwtSigningKeyRepository repository = mock(JwtSigningKeyRepository.class);
+        when(repository.save(any(JwtSigningKey.class))).thenAnswer(invocation -> {
+            JwtSigningKey key = invocation.getArgument(0);
+            keys.add(key);
+            return key;
+        });
+        when(repository.findAllByExpirationDateAfter(any(Instant.class))).thenAnswer(invocation -> keys.stream()
+            .filter(key -> key.getExpirationDate().isAfter(invocation.getArgument(0)))
+            .collect(Collectors.toList()));
+        when(repository.findAllByExpirationDateBefore(any(Instant.class))).thenAnswer(invocation -> keys.stream()
+            .filter(key -> key.getExpirationDate().isBefore(invocation.getArgument(0)))
+            .collect(Collectors.toList()));
+        doAnswer(invocation -> {
+            ((Iterable<JwtSigningKey>) invocation.getArgument(0)).forEach(keys::remove);
+            return null;
+        }).when(repository).deleteAll(any());
+        return repository;
+    }
+
+    private static Authentication createAuthentication() {
+        return new UsernamePasswordAuthenticationToken("anonymous", "anonymous",
+            Collections.singletonList(new SimpleGrantedAuthority(AuthoritiesConstants.ANONYMOUS)));
+    }
+}
@@ -0,0 +1,81 @@
+package io.github.jhipster.application.security.jwt;
+
+import io.github.jhipster.application.config.ApplicationProperties;
+import io.github.jhipster.application.security.AuthoritiesConstants;
+import io.github.jhipster.config.JHipsterProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.Arrays;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request cost of authenticating a JWT in the {@link JWTFilter}.
+ * <p>
+ * {@code validateThenGetAuthentication} is the historical two-step path (two HS512 verifications per request),
+ * {@code parseToken} is the single-pass path. With {@code verifiedTokenCache=true}, repeated tokens skip the
+ * verification altogether. {@code algorithm} compares the HS512 secret with the RS256 and ES256 key ring.
+ * <p>
+ * Run it with {@code ./mvnw test-compile} then the {@link #main(String[])} method of this class.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TokenProviderBenchmark {
+
+    @Param({"false", "true"})
+    public boolean verifiedTokenCache;
+
+    @Param({"HS512", "RS256", "ES256"})
+    public String algorithm;
+
+    private TokenProvider tokenProvider;
+
+    private String token;
+
+    @Setup
+    public void setup() throws Exception {
+        JHipsterProperties jHipsterProperties = new JHipsterProperties();
+        jHipsterProperties.getSecurity().getAuthentication().getJwt()
+            .setBase64Secret("fd54a45s65fds737b9aafcb3412e07ed99b267f33413274720ddbb7f6c5e64e9f14075f2d7ed041592f0b7657baf8");
+        ApplicationProperties applicationProperties = new ApplicationProperties();
+        applicationProperties.getSecurity().getTokenCache().setEnabled(verifiedTokenCache);
+        applicationProperties.getSecurity().getJwt().setAlgorithm(algorithm);
+        JwtKeyRing jwtKeyRing = new JwtKeyRing(jHipsterProperties, applicationProperties,
+            JwtKeyRingTest.inMemoryRepository(new CopyOnWriteArrayList<>()));
+        tokenProvider = new TokenProvider(jHipsterProperties, applicationProperties, new SimpleMeterRegistry(), jwtKeyRing,
+            TokenRevocationStoreTest.tokenRevocationStore(jHipsterProperties, new CopyOnWriteArrayList<>()));
+        tokenProvider.afterPropertiesSet();
+        Authentication authentication = new UsernamePasswordAuthenticationToken("user", "user", Arrays.asList(
+            new SimpleGrantedAuthority(AuthoritiesConstants.USER), new SimpleGrantedAuthority(AuthoritiesConstants.ADMIN)));
+        token = tokenProvider.createToken(authentication, false);
+    }
+
+    @Benchmark
+    public Authentication validateThenGetAuthentication() {
+        if (tokenProvider.validateToken(token)) {
+            return tokenProvider.getAuthentication(token);
+        }
+        return null;
+    }
+
+    @Benchmark
+    public Authentication parseToken() {
+        return tokenProvider.parseToken(token).getAuthentication();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(TokenProviderBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -1,12 +1,16 @@
 package io.github.jhipster.application.security.jwt;
 
+import io.github.jhipster.application.config.ApplicationProperties;
+import io.github.jhipster.application.domain.TokenRevocation;
 import io.github.jhipster.application.security.AuthoritiesConstants;
 
 import java.security.Key;
 import java.util.*;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.GrantedAuthority;
@@ -14,27 +18,37 @@ import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.test.util.ReflectionTestUtils;
 
 import io.github.jhipster.config.JHipsterProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 public class TokenProviderTest {
 
     private static final long ONE_MINUTE = 60000;
 
     private Key key;
+    private SimpleMeterRegistry meterRegistry;
+    private List<TokenRevocation> revocations;
     private TokenProvider tokenProvider;
 
     @BeforeEach
-    public void setup() {
-        tokenProvider = new TokenProvider( new JHipsterProperties());
-        key = Keys.hmacShaKeyFor(Decoders.BASE64
-            .decode("fd54a45s65fds737b9aafcb3412e07ed99b267f33413274720ddbb7f6c5e64e9f14075f2d7ed041592f0b7657baf8"));
+    public void setup() throws Exception {
+        String base64Secret = "fd54a45s65fds737b9aafcb3412e07ed99b267f33413274720ddbb7f6c5e64e9f14075f2d7ed041592f0b7657baf8";
+        JHipsterProperties jHipsterProperties = new JHipsterProperties();
+        jHipsterProperties.getSecurity().getAuthentication().getJwt().setBase64Secret(base64Secret);
+        meterRegistry = new SimpleMeterRegistry();
+        revocations = new CopyOnWriteArrayList<>();
+        tokenProvider = new TokenProvider(jHipsterProperties, new ApplicationProperties(), meterRegistry,
+            new JwtKeyRing(jHipsterProperties, new ApplicationProperties(), null),
+            TokenRevocationStoreTest.tokenRevocationStore(jHipsterProperties, revocations));
+        tokenProvider.afterPropertiesSet();
+        key = Keys.hmacShaKeyFor(Decoders.BASE64.decode(base64Secret));
 
-        ReflectionTestUtils.setField(tokenProvider, "key", key);
         ReflectionTestUtils.setField(tokenProvider, "tokenValidityInMilliseconds", ONE_MINUTE);
     }
 
@@ -83,6 +97,124 @@ public class TokenProviderTest {
         assertThat(isTokenValid).isEqualTo(false);
     }
 
+    @Test
+    public void testParseTokenReturnsAuthenticationOfValidToken() {
+        String token = tokenProvider.createToken(createAuthentication(), false);
+
+        TokenValidationResult result = tokenProvider.parseToken(token);
+
+        assertThat(result.isValid()).isTrue();
+        assertThat(result.getFailure()).isNull();
+        assertThat(result.getAuthentication().getName()).isEqualTo("anonymous");
+        assertThat(result.getAuthentication().getAuthorities())
+            .extracting(GrantedAuthority::getAuthority).containsExactly(AuthoritiesConstants.ANONYMOUS);
+    }
+
+    @Test
+    public void testParseTokenReportsFailureReason() {
+        assertThat(tokenProvider.parseToken(createTokenWithDifferentSignature()).getFailure())
+            .isEqualTo(TokenValidationResult.Failure.INVALID_SIGNATURE);
+        assertThat(tokenProvider.parseToken(createUnsupportedToken()).getFailure())
+            .isEqualTo(TokenValidationResult.Failure.UNSUPPORTED);
+        assertThat(tokenProvider.parseToken("").getFailure())
+            .isEqualTo(TokenValidationResult.Failure.INVALID);
+
+        ReflectionTestUtils.setField(tokenProvider, "tokenValidityInMilliseconds", -ONE_MINUTE);
+        String expiredToken = tokenProvider.createToken(createAuthentication(), false);
+        assertThat(tokenProvider.parseToken(expiredToken).getFailure())
+            .isEqualTo(TokenValidationResult.Failure.EXPIRED);
+        assertThat(tokenProvider.parseToken(expiredToken.substring(1)).getFailure())
+            .isEqualTo(TokenValidationResult.Failure.MALFORMED);
+    }
+
+    @Test
+    public void testGetAuthenticationIsServedFromCacheOnceVerified() {
+        String token = tokenProvider.createToken(createAuthentication(), false);
+
+        Authentication first = tokenProvider.getAuthentication(token);
+        Authentication second = tokenProvider.getAuthentication(token);
+
+        assertThat(second).isSameAs(first);
+        assertThat(tokenProvider.validateToken(token)).isTrue();
+        assertThat(meterRegistry.get("jwt.cache.gets").tag("result", "hit").counter().count()).isEqualTo(2);
+        assertThat(meterRegistry.get("jwt.cache.gets").tag("result", "miss").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    public void testExpiredTokenIsNotServedFromCache() {
+        ReflectionTestUtils.setField(tokenProvider, "tokenValidityInMilliseconds", -ONE_MINUTE);
+        String token = tokenProvider.createToken(createAuthentication(), false);
+        Authentication authentication = createAuthentication();
+        VerifiedTokenCache verifiedTokenCache =
+            (VerifiedTokenCache) ReflectionTestUtils.getField(tokenProvider, "verifiedTokenCache");
+        verifiedTokenCache.put(token, authentication, System.currentTimeMillis() - ONE_MINUTE);
+
+        assertThat(tokenProvider.validateToken(token)).isEqualTo(false);
+        assertThat(verifiedTokenCache.size()).isZero();
+    }
+
+    @Test
+    public void testCacheIsBounded() {
+        VerifiedTokenCache verifiedTokenCache = new VerifiedTokenCache(10, meterRegistry);
+        for (int i = 0; i < 100; i++) {
+            verifiedTokenCache.put("token-" + i, createAuthentication(), System.currentTimeMillis() + ONE_MINUTE);
+        }
+
+        assertThat(verifiedTokenCache.size()).isLessThanOrEqualTo(10);
+        assertThat(verifiedTokenCache.get("token-99")).isNotNull();
+    }
+
+    @Test
+    public void testRevokedTokenIsRejectedEvenOnceCached() {
+        String token = tokenProvider.createToken(createAuthentication(), true);
+        String otherToken = tokenProvider.createToken(createAuthentication(), true);
+        assertThat(tokenProvider.validateToken(token)).isTrue();
+        assertThat(tokenProvider.validateToken(token)).isTrue();
+
+        tokenProvider.revokeToken(token);
+
+        assertThat(revocations).hasSize(1);
+        assertThat(tokenProvider.parseToken(token).getFailure()).isEqualTo(TokenValidationResult.Failure.REVOKED);
+        assertThat(tokenProvider.validateToken(otherToken)).isTrue();
+    }
+
+    @Test
+    public void testGetAuthenticationOfRevokedTokenIsNotCached() {
+        String token = tokenProvider.createToken(createAuthentication(), false);
+        tokenProvider.revokeToken(token);
+
+        assertThatThrownBy(() -> tokenProvider.getAuthentication(token)).isInstanceOf(BadCredentialsException.class);
+        assertThat(tokenProvider.validateToken(token)).isFalse();
+    }
+
+    @Test
+    public void testAllTokensOfUserAreRevoked() throws InterruptedException {
+        String token = tokenProvider.createToken(createAuthentication(), true);
+        String otherUserToken = tokenProvider.createToken(
+            new UsernamePasswordAuthenticationToken("other", "other", Collections.emptyList()), true);
+        assertThat(tokenProvider.validateToken(token)).isTrue();
+
+        TokenRevocationStore tokenRevocationStore =
+            (TokenRevocationStore) ReflectionTestUtils.getField(tokenProvider, "tokenRevocationStore");
+        // Tokens issued in the same second as the revocation are not revoked
+        Thread.sleep(1000 - System.currentTimeMillis() % 1000);
+        tokenRevocationStore.revokeAllTokens("anonymous");
+
+        assertThat(tokenProvider.parseToken(token).getFailure()).isEqualTo(TokenValidationResult.Failure.REVOKED);
+        assertThat(tokenProvider.validateToken(otherUserToken)).isTrue();
+    }
+
+    @Test
+    public void testAccessTokenRevocationIsChecked() {
+        String accessToken = tokenProvider.createAccessToken(createAuthentication());
+        assertThat(tokenProvider.validateToken(accessToken)).isTrue();
+
+        tokenProvider.revokeToken(accessToken);
+
+        assertThat(revocations).hasSize(1);
+        assertThat(tokenProvider.parseToken(accessToken).getFailure()).isEqualTo(TokenValidationResult.Failure.REVOKED);
+    }
+
     private Authentication createAuthentication() {
         Collection<GrantedAuthority> authorities = new ArrayList<>();
         authorities.add(new SimpleGrantedAuthority(AuthoritiesConstants.ANONYMOUS));
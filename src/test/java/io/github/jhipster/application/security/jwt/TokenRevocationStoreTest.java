@@ -0,0 +1,196 @@
+package io.github.jhipster.application.security.jwt;
+
+import io.github.jhipster.application.config.ApplicationProperties;
+import io.github.jhipster.application.domain.TokenRevocation;
+import io.github.jhipster.application.repository.TokenRevocationRepository;
+import io.github.jhipster.config.JHipsterProperties;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+public class TokenRevocationStoreTest {
+
+    @Test
+    public void testRevokedTokenId() {
+        TokenRevocationStore tokenRevocationStore = tokenRevocationStore(new JHipsterProperties(), new CopyOnWriteArrayList<>());
+        long version = tokenRevocationStore.getVersion();
+
+        tokenRevocationStore.revokeToken("revoked", Instant.now().plusSeconds(60));
+
+        assertThat(tokenRevocationStore.isRevoked("revoked", "user", new Date())).isTrue();
+        assertThat(tokenRevocationStore.isRevoked("other", "user", new Date())).isFalse();
+        assertThat(tokenRevocationStore.getVersion()).isGreaterThan(version);
+    }
+
+    @Test
+    public void testRevokedLoginOnlyAppliesToOlderTokens() {
+        TokenRevocationStore tokenRevocationStore = tokenRevocationStore(new JHipsterProperties(), new CopyOnWriteArrayList<>());
+
+        tokenRevocationStore.revokeAllTokens("user");
+
+        assertThat(tokenRevocationStore.isRevoked("jti", "user", new Date(System.currentTimeMillis() - 60000))).isTrue();
+        assertThat(tokenRevocationStore.isRevoked("jti", "user", null)).isTrue();
+        assertThat(tokenRevocationStore.isRevoked("jti", "user", new Date(System.currentTimeMillis() + 60000))).isFalse();
+        assertThat(tokenRevocationStore.isRevoked("jti", "other", new Date(System.currentTimeMillis() - 60000))).isFalse();
+    }
+
+    @Test
+    public void testRevokedLoginDoesNotApplyToTokensOfTheSameSecond() {
+        TokenRevocationStore tokenRevocationStore = tokenRevocationStore(new JHipsterProperties(), new CopyOnWriteArrayList<>());
+
+        tokenRevocationStore.revokeAllTokens("user");
+        // The iat claim of a token issued right after the revocation, in seconds
+        Date issuedAt = Date.from(Instant.now().truncatedTo(ChronoUnit.SECONDS));
+
+        assertThat(tokenRevocationStore.isRevoked("jti", "user", issuedAt)).isFalse();
+        assertThat(tokenRevocationStore.isRevoked("jti", "user", Date.from(issuedAt.toInstant().minusSeconds(1)))).isTrue();
+    }
+
+    @Test
+    public void testRevocationIsAppliedOnceItsTransactionCommits() {
+        TokenRevocationStore tokenRevocationStore = tokenRevocationStore(new JHipsterProperties(), new CopyOnWriteArrayList<>());
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            tokenRevocationStore.revokeToken("committed", Instant.now().plusSeconds(60));
+
+            assertThat(tokenRevocationStore.isRevoked("committed", "user", new Date())).isFalse();
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+            assertThat(tokenRevocationStore.isRevoked("committed", "user", new Date())).isTrue();
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    public void testRolledBackRevocationIsNotApplied() {
+        TokenRevocationStore tokenRevocationStore = tokenRevocationStore(new JHipsterProperties(), new CopyOnWriteArrayList<>());
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            tokenRevocationStore.revokeAllTokens("user");
+
+            TransactionSynchronizationManager.getSynchronizations()
+                .forEach(synchronization -> synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+            assertThat(tokenRevocationStore.isRevoked("jti", "user", new Date(System.currentTimeMillis() - 60000))).isFalse();
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    public void testRevocationsOfOtherNodesArePolled() {
+        List<TokenRevocation> revocations = new CopyOnWriteArrayList<>();
+        TokenRevocationStore tokenRevocationStore = tokenRevocationStore(new JHipsterProperties(), revocations);
+        TokenRevocationStore otherNode = tokenRevocationStore(new JHipsterProperties(), revocations);
+        assertThat(tokenRevocationStore.isRevoked("revoked", "user", new Date())).isFalse();
+
+        otherNode.revokeToken("revoked", Instant.now().plusSeconds(60));
+        assertThat(tokenRevocationStore.isRevoked("revoked", "user", new Date())).isFalse();
+        long version = tokenRevocationStore.getVersion();
+        tokenRevocationStore.poll();
+
+        assertThat(tokenRevocationStore.isRevoked("revoked", "user", new Date())).isTrue();
+        assertThat(tokenRevocationStore.getVersion()).isGreaterThan(version);
+        version = tokenRevocationStore.getVersion();
+        tokenRevocationStore.poll();
+        assertThat(tokenRevocationStore.getVersion()).isEqualTo(version);
+    }
+
+    @Test
+    public void testExpiredRevocationsAreRemoved() {
+        List<TokenRevocation> revocations = new CopyOnWriteArrayList<>();
+        TokenRevocationStore tokenRevocationStore = tokenRevocationStore(new JHipsterProperties(), revocations);
+        tokenRevocationStore.revokeToken("expired", Instant.now().plusSeconds(60));
+        tokenRevocationStore.revokeToken("revoked", Instant.now().plusSeconds(60));
+        revocations.get(0).setExpirationDate(Instant.now().minusSeconds(1));
+
+        tokenRevocationStore.removeExpiredRevocations();
+
+        assertThat(revocations).hasSize(1);
+        assertThat(tokenRevocationStore.isRevoked("expired", "user", new Date())).isFalse();
+        assertThat(tokenRevocationStore.isRevoked("revoked", "user", new Date())).isTrue();
+    }
+
+    @Test
+    public void testOutgrownBloomFilterIsRebuiltOnce() {
+        ApplicationProperties applicationProperties = new ApplicationProperties();
+        applicationProperties.getSecurity().getRevocation().setExpectedInsertions(10);
+        TokenRevocationRepository repository = inMemoryRepository(new CopyOnWriteArrayList<>());
+        TokenRevocationStore tokenRevocationStore = new TokenRevocationStore(new JHipsterProperties(), applicationProperties, repository);
+        for (int i = 0; i < 15; i++) {
+            tokenRevocationStore.revokeToken("revoked-" + i, Instant.now().plusSeconds(60));
+        }
+
+        for (int i = 0; i < 3; i++) {
+            tokenRevocationStore.poll();
+        }
+
+        // Loaded on first use, then rebuilt once for twice the 15 revocations
+        verify(repository, times(2)).findAllByExpirationDateAfter(any(Instant.class));
+        for (int i = 0; i < 15; i++) {
+            assertThat(tokenRevocationStore.isRevoked("revoked-" + i, "user", new Date())).isTrue();
+        }
+    }
+
+    @Test
+    public void testBloomFilterFalsePositiveRate() {
+        BloomFilter bloomFilter = new BloomFilter(10000, 0.01);
+        for (int i = 0; i < 10000; i++) {
+            bloomFilter.put(0, "revoked-" + i);
+        }
+        int falsePositives = 0;
+        for (int i = 0; i < 10000; i++) {
+            assertThat(bloomFilter.mightContain(0, "revoked-" + i)).isTrue();
+            if (bloomFilter.mightContain(0, UUID.randomUUID().toString()) || bloomFilter.mightContain(1, "revoked-" + i)) {
+                falsePositives++;
+            }
+        }
+
+        assertThat(falsePositives).isLessThan(500);
+    }
+
+    static TokenRevocationStore tokenRevocationStore(JHipsterProperties jHipsterProperties, List<TokenRevocation> revocations) {
+        return new TokenRevocationStore(jHipsterProperties, new ApplicationProperties(), inMemoryRepository(revocations));
+    }
+
+    /**
+     * A mocked repository backed by a list, shared by several stores to simulate several nodes.
+     */
+    private static TokenRevocationRepository inMemoryRepository(List<TokenRevocation> revocations) {
+        TokenRevocationRepository repository = mock(TokenRevocationRepository.class);
+        when(repository.save(any(TokenRevocation.class))).thenAnswer(invocation -> {
+            TokenRevocation tokenRevocation = invocation.getArgument(0);
+            tokenRevocation.setId((long) revocations.size() + 1);
+            revocations.add(tokenRevocation);
+            return tokenRevocation;
+        });
+        when(repository.findAllByExpirationDateAfter(any(Instant.class))).thenAnswer(invocation -> revocations.stream()
+            .filter(tokenRevocation -> tokenRevocation.getExpirationDate().isAfter(invocation.getArgument(0)))
+            .collect(Collectors.toList()));
+        when(repository.findAllByRevocationDateAfterAndExpirationDateAfter(any(Instant.class), any(Instant.class)))
+            .thenAnswer(invocation -> revocations.stream()
+                .filter(tokenRevocation -> tokenRevocation.getRevocationDate().isAfter(invocation.getArgument(0)))
+                .filter(tokenRevocation -> tokenRevocation.getExpirationDate().isAfter(invocation.getArgument(1)))
+                .collect(Collectors.toList()));
+        when(repository.deleteAllByExpirationDateBefore(any(Instant.class))).thenAnswer(invocation -> {
+            List<TokenRevocation> expired = revocations.stream()
+                .filter(tokenRevocation -> tokenRevocation.getExpirationDate().isBefore(invocation.getArgument(0)))
+                .collect(Collectors.toList());
+            revocations.removeAll(expired);
+            return expired.size();
+        });
+        return repository;
+    }
+}
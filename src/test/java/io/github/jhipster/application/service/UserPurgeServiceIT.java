@@ -0,0 +1,140 @@
+package io.github.jhipster.application.service;
+
+import io.github.jhipster.application.JhipsterSampleApplicationApp;
+import io.github.jhipster.application.domain.Authority;
+import io.github.jhipster.application.domain.User;
+import io.github.jhipster.application.repository.AuthorityRepository;
+import io.github.jhipster.application.repository.UserRepository;
+import io.github.jhipster.application.security.AuthoritiesConstants;
+
+import org.apache.commons.lang3.RandomStringUtils;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.auditing.AuditingHandler;
+import org.springframework.data.auditing.DateTimeProvider;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+/**
+ * Integration tests for {@link UserPurgeService}.
+ */
+@SpringBootTest(classes = JhipsterSampleApplicationApp.class)
+@Transactional
+public class UserPurgeServiceIT {
+
+    private static final String DEFAULT_LOGIN = "johndoe";
+
+    private static final String DEFAULT_EMAIL = "johndoe@localhost";
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private AuthorityRepository authorityRepository;
+
+    @Autowired
+    private UserPurgeService userPurgeService;
+
+    @Autowired
+    private AuditingHandler auditingHandler;
+
+    @Autowired
+    private EntityManager em;
+
+    @Mock
+    private DateTimeProvider dateTimeProvider;
+
+    private User user;
+
+    @BeforeEach
+    public void init() {
+        user = createUser(DEFAULT_LOGIN, DEFAULT_EMAIL);
+
+        when(dateTimeProvider.getNow()).thenReturn(Optional.of(LocalDateTime.now()));
+        auditingHandler.setDateTimeProvider(dateTimeProvider);
+    }
+
+    private static User createUser(String login, String email) {
+        User user = new User();
+        user.setLogin(login);
+        user.setPassword(RandomStringUtils.random(60));
+        user.setActivated(true);
+        user.setEmail(email);
+        user.setFirstName("john");
+        user.setLastName("doe");
+        user.setLangKey("dummy");
+        return user;
+    }
+
+    @Test
+    @Transactional
+    public void assertThatNotActivatedUsersWithNotNullActivationKeyCreatedBefore3DaysAreDeleted() {
+        Instant now = Instant.now();
+        when(dateTimeProvider.getNow()).thenReturn(Optional.of(now.minus(4, ChronoUnit.DAYS)));
+        user.setActivated(false);
+        user.setActivationKey(RandomStringUtils.random(20));
+        User dbUser = userRepository.saveAndFlush(user);
+        dbUser.setCreatedDate(now.minus(4, ChronoUnit.DAYS));
+        userRepository.saveAndFlush(user);
+        long count = userRepository.count();
+        userPurgeService.removeNotActivatedUsers();
+        assertThat(userRepository.count()).isEqualTo(count - 1);
+        assertThat(userRepository.findOneByLogin(DEFAULT_LOGIN)).isEmpty();
+    }
+
+    @Test
+    @Transactional
+    public void assertThatNotActivatedUsersWithNullActivationKeyCreatedBefore3DaysAreNotDeleted() {
+        Instant now = Instant.now();
+        when(dateTimeProvider.getNow()).thenReturn(Optional.of(now.minus(4, ChronoUnit.DAYS)));
+        user.setActivated(false);
+        User dbUser = userRepository.saveAndFlush(user);
+        dbUser.setCreatedDate(now.minus(4, ChronoUnit.DAYS));
+        userRepository.saveAndFlush(user);
+        long count = userRepository.count();
+        userPurgeService.removeNotActivatedUsers();
+        assertThat(userRepository.count()).isEqualTo(count);
+        Optional<User> maybeDbUser = userRepository.findById(dbUser.getId());
+        assertThat(maybeDbUser).contains(dbUser);
+    }
+
+    @Test
+    @Transactional
+    public void assertThatNotActivatedUsersAreDeletedByChunksWithTheirAuthorities() {
+        Instant now = Instant.now();
+        Authority userAuthority = authorityRepository.findById(AuthoritiesConstants.USER).get();
+        when(dateTimeProvider.getNow()).thenReturn(Optional.of(now.minus(4, ChronoUnit.DAYS)));
+        for (int i = 0; i < 5; i++) {
+            User notActivated = createUser("purge" + i, "purge" + i + "@localhost");
+            notActivated.setActivated(false);
+            notActivated.setActivationKey(RandomStringUtils.random(20));
+            notActivated.setAuthorities(Collections.singleton(userAuthority));
+            userRepository.save(notActivated);
+        }
+        User activated = createUser("purge-activated", "purge-activated@localhost");
+        activated.setAuthorities(Collections.singleton(userAuthority));
+        userRepository.saveAndFlush(activated);
+        em.clear();
+
+        int deleted = userPurgeService.purgeNotActivatedUsers(now.minus(3, ChronoUnit.DAYS), 2);
+
+        assertThat(deleted).isEqualTo(5);
+        for (int i = 0; i < 5; i++) {
+            assertThat(userRepository.findOneByLogin("purge" + i)).isEmpty();
+        }
+        assertThat(userRepository.findOneWithAuthoritiesByLogin("purge-activated"))
+            .hasValueSatisfying(user -> assertThat(user.getAuthorities()).containsExactly(userAuthority));
+    }
+}
@@ -0,0 +1,184 @@
+package io.github.jhipster.application.service.cache;
+
+import io.github.jhipster.application.config.ApplicationProperties;
+import io.github.jhipster.application.domain.CacheInvalidation;
+import io.github.jhipster.application.domain.User;
+import io.github.jhipster.application.repository.CacheInvalidationRepository;
+
+import org.hibernate.cache.spi.CacheImplementor;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.metamodel.spi.MetamodelImplementor;
+import org.hibernate.persister.entity.EntityPersister;
+import org.hibernate.type.Type;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.persistence.EntityManagerFactory;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+public class CacheInvalidationServiceTest {
+
+    private static final String CACHE = "usersByLogin";
+
+    private CacheImplementor hibernateCache;
+
+    private EntityManagerFactory entityManagerFactory;
+
+    @BeforeEach
+    public void setup() {
+        hibernateCache = mock(CacheImplementor.class);
+        EntityPersister entityPersister = mock(EntityPersister.class);
+        Type identifierType = mock(Type.class);
+        doReturn(Long.class).when(identifierType).getReturnedClass();
+        when(entityPersister.getIdentifierType()).thenReturn(identifierType);
+        MetamodelImplementor metamodel = mock(MetamodelImplementor.class);
+        when(metamodel.entityPersisters()).thenReturn(Collections.singletonMap(User.class.getName(), entityPersister));
+        SessionFactoryImplementor sessionFactory = mock(SessionFactoryImplementor.class);
+        when(sessionFactory.getMetamodel()).thenReturn(metamodel);
+        when(sessionFactory.getCache()).thenReturn(hibernateCache);
+        entityManagerFactory = mock(EntityManagerFactory.class);
+        when(entityManagerFactory.unwrap(SessionFactoryImplementor.class)).thenReturn(sessionFactory);
+    }
+
+    @Test
+    public void testEvictionsAreSentToOtherNodes() {
+        LocalCacheInvalidationBus bus = new LocalCacheInvalidationBus();
+        CacheManager cacheManager = new ConcurrentMapCacheManager(CACHE);
+        CacheManager peerCacheManager = new ConcurrentMapCacheManager(CACHE);
+        CacheInvalidationService service = cacheInvalidationService(cacheManager, bus, 100);
+        cacheInvalidationService(peerCacheManager, bus.peer(), 100);
+        cacheManager.getCache(CACHE).put("user", "cached");
+        peerCacheManager.getCache(CACHE).put("user", "cached");
+
+        service.invalidate(Arrays.asList(CacheEviction.of(CACHE, "user"), CacheEviction.of(User.class.getName(), 3L)));
+
+        assertThat(cacheManager.getCache(CACHE).get("user")).isNull();
+        assertThat(peerCacheManager.getCache(CACHE).get("user")).isNotNull();
+        verify(hibernateCache, never()).evictEntityData(anyString(), any());
+
+        service.flush();
+
+        assertThat(peerCacheManager.getCache(CACHE).get("user")).isNull();
+        verify(hibernateCache).evictEntityData(User.class.getName(), 3L);
+    }
+
+    @Test
+    public void testEvictionsAreCoalesced() {
+        CacheInvalidationBus bus = mock(CacheInvalidationBus.class);
+        CacheInvalidationService service = cacheInvalidationService(new ConcurrentMapCacheManager(CACHE), bus, 2);
+
+        service.invalidate(Arrays.asList(CacheEviction.of("other", "user"), CacheEviction.of("other", "user")));
+        service.invalidate(Arrays.asList(CacheEviction.of(CACHE, "a"), CacheEviction.of(CACHE, "b"), CacheEviction.of(CACHE, "c")));
+        service.flush();
+        service.flush();
+
+        verify(bus).publish(Arrays.asList(CacheEviction.of("other", "user"), CacheEviction.clear(CACHE)));
+        verify(bus).subscribe(any());
+        verifyNoMoreInteractions(bus);
+    }
+
+    @Test
+    public void testEvictionsAreRepeatedOnceAfterCommit() {
+        CacheInvalidationBus bus = mock(CacheInvalidationBus.class);
+        CacheManager cacheManager = new ConcurrentMapCacheManager(CACHE);
+        CacheInvalidationService service = cacheInvalidationService(cacheManager, bus, 100);
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            service.invalidate(Arrays.asList(CacheEviction.of(CACHE, "old"), CacheEviction.of(CACHE, "new")));
+            service.invalidate(Collections.singletonList(CacheEviction.of(CACHE, "new")));
+            // A concurrent reader caches the data from before the commit
+            cacheManager.getCache(CACHE).put("new", "stale");
+            service.flush();
+            verify(bus, never()).publish(any());
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertThat(cacheManager.getCache(CACHE).get("new")).isNull();
+        service.flush();
+        verify(bus).publish(Arrays.asList(CacheEviction.of(CACHE, "old"), CacheEviction.of(CACHE, "new")));
+    }
+
+    @Test
+    public void testEvictionsAreNotSentOnRollback() {
+        CacheInvalidationBus bus = mock(CacheInvalidationBus.class);
+        CacheInvalidationService service = cacheInvalidationService(new ConcurrentMapCacheManager(CACHE), bus, 100);
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            service.invalidate(Collections.singletonList(CacheEviction.of(CACHE, "user")));
+            TransactionSynchronizationManager.getSynchronizations()
+                .forEach(synchronization -> synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        service.flush();
+        verify(bus, never()).publish(any());
+    }
+
+    @Test
+    public void testDatabaseBusDeliversEachEvictionOnce() {
+        List<CacheInvalidation> rows = new CopyOnWriteArrayList<>();
+        CacheInvalidationRepository repository = inMemoryRepository(rows);
+        DatabaseCacheInvalidationBus bus = new DatabaseCacheInvalidationBus(repository);
+        DatabaseCacheInvalidationBus peerBus = new DatabaseCacheInvalidationBus(repository);
+        List<CacheEviction> received = new ArrayList<>();
+        List<CacheEviction> peerReceived = new ArrayList<>();
+        bus.subscribe(received::addAll);
+        peerBus.subscribe(peerReceived::addAll);
+
+        bus.publish(Arrays.asList(CacheEviction.of(CACHE, "user"), CacheEviction.clear("other")));
+        bus.poll();
+        peerBus.poll();
+        peerBus.poll();
+
+        assertThat(received).isEmpty();
+        assertThat(peerReceived).containsExactly(CacheEviction.of(CACHE, "user"), CacheEviction.clear("other"));
+        assertThat(rows).hasSize(2);
+    }
+
+    private CacheInvalidationService cacheInvalidationService(CacheManager cacheManager, CacheInvalidationBus bus,
+                                                              int maxKeysPerCache) {
+        ApplicationProperties applicationProperties = new ApplicationProperties();
+        applicationProperties.getCache().getInvalidation().setMaxKeysPerCache(maxKeysPerCache);
+        return new CacheInvalidationService(cacheManager, entityManagerFactory, bus, applicationProperties);
+    }
+
+    /**
+     * A mocked repository backed by a list, shared by several buses to simulate several nodes.
+     */
+    @SuppressWarnings("unchecked")
+    private static CacheInvalidationRepository inMemoryRepository(List<CacheInvalidation> rows) {
+        AtomicLong ids = new AtomicLong();
+        CacheInvalidationRepository repository = mock(CacheInvalidationRepository.class);
+        when(repository.saveAll(any())).thenAnswer(invocation -> {
+            List<CacheInvalidation> saved = new ArrayList<>();
+            for (CacheInvalidation row : (Iterable<CacheInvalidation>) invocation.getArgument(0)) {
+                row.setId(ids.incrementAndGet());
+                rows.add(row);
+                saved.add(row);
+            }
+            return saved;
+        });
+        when(repository.findAllByCreatedDateAfterAndNodeNot(any(Instant.class), anyString())).thenAnswer(invocation -> rows.stream()
+            .filter(row -> row.getCreatedDate().isAfter(invocation.getArgument(0)))
+            .filter(row -> !row.getNode().equals(invocation.getArgument(1)))
+            .collect(Collectors.toList()));
+        return repository;
+    }
+}
@@ -0,0 +1,118 @@
+package io.github.jhipster.application.service.cache;
+
+import io.github.jhipster.application.JhipsterSampleApplicationApp;
+import io.github.jhipster.application.config.ApplicationProperties;
+import io.github.jhipster.application.domain.PersistentAuditEvent;
+import io.github.jhipster.application.domain.UserSnapshot;
+import io.github.jhipster.application.repository.AuthorityRepository;
+import io.github.jhipster.application.repository.PersistenceAuditEventRepository;
+import io.github.jhipster.application.repository.UserRepository;
+import io.github.jhipster.application.security.AuthoritiesConstants;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.health.Status;
+import org.springframework.boot.actuate.security.AuthenticationAuditListener;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Integration tests for {@link CacheWarmUp}.
+ */
+@SpringBootTest(classes = JhipsterSampleApplicationApp.class)
+public class CacheWarmUpIT {
+
+    @Autowired
+    private AuthorityRepository authorityRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PersistenceAuditEventRepository persistenceAuditEventRepository;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private Cache usersByLogin;
+
+    @BeforeEach
+    public void init() {
+        persistenceAuditEventRepository.deleteAll();
+        usersByLogin = cacheManager.getCache(UserRepository.USERS_BY_LOGIN_CACHE);
+        usersByLogin.clear();
+    }
+
+    @AfterEach
+    public void cleanup() {
+        persistenceAuditEventRepository.deleteAll();
+        usersByLogin.clear();
+    }
+
+    @Test
+    public void testRecentlyAuthenticatedUsersAreWarmedUp() {
+        authenticated("admin", Instant.now().minus(1, ChronoUnit.HOURS));
+        authenticated("user", Instant.now().minus(2, ChronoUnit.HOURS));
+        authenticated("user", Instant.now().minus(3, ChronoUnit.HOURS));
+        authenticated("system", Instant.now().minus(60, ChronoUnit.DAYS));
+        authenticated("unknown", Instant.now());
+        CacheWarmUp cacheWarmUp = cacheWarmUp(new ApplicationProperties());
+        assertThat(cacheWarmUp.health().getStatus()).isEqualTo(Status.OUT_OF_SERVICE);
+
+        cacheWarmUp.warmUp();
+
+        assertThat(((UserSnapshot) usersByLogin.get("admin").get()).getAuthorities()).contains(AuthoritiesConstants.ADMIN);
+        assertThat(usersByLogin.get("user")).isNotNull();
+        assertThat(usersByLogin.get("system")).isNull();
+        assertThat(cacheWarmUp.health().getStatus()).isEqualTo(Status.UP);
+        assertThat(cacheWarmUp.health().getDetails()).containsEntry("users", 2);
+    }
+
+    @Test
+    public void testMostRecentlyAuthenticatedUsersAreWarmedUpFirst() {
+        authenticated("admin", Instant.now().minus(2, ChronoUnit.HOURS));
+        authenticated("user", Instant.now().minus(3, ChronoUnit.HOURS));
+        authenticated("user", Instant.now().minus(1, ChronoUnit.HOURS));
+        ApplicationProperties applicationProperties = new ApplicationProperties();
+        applicationProperties.getCache().getWarmUp().setMaxUsers(1);
+
+        cacheWarmUp(applicationProperties).warmUp();
+
+        assertThat(usersByLogin.get("user")).isNotNull();
+        assertThat(usersByLogin.get("admin")).isNull();
+    }
+
+    @Test
+    public void testDisabledWarmUpIsReady() {
+        ApplicationProperties applicationProperties = new ApplicationProperties();
+        applicationProperties.getCache().getWarmUp().setEnabled(false);
+
+        assertThat(cacheWarmUp(applicationProperties).health().getStatus()).isEqualTo(Status.UP);
+    }
+
+    private CacheWarmUp cacheWarmUp(ApplicationProperties applicationProperties) {
+        applicationProperties.getCache().getWarmUp().setBatchSize(1);
+        return new CacheWarmUp(authorityRepository, userRepository, persistenceAuditEventRepository, cacheManager,
+            transactionManager, applicationProperties);
+    }
+
+    private void authenticated(String login, Instant date) {
+        PersistentAuditEvent event = new PersistentAuditEvent();
+        event.setPrincipal(login);
+        event.setAuditEventType(AuthenticationAuditListener.AUTHENTICATION_SUCCESS);
+        event.setAuditEventDate(date);
+        persistenceAuditEventRepository.save(event);
+    }
+}
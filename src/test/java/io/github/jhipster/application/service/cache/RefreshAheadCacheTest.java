@@ -0,0 +1,140 @@
+package io.github.jhipster.application.service.cache;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class RefreshAheadCacheTest {
+
+    private final AtomicLong clock = new AtomicLong();
+
+    private final List<Runnable> pendingRefreshes = new ArrayList<>();
+
+    private final AtomicInteger loads = new AtomicInteger();
+
+    private RefreshAheadCache cache;
+
+    @BeforeEach
+    public void setup() {
+        RefreshAheadCache.Policy policy = new RefreshAheadCache.Policy(Duration.ofSeconds(300), Duration.ofSeconds(30),
+            Duration.ofSeconds(60), key -> cache.get(key, () -> load(key)));
+        cache = new RefreshAheadCache(new ConcurrentMapCache("test"), policy, pendingRefreshes::add, clock::get);
+    }
+
+    @Test
+    public void testFreshEntriesAreNotRefreshed() {
+        assertThat(cache.get("key", () -> load("key"))).isEqualTo("key-1");
+        clock.set(269_000);
+
+        assertThat(cache.get("key", () -> load("key"))).isEqualTo("key-1");
+        assertThat(pendingRefreshes).isEmpty();
+    }
+
+    @Test
+    public void testEntriesAreRefreshedAheadOfExpiry() {
+        cache.get("key", () -> load("key"));
+        clock.set(270_000);
+
+        assertThat(cache.get("key", () -> load("key"))).isEqualTo("key-1");
+        assertThat(cache.get("key").get()).isEqualTo("key-1");
+        assertThat(pendingRefreshes).hasSize(1);
+
+        runPendingRefreshes();
+
+        assertThat(cache.get("key").get()).isEqualTo("key-2");
+        clock.set(500_000);
+        assertThat(cache.get("key").get()).isEqualTo("key-2");
+        assertThat(pendingRefreshes).isEmpty();
+    }
+
+    @Test
+    public void testStaleEntriesAreServedWhileRevalidated() {
+        cache.get("key", () -> load("key"));
+        clock.set(359_000);
+
+        assertThat(cache.get("key", () -> load("key"))).isEqualTo("key-1");
+        assertThat(pendingRefreshes).hasSize(1);
+
+        clock.set(360_000);
+
+        assertThat(cache.get("key", () -> load("key"))).isEqualTo("key-2");
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    public void testNullValuesAreCached() {
+        assertThat(cache.<String>get("missing", () -> null)).isNull();
+
+        assertThat(cache.get("missing")).isNotNull();
+        assertThat(cache.get("missing").get()).isNull();
+    }
+
+    @Test
+    public void testEvictionDuringRefreshDiscardsReloadedValue() {
+        cache.get("key", () -> load("key"));
+        clock.set(270_000);
+        cache.get("key");
+        cache.evict("key");
+
+        runPendingRefreshes();
+
+        assertThat(cache.get("key")).isNull();
+    }
+
+    @Test
+    public void testConcurrentMissesShareOneLoad() throws Exception {
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<String>> results = new ArrayList<>();
+            results.add(executor.submit(() -> cache.get("key", () -> {
+                loading.countDown();
+                release.await();
+                return load("key");
+            })));
+            loading.await();
+            for (int i = 0; i < 3; i++) {
+                results.add(executor.submit(() -> cache.get("key", () -> load("key"))));
+            }
+            Thread.sleep(100);
+            release.countDown();
+
+            for (Future<String> result : results) {
+                assertThat(result.get(5, TimeUnit.SECONDS)).isEqualTo("key-1");
+            }
+            assertThat(loads).hasValue(1);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testNativeCacheIsExposed() {
+        Cache delegate = new ConcurrentMapCache("native");
+        RefreshAheadCache refreshAheadCache = new RefreshAheadCache(delegate, null, Runnable::run, clock::get);
+
+        assertThat(refreshAheadCache.getName()).isEqualTo("native");
+        assertThat(refreshAheadCache.getNativeCache()).isSameAs(delegate.getNativeCache());
+    }
+
+    private String load(Object key) {
+        return key + "-" + loads.incrementAndGet();
+    }
+
+    private void runPendingRefreshes() {
+        List<Runnable> refreshes = new ArrayList<>(pendingRefreshes);
+        pendingRefreshes.clear();
+        refreshes.forEach(Runnable::run);
+    }
+}
@@ -0,0 +1,29 @@
+package io.github.jhipster.application.service.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class CsvReaderTest {
+
+    @Test
+    public void testReadRecords() throws IOException {
+        CsvReader csv = new CsvReader(new StringReader("a,b,,c\r\n\"d, \"\"e\"\"\",\"f\r\ng\"\nh"));
+
+        assertThat(csv.readRecord()).containsExactly("a", "b", "", "c");
+        assertThat(csv.readRecord()).containsExactly("d, \"e\"", "f\r\ng");
+        assertThat(csv.readRecord()).containsExactly("h");
+        assertThat(csv.readRecord()).isNull();
+    }
+
+    @Test
+    public void testUnclosedQuotedField() throws IOException {
+        CsvReader csv = new CsvReader(new StringReader("a,\"b\n"));
+
+        assertThatThrownBy(csv::readRecord).isInstanceOf(IOException.class);
+    }
+}
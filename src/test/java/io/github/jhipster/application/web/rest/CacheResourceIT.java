@@ -0,0 +1,128 @@
+package io.github.jhipster.application.web.rest;
+
+import io.github.jhipster.application.JhipsterSampleApplicationApp;
+import io.github.jhipster.application.domain.User;
+import io.github.jhipster.application.repository.UserRepository;
+import io.github.jhipster.application.service.cache.CacheInvalidationService;
+import io.github.jhipster.application.service.cache.EhcacheStatisticsRegistry;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.hasItem;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Integration tests for the {@link CacheResource} REST controller.
+ */
+@SpringBootTest(classes = JhipsterSampleApplicationApp.class)
+public class CacheResourceIT {
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private javax.cache.CacheManager jCacheManager;
+
+    @Autowired
+    private CacheInvalidationService cacheInvalidationService;
+
+    @Autowired
+    private EhcacheStatisticsRegistry ehcacheStatisticsRegistry;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private MappingJackson2HttpMessageConverter jacksonMessageConverter;
+
+    private MockMvc restCacheMockMvc;
+
+    private Cache cache;
+
+    @BeforeEach
+    public void setup() {
+        CacheResource cacheResource = new CacheResource(jCacheManager, cacheInvalidationService, ehcacheStatisticsRegistry);
+        this.restCacheMockMvc = MockMvcBuilders.standaloneSetup(cacheResource)
+            .setMessageConverters(jacksonMessageConverter).build();
+        cache = cacheManager.getCache(UserRepository.USERS_BY_LOGIN_CACHE);
+        cache.clear();
+    }
+
+    @Test
+    public void getAllCaches() throws Exception {
+        cache.put("cached", "value");
+        cache.get("cached");
+        cache.get("missing");
+
+        restCacheMockMvc.perform(get("/management/caches"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[*].name").value(hasItem(UserRepository.USERS_BY_LOGIN_CACHE)))
+            .andExpect(jsonPath("$.[*].name").value(hasItem(User.class.getName())))
+            .andExpect(jsonPath("$.[?(@.name == '" + UserRepository.USERS_BY_LOGIN_CACHE + "')].size").value(hasItem(1)))
+            .andExpect(jsonPath("$.[?(@.name == '" + UserRepository.USERS_BY_LOGIN_CACHE + "')].hitRatio").exists());
+
+        // The statistics of a cache are created once, and reused by each request
+        javax.cache.Cache<Object, Object> nativeCache = jCacheManager.getCache(UserRepository.USERS_BY_LOGIN_CACHE);
+        assertThat(ehcacheStatisticsRegistry.get(nativeCache)).isSameAs(ehcacheStatisticsRegistry.get(nativeCache));
+    }
+
+    @Test
+    public void evictCacheEntry() throws Exception {
+        cache.put("evicted", "value");
+        cache.put("kept", "value");
+
+        restCacheMockMvc.perform(delete("/management/caches/{name}", UserRepository.USERS_BY_LOGIN_CACHE).param("key", "evicted"))
+            .andExpect(status().isNoContent());
+
+        assertThat(cache.get("evicted")).isNull();
+        assertThat(cache.get("kept")).isNotNull();
+    }
+
+    @Test
+    public void clearCache() throws Exception {
+        cache.put("cached", "value");
+
+        restCacheMockMvc.perform(delete("/management/caches/{name}", UserRepository.USERS_BY_LOGIN_CACHE))
+            .andExpect(status().isNoContent());
+
+        assertThat(cache.get("cached")).isNull();
+    }
+
+    @Test
+    public void clearHibernateRegion() throws Exception {
+        restCacheMockMvc.perform(delete("/management/caches/{name}", User.class.getName()).param("key", "1"))
+            .andExpect(status().isNoContent());
+    }
+
+    @Test
+    public void evictUnknownCache() throws Exception {
+        restCacheMockMvc.perform(delete("/management/caches/{name}", "unknown"))
+            .andExpect(status().isNotFound());
+    }
+
+    @Test
+    public void cachesAreBoundToMicrometer() {
+        double hits = meterRegistry.get("cache.gets").tag("cache", UserRepository.USERS_BY_LOGIN_CACHE)
+            .tag("result", "hit").functionCounter().count();
+        cache.put("cached", "value");
+        cache.get("cached");
+
+        assertThat(meterRegistry.get("cache.gets").tag("cache", UserRepository.USERS_BY_LOGIN_CACHE)
+            .tag("result", "hit").functionCounter().count()).isEqualTo(hits + 1);
+        assertThat(meterRegistry.get("cache.size").tag("cache", UserRepository.USERS_BY_LOGIN_CACHE).gauge().value())
+            .isEqualTo(1);
+        assertThat(meterRegistry.get("cache.removals").tag("cache", User.class.getName()).functionCounter()).isNotNull();
+    }
+}
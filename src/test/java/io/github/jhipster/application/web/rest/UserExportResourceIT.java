@@ -0,0 +1,122 @@
+package io.github.jhipster.application.web.rest;
+
+import io.github.jhipster.application.JhipsterSampleApplicationApp;
+import io.github.jhipster.application.config.Constants;
+import io.github.jhipster.application.domain.User;
+import io.github.jhipster.application.repository.AuthorityRepository;
+import io.github.jhipster.application.repository.UserRepository;
+import io.github.jhipster.application.security.AuthoritiesConstants;
+import io.github.jhipster.application.service.UserExportService;
+import io.github.jhipster.application.service.dto.UserDTO;
+import io.github.jhipster.application.web.rest.errors.ExceptionTranslator;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import java.util.*;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Integration tests for the {@link UserExportResource} REST controller.
+ */
+@SpringBootTest(classes = JhipsterSampleApplicationApp.class)
+public class UserExportResourceIT {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private AuthorityRepository authorityRepository;
+
+    @Autowired
+    private UserExportService userExportService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ExceptionTranslator exceptionTranslator;
+
+    @Autowired
+    private EntityManager em;
+
+    private MockMvc restUserExportMockMvc;
+
+    private List<User> users;
+
+    @BeforeEach
+    public void setup() {
+        this.restUserExportMockMvc = MockMvcBuilders.standaloneSetup(new UserExportResource(userExportService))
+            .setControllerAdvice(exceptionTranslator)
+            .build();
+        users = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            User user = UserResourceIT.createEntity(em);
+            user.setLogin("export" + i);
+            user.setFirstName("Export, \"" + i + "\"");
+            user.setAuthorities(new HashSet<>(authorityRepository.findAllById(
+                Arrays.asList(AuthoritiesConstants.USER, AuthoritiesConstants.ADMIN))));
+            users.add(user);
+        }
+    }
+
+    @Test
+    @Transactional
+    public void exportUsersAsNdjson() throws Exception {
+        userRepository.saveAll(users);
+        userRepository.flush();
+        List<Long> expectedIds = userRepository.findAll().stream()
+            .filter(user -> !user.getLogin().equals(Constants.ANONYMOUS_USER))
+            .map(User::getId)
+            .sorted()
+            .collect(Collectors.toList());
+
+        String export = restUserExportMockMvc.perform(get("/api/users/export"))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType("application/x-ndjson;charset=UTF-8"))
+            .andReturn().getResponse().getContentAsString();
+
+        List<UserDTO> exported = new ArrayList<>();
+        for (String line : export.split("\n")) {
+            exported.add(objectMapper.readValue(line, UserDTO.class));
+        }
+        assertThat(exported).extracting(UserDTO::getId).containsExactlyElementsOf(expectedIds);
+        UserDTO user = exported.stream().filter(userDTO -> userDTO.getLogin().equals("export1")).findFirst().get();
+        assertThat(user.getFirstName()).isEqualTo("Export, \"1\"");
+        assertThat(user.getAuthorities()).containsExactlyInAnyOrder(AuthoritiesConstants.ADMIN, AuthoritiesConstants.USER);
+    }
+
+    @Test
+    @Transactional
+    public void resumeExportAsCsv() throws Exception {
+        userRepository.saveAll(users);
+        userRepository.flush();
+
+        String export = restUserExportMockMvc.perform(get("/api/users/export?format=csv&afterId={id}", users.get(0).getId()))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType("text/csv;charset=UTF-8"))
+            .andReturn().getResponse().getContentAsString();
+
+        assertThat(export).doesNotContain("login");
+        assertThat(export).doesNotContain(",export0,");
+        assertThat(export).contains(users.get(2).getId() + ",export2,\"Export, \"\"2\"\"\",");
+        assertThat(export).endsWith(",ROLE_ADMIN;ROLE_USER\r\n");
+    }
+
+    @Test
+    public void exportUsersWithUnknownFormat() throws Exception {
+        restUserExportMockMvc.perform(get("/api/users/export?format=xml"))
+            .andExpect(status().isBadRequest());
+    }
+}
@@ -0,0 +1,218 @@
+package io.github.jhipster.application.web.rest;
+
+import io.github.jhipster.application.JhipsterSampleApplicationApp;
+import io.github.jhipster.application.config.ApplicationProperties;
+import io.github.jhipster.application.domain.Authority;
+import io.github.jhipster.application.domain.User;
+import io.github.jhipster.application.repository.AuthorityRepository;
+import io.github.jhipster.application.repository.UserRepository;
+import io.github.jhipster.application.security.AuthoritiesConstants;
+import io.github.jhipster.application.security.BoundedPasswordEncoder;
+import io.github.jhipster.application.service.UserImportService;
+import io.github.jhipster.application.service.cache.CacheInvalidationService;
+import io.github.jhipster.application.web.rest.errors.ExceptionTranslator;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentMatcher;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import javax.persistence.EntityManager;
+import javax.validation.Validator;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.StreamSupport;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.mockito.AdditionalAnswers.delegatesTo;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Integration tests for the {@link UserImportResource} REST controller.
+ * <p>
+ * Users are imported by their own transactions, so they are deleted after each test.
+ */
+@SpringBootTest(classes = JhipsterSampleApplicationApp.class)
+public class UserImportResourceIT {
+
+    private static final List<String> LOGINS = Arrays.asList("import0", "import1", "import2");
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UserImportService userImportService;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private MappingJackson2HttpMessageConverter jacksonMessageConverter;
+
+    @Autowired
+    private ExceptionTranslator exceptionTranslator;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private AuthorityRepository authorityRepository;
+
+    @Autowired
+    private BoundedPasswordEncoder passwordEncoder;
+
+    @Autowired
+    private CacheInvalidationService cacheInvalidationService;
+
+    @Autowired
+    private Validator validator;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ApplicationProperties applicationProperties;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private MockMvc restUserImportMockMvc;
+
+    @BeforeEach
+    public void setup() {
+        this.restUserImportMockMvc = MockMvcBuilders.standaloneSetup(new UserImportResource(userImportService))
+            .setControllerAdvice(exceptionTranslator)
+            .setMessageConverters(jacksonMessageConverter)
+            .build();
+    }
+
+    @AfterEach
+    public void cleanup() {
+        userRepository.deleteAll(userRepository.findAllWithAuthoritiesByLoginIn(LOGINS));
+    }
+
+    @Test
+    public void importUsersAsCsv() throws Exception {
+        assertThat(userRepository.findOneByLogin("import0")).isEmpty();
+        String csv = "id,login,firstName,email,authorities\r\n" +
+            "1,Import0,\"Doe, \"\"John\"\"\",import0@localhost,ROLE_USER;ROLE_ADMIN\r\n" +
+            ",import1,,Import1@localhost,\r\n" +
+            ",import0,,other@localhost,ROLE_USER\r\n" +
+            ",import-3,,not an email,ROLE_USER\r\n" +
+            ",import4,,import4@localhost,ROLE_UNKNOWN\r\n" +
+            ",admin,,admin-import@localhost,\r\n" +
+            ",import2,,import1@localhost,\r\n";
+
+        restUserImportMockMvc.perform(post("/api/users/import?format=csv").content(csv.getBytes(StandardCharsets.UTF_8)))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.imported").value(2))
+            .andExpect(jsonPath("$.rejected").value(5))
+            .andExpect(jsonPath("$.errors[*].row").value(contains(3, 4, 5, 6, 7)))
+            .andExpect(jsonPath("$.errors[0].message").value("Login already used in the file"))
+            .andExpect(jsonPath("$.errors[1].message").value(startsWith("email")))
+            .andExpect(jsonPath("$.errors[2].message").value("Unknown authority ROLE_UNKNOWN"))
+            .andExpect(jsonPath("$.errors[3].message").value("Login already used"))
+            .andExpect(jsonPath("$.errors[4].message").value("Email already used in the file"));
+
+        Optional<User> user = userRepository.findOneWithAuthoritiesByLogin("import0");
+        assertThat(user).isPresent();
+        assertThat(user.get().getFirstName()).isEqualTo("Doe, \"John\"");
+        assertThat(user.get().getEmail()).isEqualTo("import0@localhost");
+        assertThat(user.get().getActivated()).isTrue();
+        assertThat(user.get().getPassword()).hasSize(60);
+        assertThat(user.get().getResetKey()).isNotNull();
+        assertThat(user.get().getCreatedDate()).isNotNull();
+        assertThat(user.get().getAuthorities().stream().map(Authority::getName).collect(Collectors.toSet()))
+            .containsExactlyInAnyOrder(AuthoritiesConstants.USER, AuthoritiesConstants.ADMIN);
+        assertThat(userRepository.findOneWithAuthoritiesByLogin("import1").get().getEmail()).isEqualTo("import1@localhost");
+    }
+
+    @Test
+    public void importUsersAsNdjsonEvictsUnknownLogins() throws Exception {
+        assertThat(userRepository.findOneByLogin("import0")).isEmpty();
+        assertThat(cacheManager.getCache(UserRepository.UNKNOWN_USERS_CACHE).get(UserRepository.unknownLoginKey("import0"))).isNotNull();
+        String ndjson = "{\"login\":\"import0\",\"email\":\"import0@localhost\",\"authorities\":[\"ROLE_USER\"]}\n" +
+            "\n" +
+            "{\"login\":\n";
+
+        restUserImportMockMvc.perform(post("/api/users/import").content(ndjson.getBytes(StandardCharsets.UTF_8)))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.imported").value(1))
+            .andExpect(jsonPath("$.rejected").value(1))
+            .andExpect(jsonPath("$.errors[0].row").value(2))
+            .andExpect(jsonPath("$.errors[0].message").value(startsWith("Invalid JSON")));
+
+        assertThat(cacheManager.getCache(UserRepository.UNKNOWN_USERS_CACHE).get(UserRepository.unknownLoginKey("import0"))).isNull();
+        assertThat(userRepository.findOneByLogin("import0")).isPresent();
+    }
+
+    @Test
+    public void importUsersAsCsvWithByteOrderMark() throws Exception {
+        String csv = "\uFEFFlogin,email\r\nimport0,import0@localhost\r\n";
+
+        restUserImportMockMvc.perform(post("/api/users/import?format=csv").content(csv.getBytes(StandardCharsets.UTF_8)))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.imported").value(1))
+            .andExpect(jsonPath("$.rejected").value(0));
+
+        assertThat(userRepository.findOneByLogin("import0")).isPresent();
+    }
+
+    @Test
+    public void importUsersRejectsOnlyTheFailingRowsOfABatch() throws Exception {
+        UserRepository failingUserRepository = mock(UserRepository.class, delegatesTo(userRepository));
+        doThrow(new DataIntegrityViolationException("Duplicate login import1"))
+            .when(failingUserRepository).saveAll(argThat((ArgumentMatcher<Iterable<User>>) users ->
+                StreamSupport.stream(users.spliterator(), false).anyMatch(user -> "import1".equals(user.getLogin()))));
+        UserImportService failingUserImportService = new UserImportService(failingUserRepository, entityManager,
+            authorityRepository, passwordEncoder, cacheInvalidationService, validator, jacksonMessageConverter.getObjectMapper(),
+            transactionManager, applicationProperties, meterRegistry);
+        String ndjson = LOGINS.stream()
+            .map(login -> "{\"login\":\"" + login + "\",\"email\":\"" + login + "@localhost\"}\n")
+            .collect(Collectors.joining());
+
+        try {
+            MockMvcBuilders.standaloneSetup(new UserImportResource(failingUserImportService))
+                .setControllerAdvice(exceptionTranslator)
+                .setMessageConverters(jacksonMessageConverter)
+                .build()
+                .perform(post("/api/users/import").content(ndjson.getBytes(StandardCharsets.UTF_8)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.imported").value(2))
+                .andExpect(jsonPath("$.rejected").value(1))
+                .andExpect(jsonPath("$.errors[0].row").value(2))
+                .andExpect(jsonPath("$.errors[0].login").value("import1"))
+                .andExpect(jsonPath("$.errors[0].message").value("Import failed: Duplicate login import1"));
+        } finally {
+            failingUserImportService.destroy();
+        }
+
+        assertThat(userRepository.findOneByLogin("import0")).isPresent();
+        assertThat(userRepository.findOneByLogin("import1")).isEmpty();
+        assertThat(userRepository.findOneByLogin("import2")).isPresent();
+    }
+
+    @Test
+    public void importUsersWithoutLoginColumn() throws Exception {
+        restUserImportMockMvc.perform(post("/api/users/import?format=csv").content("email\r\nimport0@localhost\r\n"))
+            .andExpect(status().isBadRequest());
+    }
+}
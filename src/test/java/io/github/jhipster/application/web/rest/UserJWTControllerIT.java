@@ -1,21 +1,40 @@
 package io.github.jhipster.application.web.rest;
 
 import io.github.jhipster.application.JhipsterSampleApplicationApp;
+import io.github.jhipster.application.config.ApplicationProperties;
 import io.github.jhipster.application.domain.User;
 import io.github.jhipster.application.repository.UserRepository;
+import io.github.jhipster.application.security.AuthoritiesConstants;
+import io.github.jhipster.application.security.ClientAddressResolver;
+import io.github.jhipster.application.security.LoginThrottle;
 import io.github.jhipster.application.security.jwt.TokenProvider;
+import io.github.jhipster.application.security.jwt.TokenValidationResult;
+import io.github.jhipster.application.service.RefreshTokenService;
 import io.github.jhipster.application.web.rest.errors.ExceptionTranslator;
 import io.github.jhipster.application.web.rest.vm.LoginVM;
+import io.github.jhipster.application.web.rest.vm.RefreshTokenVM;
+
+import com.jayway.jsonpath.JsonPath;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.config.annotation.authentication.builders.AuthenticationManagerBuilder;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.RequestPostProcessor;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collections;
+
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
@@ -45,11 +64,25 @@ public class UserJWTControllerIT {
     @Autowired
     private ExceptionTranslator exceptionTranslator;
 
+    @Autowired
+    private RefreshTokenService refreshTokenService;
+
+    @Autowired
+    private UserDetailsService userDetailsService;
+
+    @Autowired
+    private ApplicationProperties applicationProperties;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
     private MockMvc mockMvc;
 
     @BeforeEach
     public void setup() {
-        UserJWTController userJWTController = new UserJWTController(tokenProvider, authenticationManager);
+        UserJWTController userJWTController = new UserJWTController(tokenProvider, authenticationManager,
+            refreshTokenService, userDetailsService, new LoginThrottle(applicationProperties, meterRegistry),
+            new ClientAddressResolver(applicationProperties));
         this.mockMvc = MockMvcBuilders.standaloneSetup(userJWTController)
             .setControllerAdvice(exceptionTranslator)
             .build();
@@ -116,4 +149,257 @@ public class UserJWTControllerIT {
             .andExpect(jsonPath("$.id_token").doesNotExist())
             .andExpect(header().doesNotExist("Authorization"));
     }
+
+    @Test
+    public void testAuthorizeIsThrottled() throws Exception {
+        LoginVM login = new LoginVM();
+        login.setUsername("throttled-user");
+        login.setPassword("wrong password");
+        int maxAttempts = applicationProperties.getSecurity().getLoginThrottle().getMaxAttemptsPerLogin();
+        for (int i = 0; i < maxAttempts; i++) {
+            mockMvc.perform(post("/api/authenticate")
+                .contentType(TestUtil.APPLICATION_JSON_UTF8)
+                .content(TestUtil.convertObjectToJsonBytes(login)))
+                .andExpect(status().isUnauthorized());
+        }
+
+        mockMvc.perform(post("/api/authenticate")
+            .contentType(TestUtil.APPLICATION_JSON_UTF8)
+            .content(TestUtil.convertObjectToJsonBytes(login)))
+            .andExpect(status().isTooManyRequests())
+            .andExpect(header().exists("Retry-After"))
+            .andExpect(jsonPath("$.id_token").doesNotExist());
+    }
+
+    @Test
+    @Transactional
+    public void testSuccessfulAuthorizationsAreNotThrottled() throws Exception {
+        User user = new User();
+        user.setLogin("user-jwt-controller-not-throttled");
+        user.setEmail("user-jwt-controller-not-throttled@example.com");
+        user.setActivated(true);
+        user.setPassword(passwordEncoder.encode("test"));
+
+        userRepository.saveAndFlush(user);
+
+        ApplicationProperties properties = new ApplicationProperties();
+        properties.getSecurity().getLoginThrottle().setMaxAttemptsPerLogin(2);
+        UserJWTController userJWTController = new UserJWTController(tokenProvider, authenticationManager,
+            refreshTokenService, userDetailsService, new LoginThrottle(properties, meterRegistry),
+            new ClientAddressResolver(properties));
+        MockMvc mockMvc = MockMvcBuilders.standaloneSetup(userJWTController)
+            .setControllerAdvice(exceptionTranslator)
+            .build();
+
+        LoginVM login = new LoginVM();
+        login.setUsername("user-jwt-controller-not-throttled");
+        login.setPassword("test");
+        for (int i = 0; i < 3; i++) {
+            mockMvc.perform(post("/api/authenticate")
+                .contentType(TestUtil.APPLICATION_JSON_UTF8)
+                .content(TestUtil.convertObjectToJsonBytes(login)))
+                .andExpect(status().isOk());
+        }
+
+        // Only failed attempts use up the budget of the login
+        login.setPassword("wrong password");
+        for (int i = 0; i < 2; i++) {
+            mockMvc.perform(post("/api/authenticate")
+                .contentType(TestUtil.APPLICATION_JSON_UTF8)
+                .content(TestUtil.convertObjectToJsonBytes(login)))
+                .andExpect(status().isUnauthorized());
+        }
+        login.setPassword("test");
+        mockMvc.perform(post("/api/authenticate")
+            .contentType(TestUtil.APPLICATION_JSON_UTF8)
+            .content(TestUtil.convertObjectToJsonBytes(login)))
+            .andExpect(status().isTooManyRequests());
+    }
+
+    @Test
+    public void testAuthorizeIsThrottledPerForwardedClientAddress() throws Exception {
+        ApplicationProperties properties = new ApplicationProperties();
+        properties.getSecurity().getLoginThrottle().setMaxAttemptsPerIp(2);
+        properties.getSecurity().getLoginThrottle().setTrustedProxies(Collections.singletonList("10.0.0.0/8"));
+        UserJWTController userJWTController = new UserJWTController(tokenProvider, authenticationManager,
+            refreshTokenService, userDetailsService, new LoginThrottle(properties, meterRegistry),
+            new ClientAddressResolver(properties));
+        MockMvc mockMvc = MockMvcBuilders.standaloneSetup(userJWTController)
+            .setControllerAdvice(exceptionTranslator)
+            .build();
+
+        for (int i = 0; i < 2; i++) {
+            LoginVM login = new LoginVM();
+            login.setUsername("forwarded-user-" + i);
+            login.setPassword("wrong password");
+            mockMvc.perform(post("/api/authenticate")
+                .with(remoteAddr("10.0.0.1"))
+                .header("X-Forwarded-For", "192.0.2.1, 203.0.113.7")
+                .contentType(TestUtil.APPLICATION_JSON_UTF8)
+                .content(TestUtil.convertObjectToJsonBytes(login)))
+                .andExpect(status().isUnauthorized());
+        }
+
+        LoginVM login = new LoginVM();
+        login.setUsername("forwarded-user");
+        login.setPassword("wrong password");
+        // Same client behind the proxy, whatever it puts in the header itself
+        mockMvc.perform(post("/api/authenticate")
+            .with(remoteAddr("10.0.0.1"))
+            .header("X-Forwarded-For", "192.0.2.2, 203.0.113.7")
+            .contentType(TestUtil.APPLICATION_JSON_UTF8)
+            .content(TestUtil.convertObjectToJsonBytes(login)))
+            .andExpect(status().isTooManyRequests());
+        // Another client behind the same proxy
+        mockMvc.perform(post("/api/authenticate")
+            .with(remoteAddr("10.0.0.1"))
+            .header("X-Forwarded-For", "203.0.113.8")
+            .contentType(TestUtil.APPLICATION_JSON_UTF8)
+            .content(TestUtil.convertObjectToJsonBytes(login)))
+            .andExpect(status().isUnauthorized());
+        // The header of a client which is not a trusted proxy is ignored
+        mockMvc.perform(post("/api/authenticate")
+            .with(remoteAddr("198.51.100.1"))
+            .header("X-Forwarded-For", "203.0.113.9")
+            .contentType(TestUtil.APPLICATION_JSON_UTF8)
+            .content(TestUtil.convertObjectToJsonBytes(login)))
+            .andExpect(status().isUnauthorized());
+    }
+
+    private static RequestPostProcessor remoteAddr(String remoteAddr) {
+        return request -> {
+            request.setRemoteAddr(remoteAddr);
+            return request;
+        };
+    }
+
+    @Test
+    public void testLogoutRevokesToken() throws Exception {
+        // Not transactional: the revocation is applied once it commits
+        Authentication authentication = new UsernamePasswordAuthenticationToken("user-jwt-controller-logout", "test",
+            Collections.singletonList(new SimpleGrantedAuthority(AuthoritiesConstants.USER)));
+        String jwt = tokenProvider.createToken(authentication, false);
+        assertThat(tokenProvider.validateToken(jwt)).isTrue();
+        SecurityContextHolder.getContext().setAuthentication(tokenProvider.getAuthentication(jwt));
+
+        try {
+            mockMvc.perform(post("/api/logout"))
+                .andExpect(status().isOk());
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+
+        assertThat(tokenProvider.parseToken(jwt).getFailure()).isEqualTo(TokenValidationResult.Failure.REVOKED);
+    }
+
+    @Test
+    public void testLogoutRevokesAccessToken() throws Exception {
+        Authentication authentication = new UsernamePasswordAuthenticationToken("user-jwt-controller-logout-access", "test",
+            Collections.singletonList(new SimpleGrantedAuthority(AuthoritiesConstants.USER)));
+        String jwt = tokenProvider.createAccessToken(authentication);
+        SecurityContextHolder.getContext().setAuthentication(tokenProvider.getAuthentication(jwt));
+
+        try {
+            mockMvc.perform(post("/api/logout"))
+                .andExpect(status().isOk());
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+
+        assertThat(tokenProvider.parseToken(jwt).getFailure()).isEqualTo(TokenValidationResult.Failure.REVOKED);
+    }
+
+    @Test
+    @Transactional
+    public void testRefreshTokenRotation() throws Exception {
+        User user = new User();
+        user.setLogin("user-jwt-controller-refresh");
+        user.setEmail("user-jwt-controller-refresh@example.com");
+        user.setActivated(true);
+        user.setPassword(passwordEncoder.encode("test"));
+
+        userRepository.saveAndFlush(user);
+
+        LoginVM login = new LoginVM();
+        login.setUsername("user-jwt-controller-refresh");
+        login.setPassword("test");
+        login.setRefreshToken(true);
+        String response = mockMvc.perform(post("/api/authenticate")
+            .contentType(TestUtil.APPLICATION_JSON_UTF8)
+            .content(TestUtil.convertObjectToJsonBytes(login)))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.id_token").isNotEmpty())
+            .andExpect(jsonPath("$.refresh_token").isNotEmpty())
+            .andReturn().getResponse().getContentAsString();
+        String refreshToken = JsonPath.read(response, "$.refresh_token");
+
+        RefreshTokenVM refresh = new RefreshTokenVM();
+        refresh.setRefreshToken(refreshToken);
+        response = mockMvc.perform(post("/api/authenticate/refresh")
+            .contentType(TestUtil.APPLICATION_JSON_UTF8)
+            .content(TestUtil.convertObjectToJsonBytes(refresh)))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.id_token").isNotEmpty())
+            .andExpect(jsonPath("$.refresh_token").isNotEmpty())
+            .andExpect(header().string("Authorization", not(isEmptyString())))
+            .andReturn().getResponse().getContentAsString();
+        String jwt = JsonPath.read(response, "$.id_token");
+        String rotatedRefreshToken = JsonPath.read(response, "$.refresh_token");
+        assertThat(rotatedRefreshToken).isNotEqualTo(refreshToken);
+        assertThat(tokenProvider.parseToken(jwt).getAuthentication().getName()).isEqualTo("user-jwt-controller-refresh");
+
+        // Reusing the first refresh token revokes the whole family
+        mockMvc.perform(post("/api/authenticate/refresh")
+            .contentType(TestUtil.APPLICATION_JSON_UTF8)
+            .content(TestUtil.convertObjectToJsonBytes(refresh)))
+            .andExpect(status().isUnauthorized());
+        refresh.setRefreshToken(rotatedRefreshToken);
+        mockMvc.perform(post("/api/authenticate/refresh")
+            .contentType(TestUtil.APPLICATION_JSON_UTF8)
+            .content(TestUtil.convertObjectToJsonBytes(refresh)))
+            .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    @Transactional
+    public void testRefreshOfDeactivatedUserDoesNotUseUpToken() throws Exception {
+        User user = new User();
+        user.setLogin("user-jwt-controller-refresh-deactivated");
+        user.setEmail("user-jwt-controller-refresh-deactivated@example.com");
+        user.setActivated(true);
+        user.setPassword(passwordEncoder.encode("test"));
+
+        userRepository.saveAndFlush(user);
+        String refreshToken = refreshTokenService.createRefreshToken("user-jwt-controller-refresh-deactivated", false);
+
+        user.setActivated(false);
+        userRepository.saveAndFlush(user);
+        RefreshTokenVM refresh = new RefreshTokenVM();
+        refresh.setRefreshToken(refreshToken);
+        mockMvc.perform(post("/api/authenticate/refresh")
+            .contentType(TestUtil.APPLICATION_JSON_UTF8)
+            .content(TestUtil.convertObjectToJsonBytes(refresh)))
+            .andExpect(status().isUnauthorized())
+            .andExpect(jsonPath("$.id_token").doesNotExist());
+
+        // Once reactivated, the same refresh token is still valid
+        user.setActivated(true);
+        userRepository.saveAndFlush(user);
+        mockMvc.perform(post("/api/authenticate/refresh")
+            .contentType(TestUtil.APPLICATION_JSON_UTF8)
+            .content(TestUtil.convertObjectToJsonBytes(refresh)))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.id_token").isNotEmpty());
+    }
+
+    @Test
+    public void testRefreshFailsWithUnknownToken() throws Exception {
+        RefreshTokenVM refresh = new RefreshTokenVM();
+        refresh.setRefreshToken("unknown");
+        mockMvc.perform(post("/api/authenticate/refresh")
+            .contentType(TestUtil.APPLICATION_JSON_UTF8)
+            .content(TestUtil.convertObjectToJsonBytes(refresh)))
+            .andExpect(status().isUnauthorized())
+            .andExpect(jsonPath("$.id_token").doesNotExist());
+    }
 }
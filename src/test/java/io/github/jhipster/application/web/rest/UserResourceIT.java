@@ -1,6 +1,7 @@
 package io.github.jhipster.application.web.rest;
 
 import io.github.jhipster.application.JhipsterSampleApplicationApp;
+import io.github.jhipster.application.config.Constants;
 import io.github.jhipster.application.domain.Authority;
 import io.github.jhipster.application.domain.User;
 import io.github.jhipster.application.repository.UserRepository;
@@ -18,13 +19,16 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.cache.CacheManager;
 import org.springframework.data.web.PageableHandlerMethodArgumentResolver;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import org.springframework.transaction.annotation.Transactional;
 
 import javax.persistence.EntityManager;
+import java.net.URI;
 import java.time.Instant;
 import java.util.*;
 
@@ -272,6 +276,58 @@ public class UserResourceIT {
             .andExpect(jsonPath("$.[*].langKey").value(hasItem(DEFAULT_LANGKEY)));
     }
 
+    @Test
+    @Transactional
+    public void getAllUsersByCursor() throws Exception {
+        // Initialize the database
+        List<String> logins = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            User other = createEntity(em);
+            other.setLogin("cursor" + i);
+            userRepository.saveAndFlush(other);
+            logins.add(other.getLogin());
+        }
+        List<String> expected = new ArrayList<>();
+        for (User other : userRepository.findAll()) {
+            if (!other.getLogin().equals(Constants.ANONYMOUS_USER)) {
+                expected.add(other.getLogin());
+            }
+        }
+        expected.sort(Comparator.reverseOrder());
+
+        // Get all the users, two by two
+        List<String> paged = new ArrayList<>();
+        String url = "/api/users?cursor=&size=2&sort=login,desc&count=true";
+        while (url != null) {
+            MvcResult result = restUserMockMvc.perform(get(new URI(url))
+                .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-Total-Count", String.valueOf(expected.size())))
+                .andReturn();
+            UserDTO[] page = jacksonMessageConverter.getObjectMapper().readValue(result.getResponse().getContentAsByteArray(), UserDTO[].class);
+            assertThat(page.length).isLessThanOrEqualTo(2);
+            Arrays.stream(page).map(UserDTO::getLogin).forEach(paged::add);
+            String link = result.getResponse().getHeader(HttpHeaders.LINK);
+            if (link != null) {
+                assertThat(link).contains("sort=login%2Cdesc").doesNotContain(",");
+            }
+            url = link != null ? "/api/users?" + link.substring(link.indexOf('?') + 1, link.indexOf('>')) : null;
+        }
+        assertThat(paged).containsAll(logins);
+        assertThat(paged).containsExactlyElementsOf(expected);
+    }
+
+    @Test
+    @Transactional
+    public void getAllUsersByInvalidCursor() throws Exception {
+        restUserMockMvc.perform(get("/api/users?cursor=invalid")
+            .accept(MediaType.APPLICATION_JSON))
+            .andExpect(status().isBadRequest());
+        restUserMockMvc.perform(get("/api/users?cursor=&sort=firstName,asc")
+            .accept(MediaType.APPLICATION_JSON))
+            .andExpect(status().isBadRequest());
+    }
+
     @Test
     @Transactional
     public void getUser() throws Exception {
@@ -1,5 +1,7 @@
 package io.github.jhipster.application.web.rest.errors;
 
+import io.github.jhipster.application.security.PasswordHashingRejectedException;
+
 import org.springframework.dao.ConcurrencyFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.security.access.AccessDeniedException;
@@ -49,6 +51,11 @@ public class ExceptionTranslatorTestController {
         throw new RuntimeException();
     }
 
+    @GetMapping("/test/password-hashing-rejected")
+    public void passwordHashingRejected() {
+        throw new PasswordHashingRejectedException("test password hashing rejected");
+    }
+
     public static class TestDTO {
 
         @NotNull